@@ -2,6 +2,7 @@ package org.metaborg.spg.sentence.antlr.eclipse.config;
 
 import org.metaborg.core.language.ILanguageImpl;
 import org.metaborg.core.project.IProject;
+import org.metaborg.spg.sentence.shared.shrink.ShrinkBudget;
 
 public class DifferenceJobConfig {
     private final ILanguageImpl language;
@@ -10,6 +11,9 @@ public class DifferenceJobConfig {
     private final int maxTermSize;
     private final String antlrGrammar;
     private final String antlrStartSymbol;
+    private final boolean textShrinking;
+    private final ShrinkBudget shrinkBudget;
+    private final boolean hierarchical;
 
     public DifferenceJobConfig(
             ILanguageImpl language,
@@ -18,12 +22,53 @@ public class DifferenceJobConfig {
             int maxTermSize,
             String antlrGrammar,
             String antlrStartSymbol) {
+        this(language, project, maxNumberOfTerms, maxTermSize, antlrGrammar, antlrStartSymbol, false);
+    }
+
+    public DifferenceJobConfig(
+            ILanguageImpl language,
+            IProject project,
+            int maxNumberOfTerms,
+            int maxTermSize,
+            String antlrGrammar,
+            String antlrStartSymbol,
+            boolean textShrinking) {
+        this(language, project, maxNumberOfTerms, maxTermSize, antlrGrammar, antlrStartSymbol, textShrinking,
+                ShrinkBudget.UNLIMITED);
+    }
+
+    public DifferenceJobConfig(
+            ILanguageImpl language,
+            IProject project,
+            int maxNumberOfTerms,
+            int maxTermSize,
+            String antlrGrammar,
+            String antlrStartSymbol,
+            boolean textShrinking,
+            ShrinkBudget shrinkBudget) {
+        this(language, project, maxNumberOfTerms, maxTermSize, antlrGrammar, antlrStartSymbol, textShrinking,
+                shrinkBudget, false);
+    }
+
+    public DifferenceJobConfig(
+            ILanguageImpl language,
+            IProject project,
+            int maxNumberOfTerms,
+            int maxTermSize,
+            String antlrGrammar,
+            String antlrStartSymbol,
+            boolean textShrinking,
+            ShrinkBudget shrinkBudget,
+            boolean hierarchical) {
         this.language = language;
         this.project = project;
         this.maxNumberOfTerms = maxNumberOfTerms;
         this.maxTermSize = maxTermSize;
         this.antlrGrammar = antlrGrammar;
         this.antlrStartSymbol = antlrStartSymbol;
+        this.textShrinking = textShrinking;
+        this.shrinkBudget = shrinkBudget;
+        this.hierarchical = hierarchical;
     }
 
     public ILanguageImpl getLanguage() {
@@ -49,4 +94,25 @@ public class DifferenceJobConfig {
     public String getAntlrStartSymbol() {
         return antlrStartSymbol;
     }
+
+    /**
+     * @return True if the shrunk sentence is shrunk further at the level of tokens.
+     */
+    public boolean isTextShrinking() {
+        return textShrinking;
+    }
+
+    /**
+     * @return The time and tests that shrinking may spend before it stops with the best result so far.
+     */
+    public ShrinkBudget getShrinkBudget() {
+        return shrinkBudget;
+    }
+
+    /**
+     * @return True if shrinking tries hierarchical delta debugging before the one-subtree-at-a-time candidates.
+     */
+    public boolean isHierarchical() {
+        return hierarchical;
+    }
 }
@@ -18,16 +18,28 @@ public class DifferenceDialog extends SentenceDialog {
 
     private static final String DEFAULT_MAX_NUMBER_OF_TERMS = "10000";
     private static final String DEFAULT_MAX_TERM_SIZE = "10000";
+    private static final boolean DEFAULT_TEXT_SHRINKING = false;
+    private static final boolean DEFAULT_HIERARCHICAL = false;
+    private static final String DEFAULT_SHRINK_TIME_LIMIT = "0";
+    private static final String DEFAULT_MAX_SHRINK_TESTS = "0";
 
     private Text txtMaxNumberOfTerms;
     private Text txtMaxTermSize;
     private Combo txtAntlrGrammar;
     private Text txtAntlrStartSymbol;
+    private Button btnTextShrinking;
+    private Button btnHierarchical;
+    private Text txtShrinkTimeLimit;
+    private Text txtMaxShrinkTests;
 
     private String maxNumberOfTerms;
     private String maxTermSize;
     private String antlrGrammar;
     private String antlrStartSymbol;
+    private boolean textShrinking;
+    private boolean hierarchical;
+    private String shrinkTimeLimit;
+    private String maxShrinkTests;
 
     public DifferenceDialog(Shell parentShell) {
         super(parentShell);
@@ -59,6 +71,10 @@ public class DifferenceDialog extends SentenceDialog {
 
         txtMaxNumberOfTerms = createField(group, "Max number of terms:", DEFAULT_MAX_NUMBER_OF_TERMS);
         txtMaxTermSize = createField(group, "Max term size:", DEFAULT_MAX_TERM_SIZE);
+        btnTextShrinking = createCheckbox(group, "Token-level shrinking:", DEFAULT_TEXT_SHRINKING);
+        btnHierarchical = createCheckbox(group, "Hierarchical shrinking:", DEFAULT_HIERARCHICAL);
+        txtShrinkTimeLimit = createField(group, "Shrink time limit (ms, 0 = none):", DEFAULT_SHRINK_TIME_LIMIT);
+        txtMaxShrinkTests = createField(group, "Max shrink tests (0 = none):", DEFAULT_MAX_SHRINK_TESTS);
     }
 
     private void createAntlrConfiguration(Composite area) {
@@ -119,6 +135,10 @@ public class DifferenceDialog extends SentenceDialog {
         maxTermSize = txtMaxTermSize.getText();
         antlrGrammar = txtAntlrGrammar.getText();
         antlrStartSymbol = txtAntlrStartSymbol.getText();
+        textShrinking = btnTextShrinking.getSelection();
+        hierarchical = btnHierarchical.getSelection();
+        shrinkTimeLimit = txtShrinkTimeLimit.getText();
+        maxShrinkTests = txtMaxShrinkTests.getText();
 
         super.okPressed();
     }
@@ -168,4 +188,20 @@ public class DifferenceDialog extends SentenceDialog {
     public String getAntlrStartSymbol() {
         return antlrStartSymbol;
     }
+
+    public boolean isTextShrinking() {
+        return textShrinking;
+    }
+
+    public boolean isHierarchical() {
+        return hierarchical;
+    }
+
+    public Long getShrinkTimeLimit() {
+        return Long.valueOf(shrinkTimeLimit);
+    }
+
+    public Long getMaxShrinkTests() {
+        return Long.valueOf(maxShrinkTests);
+    }
 }
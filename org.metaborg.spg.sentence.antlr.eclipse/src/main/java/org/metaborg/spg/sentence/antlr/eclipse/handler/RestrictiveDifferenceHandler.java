@@ -13,6 +13,7 @@ import org.metaborg.spg.sentence.antlr.eclipse.job.JobFactory;
 import org.metaborg.spg.sentence.sdf.eclipse.exception.LanguageNotFoundException;
 import org.metaborg.spg.sentence.sdf.eclipse.exception.ProjectNotFoundException;
 import org.metaborg.spg.sentence.sdf.eclipse.handler.SentenceHandler;
+import org.metaborg.spg.sentence.shared.shrink.ShrinkBudget;
 
 public class RestrictiveDifferenceHandler extends SentenceHandler {
     public Object execute(ExecutionEvent executionEvent) throws ExecutionException {
@@ -47,7 +48,10 @@ public class RestrictiveDifferenceHandler extends SentenceHandler {
                 differenceDialog.getMaxNumberOfTerms(),
                 differenceDialog.getMaxTermSize(),
                 differenceDialog.getAntlrGrammar(),
-                differenceDialog.getAntlrStartSymbol()
+                differenceDialog.getAntlrStartSymbol(),
+                differenceDialog.isTextShrinking(),
+                new ShrinkBudget(differenceDialog.getShrinkTimeLimit(), differenceDialog.getMaxShrinkTests()),
+                differenceDialog.isHierarchical()
         );
     }
 }
@@ -1,22 +1,26 @@
 package org.metaborg.spg.sentence.antlr.eclipse.job;
 
-import org.antlr.v4.runtime.*;
 import org.antlr.v4.tool.Grammar;
-import org.antlr.v4.tool.Rule;
 import org.metaborg.core.language.ILanguageImpl;
 import org.metaborg.core.syntax.ParseException;
+import org.metaborg.spg.sentence.antlr.parse.AntlrParseOracle;
 import org.metaborg.spg.sentence.sdf.eclipse.job.SentenceJob;
+import org.metaborg.spg.sentence.shared.parse.ParseOracle;
+import org.metaborg.spg.sentence.shared.parse.SpoofaxParseOracle;
 import org.metaborg.spoofax.core.syntax.ISpoofaxSyntaxService;
 import org.metaborg.spoofax.core.syntax.JSGLRParserConfiguration;
-import org.metaborg.spoofax.core.unit.ISpoofaxInputUnit;
-import org.metaborg.spoofax.core.unit.ISpoofaxParseUnit;
 import org.metaborg.spoofax.core.unit.ISpoofaxUnitService;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 public abstract class DifferenceJob extends SentenceJob {
     private final ISpoofaxUnitService unitService;
     private final ISpoofaxSyntaxService syntaxService;
+    private final Map<List<Object>, ParseOracle> oracles = new HashMap<>();
 
     public DifferenceJob(ISpoofaxUnitService unitService, ISpoofaxSyntaxService syntaxService, String name) {
         super(name);
@@ -30,34 +34,26 @@ public abstract class DifferenceJob extends SentenceJob {
     }
 
     protected boolean canParseAntlr(Grammar grammar, String antlrStartSymbol, String text) throws IOException {
-        try {
-            return parseAntlr(grammar, antlrStartSymbol, text).getNumberOfSyntaxErrors() == 0;
-        } catch (StringIndexOutOfBoundsException e) {
-            return false;
-        }
-    }
-
-    protected Parser parseAntlr(Grammar grammar, String antlrStartSymbol, String text) throws IOException {
-        CharStream charStream = CharStreams.fromString(text);
-        LexerInterpreter lexer = grammar.createLexerInterpreter(charStream);
-        lexer.removeErrorListener(ConsoleErrorListener.INSTANCE);
-
-        CommonTokenStream tokens = new CommonTokenStream(lexer);
-        ParserInterpreter parser = grammar.createParserInterpreter(tokens);
-
-        Rule startRule = grammar.getRule(antlrStartSymbol);
-        parser.parse(startRule.index);
-
-        return parser;
+        return getAntlrOracle(grammar, antlrStartSymbol).canParse(text);
     }
 
     protected boolean canParseSpoofax(ILanguageImpl languageImpl, String text, JSGLRParserConfiguration config) throws ParseException {
-        return parseSpoofax(languageImpl, text, config).success();
+        return getSpoofaxOracle(languageImpl, config).canParse(text);
     }
 
-    protected ISpoofaxParseUnit parseSpoofax(ILanguageImpl languageImpl, String text, JSGLRParserConfiguration config) throws ParseException {
-        ISpoofaxInputUnit inputUnit = unitService.inputUnit(text, languageImpl, null, config);
+    /**
+     * @return The oracle for the grammar and start symbol. The same text is only parsed once during a job.
+     */
+    protected ParseOracle getAntlrOracle(Grammar grammar, String antlrStartSymbol) {
+        return oracles.computeIfAbsent(Arrays.asList(grammar, antlrStartSymbol),
+                key -> new AntlrParseOracle(grammar, antlrStartSymbol));
+    }
 
-        return syntaxService.parse(inputUnit);
+    /**
+     * @return The oracle for the language and parser configuration. The same text is only parsed once during a job.
+     */
+    protected ParseOracle getSpoofaxOracle(ILanguageImpl languageImpl, JSGLRParserConfiguration config) {
+        return oracles.computeIfAbsent(Arrays.asList(languageImpl, config),
+                key -> new SpoofaxParseOracle(unitService, syntaxService, languageImpl, config));
     }
 }
@@ -1,7 +1,11 @@
 package org.metaborg.spg.sentence.antlr.eclipse.job;
 
+import static org.metaborg.spg.sentence.shared.utils.FunctionalUtils.uncheckPredicate;
+
 import java.io.IOException;
+import java.util.Iterator;
 import java.util.Optional;
+import java.util.function.Predicate;
 
 import org.antlr.v4.tool.Grammar;
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -18,17 +22,16 @@ import org.metaborg.spg.sentence.generator.Generator;
 import org.metaborg.spg.sentence.generator.GeneratorFactory;
 import org.metaborg.spg.sentence.printer.Printer;
 import org.metaborg.spg.sentence.printer.PrinterFactory;
-import org.metaborg.spg.sentence.sdf3.GrammarFactory;
-import org.metaborg.spg.sentence.shared.utils.SpoofaxUtils;
+import org.metaborg.spg.sentence.shared.shrink.RejectionMemo;
+import org.metaborg.spg.sentence.shared.shrink.ShrinkBudget;
+import org.metaborg.spg.sentence.shared.shrink.TextShrinker;
 import org.metaborg.spg.sentence.shrinker.Shrinker;
 import org.metaborg.spg.sentence.shrinker.ShrinkerFactory;
 import org.metaborg.spg.sentence.signature.Signature;
 import org.metaborg.spg.sentence.signature.SignatureFactory;
-import org.metaborg.spoofax.core.SpoofaxConstants;
 import org.metaborg.spoofax.core.syntax.ISpoofaxSyntaxService;
 import org.metaborg.spoofax.core.syntax.JSGLRParserConfiguration;
 import org.metaborg.spoofax.core.unit.ISpoofaxUnitService;
-import org.metaborg.spoofax.eclipse.SpoofaxPlugin;
 import org.spoofax.interpreter.terms.IStrategoTerm;
 
 import com.google.inject.Inject;
@@ -39,11 +42,9 @@ public class LiberalDifferenceJob extends DifferenceJob {
 
     private final PrinterFactory printerFactory;
     private final GeneratorFactory generatorFactory;
-    private final GrammarFactory grammarFactory;
     private final SignatureFactory signatureFactory;
     private final ShrinkerFactory shrinkerFactory;
     private final DifferenceJobConfig config;
-    private final ILanguageImpl templateLanguage;
 
     @jakarta.inject.Inject
     public LiberalDifferenceJob(
@@ -51,7 +52,6 @@ public class LiberalDifferenceJob extends DifferenceJob {
             ISpoofaxSyntaxService syntaxService,
             PrinterFactory printerFactory,
             GeneratorFactory generatorFactory,
-            GrammarFactory grammarFactory,
             SignatureFactory signatureFactory,
             ShrinkerFactory shrinkerFactory,
             @Assisted DifferenceJobConfig config) throws MetaborgException {
@@ -59,11 +59,9 @@ public class LiberalDifferenceJob extends DifferenceJob {
 
         this.printerFactory = printerFactory;
         this.generatorFactory = generatorFactory;
-        this.grammarFactory = grammarFactory;
         this.signatureFactory = signatureFactory;
         this.shrinkerFactory = shrinkerFactory;
         this.config = config;
-        this.templateLanguage = SpoofaxUtils.getLanguage(SpoofaxPlugin.spoofax(), SpoofaxConstants.LANG_SDF3_NAME);
     }
 
     @Override
@@ -80,8 +78,7 @@ public class LiberalDifferenceJob extends DifferenceJob {
         try {
             Printer printer = printerFactory.create(language, project);
             Generator generator = generatorFactory.create(language, project);
-            org.metaborg.spg.sentence.sdf3.Grammar grammar = grammarFactory.create(templateLanguage, project);
-            Signature signature = signatureFactory.create(grammar);
+            Signature signature = signatureFactory.create(generator.getGrammar());
             Shrinker shrinker = shrinkerFactory.create(generator, signature);
 
             for (int i = 0; i < maxNumberOfTerms; i++) {
@@ -103,7 +100,16 @@ public class LiberalDifferenceJob extends DifferenceJob {
 
                                 // Shrink
                                 try {
-                                    shrinkStar(subMonitor, shrinker, printer, antlrGrammar, antlrStartSymbol, language, term);
+                                    RejectionMemo<IStrategoTerm> memo = RejectionMemo.ofTerms();
+                                    ShrinkBudget.Meter meter = config.getShrinkBudget().start();
+
+                                    IStrategoTerm shrunkTerm = shrinkStar(subMonitor, shrinker, printer, antlrGrammar, antlrStartSymbol, language, term, memo, meter);
+
+                                    if (config.isTextShrinking()) {
+                                        shrinkText(printer.print(shrunkTerm), antlrGrammar, antlrStartSymbol, language, meter);
+                                    }
+
+                                    stream.println(meter.isExhausted() ? "=== Shrink budget exhausted ===" : "=== Local minimum ===");
                                 } catch (Exception e) {
                                     Activator.logError("An unexpected error occurred.", e);
                                 }
@@ -125,34 +131,65 @@ public class LiberalDifferenceJob extends DifferenceJob {
         }
     }
 
-    private IStrategoTerm shrinkStar(SubMonitor subMonitor, Shrinker shrinker, Printer printer, Grammar antlrGrammar, String antlrStartSymbol, ILanguageImpl language, IStrategoTerm term) throws IOException, ParseException {
-        subMonitor.setWorkRemaining(50).split(1);
+    /**
+     * Shrink the term until no smaller term is found or the meter is exhausted, and return the smallest term so far.
+     */
+    private IStrategoTerm shrinkStar(SubMonitor subMonitor, Shrinker shrinker, Printer printer, Grammar antlrGrammar, String antlrStartSymbol, ILanguageImpl language, IStrategoTerm term, RejectionMemo<IStrategoTerm> memo, ShrinkBudget.Meter meter) throws IOException, ParseException {
+        IStrategoTerm shrunkTerm = term;
 
-        Optional<IStrategoTerm> shrinkOpt = shrink(shrinker, printer, antlrGrammar, antlrStartSymbol, language, term);
+        while (true) {
+            subMonitor.setWorkRemaining(50).split(1);
 
-        if (shrinkOpt.isPresent()) {
-            return shrinkStar(subMonitor, shrinker, printer, antlrGrammar, antlrStartSymbol, language, shrinkOpt.get());
-        } else {
-            return term;
+            Optional<IStrategoTerm> shrinkOpt = shrink(shrinker, printer, antlrGrammar, antlrStartSymbol, language, shrunkTerm, memo, meter);
+
+            if (!shrinkOpt.isPresent()) {
+                return shrunkTerm;
+            }
+
+            shrunkTerm = shrinkOpt.get();
         }
     }
 
-    private Optional<IStrategoTerm> shrink(Shrinker shrinker, Printer printer, Grammar antlrGrammar, String antlrStartSymbol, ILanguageImpl language, IStrategoTerm term) throws IOException, ParseException {
-        Iterable<IStrategoTerm> iterable = shrinker.shrink(term)::iterator;
+    /**
+     * Find a smaller term that is legal in SDF3 and illegal in ANTLRv4. Candidates that were rejected in an earlier
+     * round are skipped without printing them, and no candidates are tested once the meter is exhausted.
+     */
+    private Optional<IStrategoTerm> shrink(Shrinker shrinker, Printer printer, Grammar antlrGrammar, String antlrStartSymbol, ILanguageImpl language, IStrategoTerm term, RejectionMemo<IStrategoTerm> memo, ShrinkBudget.Meter meter) throws IOException, ParseException {
+        Iterator<IStrategoTerm> iterator = meter.limit(shrinker.shrink(term).iterator());
+        Iterable<IStrategoTerm> iterable = () -> iterator;
 
         for (IStrategoTerm shrunkTerm : iterable) {
-            String shrunkText = printer.print(shrunkTerm);
+            if (memo.test(shrunkTerm, meter.count(uncheckPredicate(candidate -> isDifference(printer, antlrGrammar, antlrStartSymbol, language, candidate))))) {
+                String shrunkText = printer.print(shrunkTerm);
 
-            if (cannotParseAntlr(antlrGrammar, antlrStartSymbol, shrunkText)) {
-                if (canParseSpoofax(language, shrunkText, PARSER_CONFIG)) {
-                    stream.println("=== Shrunk to " + shrunkText.length() + " characters ===");
-                    stream.println(shrunkText);
+                stream.println("=== Shrunk to " + shrunkText.length() + " characters ===");
+                stream.println(shrunkText);
 
-                    return Optional.of(shrunkTerm);
-                }
+                return Optional.of(shrunkTerm);
             }
         }
 
         return Optional.empty();
     }
+
+    /**
+     * Shrink the sentence further at the level of tokens, keeping it legal in SDF3 and illegal in ANTLRv4.
+     */
+    private String shrinkText(String text, Grammar antlrGrammar, String antlrStartSymbol, ILanguageImpl language, ShrinkBudget.Meter meter) {
+        Predicate<String> difference = meter.count(uncheckPredicate(candidate -> isDifference(antlrGrammar, antlrStartSymbol, language, candidate)));
+        String minimalText = new TextShrinker(candidate -> !meter.isExhausted() && difference.test(candidate)).shrink(text);
+
+        stream.println("=== Shrunk to " + minimalText.length() + " characters as text ===");
+        stream.println(minimalText);
+
+        return minimalText;
+    }
+
+    private boolean isDifference(Printer printer, Grammar antlrGrammar, String antlrStartSymbol, ILanguageImpl language, IStrategoTerm term) throws IOException, ParseException {
+        return isDifference(antlrGrammar, antlrStartSymbol, language, printer.print(term));
+    }
+
+    private boolean isDifference(Grammar antlrGrammar, String antlrStartSymbol, ILanguageImpl language, String text) throws IOException, ParseException {
+        return cannotParseAntlr(antlrGrammar, antlrStartSymbol, text) && canParseSpoofax(language, text, PARSER_CONFIG);
+    }
 }
@@ -4,6 +4,7 @@ import static org.metaborg.spg.sentence.shared.utils.FunctionalUtils.uncheckPred
 
 import java.io.IOException;
 import java.util.Optional;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
 
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -20,6 +21,9 @@ import org.metaborg.spg.sentence.antlr.grammar.GrammarFactory;
 import org.metaborg.spg.sentence.antlr.shrinker.Shrinker;
 import org.metaborg.spg.sentence.antlr.shrinker.ShrinkerFactory;
 import org.metaborg.spg.sentence.antlr.term.Term;
+import org.metaborg.spg.sentence.shared.shrink.RejectionMemo;
+import org.metaborg.spg.sentence.shared.shrink.ShrinkBudget;
+import org.metaborg.spg.sentence.shared.shrink.TextShrinker;
 import org.metaborg.spg.sentence.shared.utils.SpoofaxUtils;
 import org.metaborg.spoofax.core.syntax.ISpoofaxSyntaxService;
 import org.metaborg.spoofax.core.syntax.JSGLRParserConfiguration;
@@ -92,14 +96,20 @@ public class RestrictiveDifferenceJob extends DifferenceJob {
                             stream.println(sentence);
 
                             // Shrink
+                            RejectionMemo<Term> memo = RejectionMemo.ofTexts(Term::toString);
+                            ShrinkBudget.Meter meter = config.getShrinkBudget().start();
+
                             while (true) {
                                 subMonitor.setWorkRemaining(50).split(1);
 
-                                Stream<Term> shrunkTrees = shrinker.shrink(term);
+                                Stream<Term> shrunkTrees = meter.limit(config.isHierarchical()
+                                        ? shrinker.shrinkHierarchical(term)
+                                        : shrinker.shrink(term));
 
                                 Optional<Term> anyShrunkTree = shrunkTrees
-                                        .filter(uncheckPredicate(shrunkTree -> !canParseSpoofax(language, shrunkTree.toString(), PARSER_CONFIG)))
-                                        .filter(uncheckPredicate(shrunkTree -> canParseAntlr(antlrGrammar, antlrStartSymbol, shrunkTree.toString())))
+                                        .filter(memo.filter(meter.count(uncheckPredicate(shrunkTree ->
+                                                !canParseSpoofax(language, shrunkTree.toString(), PARSER_CONFIG)
+                                                        && canParseAntlr(antlrGrammar, antlrStartSymbol, shrunkTree.toString())))))
                                         .findFirst();
 
                                 if (anyShrunkTree.isPresent()) {
@@ -114,6 +124,19 @@ public class RestrictiveDifferenceJob extends DifferenceJob {
                                 }
                             }
 
+                            if (config.isTextShrinking()) {
+                                Predicate<String> difference = meter.count(uncheckPredicate(text ->
+                                        !canParseSpoofax(language, text, PARSER_CONFIG)
+                                                && canParseAntlr(antlrGrammar, antlrStartSymbol, text)));
+                                String minimalText = new TextShrinker(text -> !meter.isExhausted() && difference.test(text))
+                                        .shrink(term.toString());
+
+                                stream.println("=== Shrunk to " + minimalText.length() + " characters as text ===");
+                                stream.println(minimalText);
+                            }
+
+                            stream.println(meter.isExhausted() ? "=== Shrink budget exhausted ===" : "=== Local minimum ===");
+
                             break;
                         }
                     }
@@ -1,34 +1,26 @@
 package org.metaborg.spg.sentence.antlr;
 
-import static org.metaborg.spg.sentence.shared.utils.FunctionalUtils.uncheckPredicate;
-
 import java.io.IOException;
 import java.util.Optional;
 import java.util.stream.Stream;
 
-import org.antlr.v4.runtime.CharStream;
-import org.antlr.v4.runtime.CharStreams;
-import org.antlr.v4.runtime.CommonTokenStream;
-import org.antlr.v4.runtime.ConsoleErrorListener;
-import org.antlr.v4.runtime.LexerInterpreter;
-import org.antlr.v4.runtime.ParserInterpreter;
-import org.antlr.v4.tool.Rule;
 import org.apache.commons.vfs2.FileObject;
 import org.metaborg.core.MetaborgException;
 import org.metaborg.core.language.ILanguageImpl;
-import org.metaborg.core.syntax.ParseException;
 import org.metaborg.spg.sentence.antlr.generator.Generator;
 import org.metaborg.spg.sentence.antlr.generator.GeneratorFactory;
 import org.metaborg.spg.sentence.antlr.grammar.Grammar;
 import org.metaborg.spg.sentence.antlr.grammar.GrammarFactory;
+import org.metaborg.spg.sentence.antlr.parse.AntlrParseOracle;
 import org.metaborg.spg.sentence.antlr.shrinker.Shrinker;
 import org.metaborg.spg.sentence.antlr.shrinker.ShrinkerFactory;
 import org.metaborg.spg.sentence.antlr.term.Term;
+import org.metaborg.spg.sentence.shared.parse.ParseOracle;
+import org.metaborg.spg.sentence.shared.parse.SpoofaxParseOracle;
+import org.metaborg.spg.sentence.shared.shrink.TextShrinker;
 import org.metaborg.spoofax.core.Spoofax;
 import org.metaborg.spoofax.core.shell.CLIUtils;
 import org.metaborg.spoofax.core.syntax.JSGLRParserConfiguration;
-import org.metaborg.spoofax.core.unit.ISpoofaxInputUnit;
-import org.metaborg.spoofax.core.unit.ISpoofaxParseUnit;
 
 public class Main {
     public static final JSGLRParserConfiguration JSGLR_PARSER_CONFIGURATION = new JSGLRParserConfiguration(
@@ -65,6 +57,10 @@ public class Main {
             String antlrStartSymbol = args[3];
             int maxSize = Integer.valueOf(args[4]);
 
+            // Optional: shrink level by level, and shrink the text token by token after the tree
+            boolean hierarchical = args.length > 5 && Boolean.parseBoolean(args[5]);
+            boolean textShrinking = args.length > 6 && Boolean.parseBoolean(args[6]);
+
             ILanguageImpl antlrLanguageImpl = cli.loadLanguage(antlrLanguageFile);
             ILanguageImpl minijavaLanguageImpl = cli.loadLanguage(minijavaLanguageFile);
 
@@ -78,6 +74,9 @@ public class Main {
             Shrinker shrinker = shrinkerFactory.create(generator, grammar);
 
             org.antlr.v4.tool.Grammar antlrGrammar = org.antlr.v4.tool.Grammar.load(args[1]);
+            ParseOracle antlrOracle = new AntlrParseOracle(antlrGrammar, antlrStartSymbol);
+            ParseOracle spoofaxOracle = new SpoofaxParseOracle(spoofax.unitService, spoofax.syntaxService,
+                    minijavaLanguageImpl, JSGLR_PARSER_CONFIGURATION);
 
             for (int i = 0; i < 1000000; i++) {
                 Optional<Term> termOpt = generator.generate(antlrStartSymbol, maxSize);
@@ -88,17 +87,19 @@ public class Main {
 
                     System.out.println(sentence);
 
-                    if (cannotParse(spoofax, minijavaLanguageImpl, sentence)) {
-                        if (canParse(antlrGrammar, antlrStartSymbol, sentence)) {
+                    if (!spoofaxOracle.canParse(sentence)) {
+                        if (antlrOracle.canParse(sentence)) {
                             System.out.println("Legal ANTLRv4 illegal SDF3 sentence:");
                             System.out.println(sentence);
 
                             while (true) {
-                                Stream<Term> shrunkTrees = shrinker.shrink(term);
+                                Stream<Term> shrunkTrees = hierarchical
+                                        ? shrinker.shrinkHierarchical(term)
+                                        : shrinker.shrink(term);
 
                                 Optional<Term> anyShrunkTree = shrunkTrees
-                                        .filter(uncheckPredicate(shrunkTree -> cannotParse(spoofax, minijavaLanguageImpl, shrunkTree.toString())))
-                                        .filter(uncheckPredicate(shrunkTree -> canParse(antlrGrammar, antlrStartSymbol, shrunkTree.toString())))
+                                        .filter(shrunkTree -> !spoofaxOracle.canParse(shrunkTree.toString()))
+                                        .filter(shrunkTree -> antlrOracle.canParse(shrunkTree.toString()))
                                         .findFirst();
 
                                 if (anyShrunkTree.isPresent()) {
@@ -113,6 +114,18 @@ public class Main {
                                 }
                             }
 
+                            if (textShrinking) {
+                                String minimalText = new TextShrinker(text ->
+                                        !spoofaxOracle.canParse(text) && antlrOracle.canParse(text)
+                                ).shrink(term.toString());
+
+                                System.out.println("Shrunk to " + minimalText.length() + " chars as text:");
+                                System.out.println(minimalText);
+                            }
+
+                            System.out.println(antlrOracle);
+                            System.out.println(spoofaxOracle);
+
                             return;
                         } else {
                             System.err.println("Unparsable sentence: " + sentence);
@@ -124,34 +137,4 @@ public class Main {
             e.printStackTrace();
         }
     }
-
-    private static boolean canParse(org.antlr.v4.tool.Grammar grammar, String antlrStartSymbol, String text) throws IOException {
-        CharStream charStream = CharStreams.fromString(text);
-        LexerInterpreter lexer = grammar.createLexerInterpreter(charStream);
-        lexer.removeErrorListener(ConsoleErrorListener.INSTANCE);
-
-        CommonTokenStream tokens = new CommonTokenStream(lexer);
-        ParserInterpreter parser = grammar.createParserInterpreter(tokens);
-
-        Rule startRule = grammar.getRule(antlrStartSymbol);
-
-        // Executed for its side-effect
-        parser.parse(startRule.index);
-
-        return parser.getNumberOfSyntaxErrors() == 0;
-    }
-
-    private static boolean cannotParse(Spoofax spoofax, ILanguageImpl languageImpl, String text) throws ParseException {
-        return !canParse(spoofax, languageImpl, text);
-    }
-
-    private static boolean canParse(Spoofax spoofax, ILanguageImpl languageImpl, String text) throws ParseException {
-        return parse(spoofax, languageImpl, text).success();
-    }
-
-    private static ISpoofaxParseUnit parse(Spoofax spoofax, ILanguageImpl languageImpl, String text) throws ParseException {
-        ISpoofaxInputUnit inputUnit = spoofax.unitService.inputUnit(text, languageImpl, null, JSGLR_PARSER_CONFIGURATION);
-
-        return spoofax.syntaxService.parse(inputUnit);
-    }
 }
@@ -0,0 +1,40 @@
+package org.metaborg.spg.sentence.antlr.parse;
+
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.ConsoleErrorListener;
+import org.antlr.v4.runtime.LexerInterpreter;
+import org.antlr.v4.runtime.ParserInterpreter;
+import org.antlr.v4.tool.Grammar;
+import org.antlr.v4.tool.Rule;
+import org.metaborg.spg.sentence.shared.parse.ParseOracle;
+import org.metaborg.spg.sentence.shared.parse.Verdict;
+
+/**
+ * Parse oracle for an ANTLRv4 grammar, interpreted from the given start rule. ANTLR resolves ambiguities itself, so
+ * the verdict is either {@link Verdict#OK} or {@link Verdict#ERROR}.
+ */
+public class AntlrParseOracle extends ParseOracle {
+    public AntlrParseOracle(Grammar grammar, String startSymbol) {
+        this(grammar, startSymbol, DEFAULT_CAPACITY);
+    }
+
+    public AntlrParseOracle(Grammar grammar, String startSymbol, int capacity) {
+        super(text -> verdict(grammar, grammar.getRule(startSymbol), text), capacity);
+    }
+
+    private static Verdict verdict(Grammar grammar, Rule startRule, String text) {
+        CharStream charStream = CharStreams.fromString(text);
+        LexerInterpreter lexer = grammar.createLexerInterpreter(charStream);
+        lexer.removeErrorListener(ConsoleErrorListener.INSTANCE);
+
+        CommonTokenStream tokens = new CommonTokenStream(lexer);
+        ParserInterpreter parser = grammar.createParserInterpreter(tokens);
+
+        // Executed for its side-effect
+        parser.parse(startRule.index);
+
+        return parser.getNumberOfSyntaxErrors() == 0 ? Verdict.OK : Verdict.ERROR;
+    }
+}
@@ -7,6 +7,8 @@ import org.metaborg.spg.sentence.antlr.term.Appl;
 import org.metaborg.spg.sentence.antlr.term.Term;
 import org.metaborg.spg.sentence.antlr.term.TermList;
 import org.metaborg.spg.sentence.antlr.term.Text;
+import org.metaborg.spg.sentence.shared.shrink.CandidateScheduler;
+import org.metaborg.spg.sentence.shared.shrink.DeltaDebugging;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -25,6 +27,10 @@ public class Shrinker {
     private final Generator generator;
     private final Grammar grammar;
 
+    // Estimate the reduction of a subterm by the length of its text, with a space after every token
+    private final CandidateScheduler<Term> scheduler = new CandidateScheduler<>(Term::getChildren,
+            term -> term instanceof Text ? ((Text) term).getText().length() + 1 : 0, 0);
+
     public Shrinker(Random random, Generator generator, Grammar grammar) {
         this.random = random;
         this.generator = generator;
@@ -36,11 +42,130 @@ public class Shrinker {
 
         Collections.shuffle(subtrees, random);
 
-        return flatMap(subtrees.stream(), subTree ->
+        return flatMap(scheduler.schedule(term, subtrees).stream(), subTree ->
                 shrink(term, subTree)
         );
     }
 
+    /**
+     * Shrink with hierarchical delta debugging first: for every level of the term, from the root down, simplify chunks
+     * of halving size of the nodes on that level at once. A list element is simplified by removing it, and a node by
+     * replacing it with the smallest term that can be generated for it. The candidates of {@link #shrink(Term)}
+     * follow.
+     */
+    public Stream<Term> shrinkHierarchical(Term term) {
+        List<List<Term>> levels = DeltaDebugging.levels(term, t -> Arrays.asList(t.getChildren()));
+
+        Stream<Term> hierarchical = flatMap(levels.stream(), level -> {
+            Set<Term> elements = identitySet();
+            Map<Term, Term> replacements = new IdentityHashMap<>();
+
+            for (Term node : level) {
+                if (node instanceof TermList) {
+                    elements.addAll(Arrays.asList(node.getChildren()));
+                }
+            }
+
+            List<Term> nodes = level.stream().filter(node -> {
+                if (elements.contains(node)) {
+                    return true;
+                }
+
+                Optional<Term> minimalOpt = minimal(node);
+                minimalOpt.ifPresent(minimal -> replacements.put(node, minimal));
+
+                return minimalOpt.isPresent();
+            }).collect(Collectors.toList());
+
+            return DeltaDebugging.chunks(nodes)
+                    .map(chunk -> simplify(term, identitySet(chunk), elements, replacements))
+                    .filter(simplified -> simplified != term);
+        });
+
+        return concat(hierarchical, shrink(term));
+    }
+
+    private Optional<Term> minimal(Term term) {
+        if (!(term instanceof Appl)) {
+            return Optional.empty();
+        }
+
+        EmptyElement emptyElement = ((Appl) term).getEmptyElement();
+        int size = size(term);
+
+        for (int budget = 1; budget < size; budget++) {
+            Optional<Term> minimalOpt = generator.forElement(emptyElement, budget);
+
+            if (minimalOpt.isPresent()) {
+                return minimalOpt;
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    private Term simplify(Term term, Set<Term> simplified, Set<Term> elements, Map<Term, Term> replacements) {
+        if (simplified.contains(term) && replacements.containsKey(term)) {
+            return replacements.get(term);
+        }
+
+        if (term instanceof Text) {
+            return term;
+        }
+
+        List<Term> children = new ArrayList<>();
+
+        for (Term child : term.getChildren()) {
+            if (term instanceof TermList && simplified.contains(child) && elements.contains(child)) {
+                continue;
+            }
+
+            children.add(simplify(child, simplified, elements, replacements));
+        }
+
+        if (term instanceof TermList && children.isEmpty() && term.getChildren().length > 0
+                && ((TermList) term).getEmptyElement() instanceof Plus) {
+            children.add(term.getChildren()[0]);
+        }
+
+        if (isSameChildren(children, term)) {
+            return term;
+        }
+
+        if (term instanceof Appl) {
+            return new Appl(((Appl) term).getEmptyElement(), children.toArray(new Term[0]));
+        } else {
+            return new TermList(((TermList) term).getEmptyElement(), children.toArray(new Term[0]));
+        }
+    }
+
+    private boolean isSameChildren(List<Term> children, Term term) {
+        Term[] oldChildren = term.getChildren();
+
+        if (children.size() != oldChildren.length) {
+            return false;
+        }
+
+        for (int i = 0; i < oldChildren.length; i++) {
+            if (children.get(i) != oldChildren[i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private Set<Term> identitySet() {
+        return Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+
+    private Set<Term> identitySet(Collection<Term> terms) {
+        Set<Term> set = identitySet();
+        set.addAll(terms);
+
+        return set;
+    }
+
     private Stream<Term> shrink(Term term, Term subTerm) {
         if (subTerm instanceof Text) {
             return of(term);
@@ -0,0 +1,58 @@
+package org.metaborg.spg.sentence.antlr.parse;
+
+import org.antlr.v4.tool.Grammar;
+import org.junit.jupiter.api.Test;
+import org.metaborg.spg.sentence.shared.parse.Verdict;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class AntlrParseOracleTest {
+    private static final String GRAMMAR = String.join("\n",
+            "grammar Sum;",
+            "start : exp EOF ;",
+            "exp : exp '+' exp | NUM ;",
+            "NUM : [0-9]+ ;",
+            "WS : ' ' -> skip ;"
+    );
+
+    @Test
+    public void testOk() throws Exception {
+        AntlrParseOracle oracle = new AntlrParseOracle(new Grammar(GRAMMAR), "start");
+
+        assertEquals(Verdict.OK, oracle.parse("1 + 2"));
+    }
+
+    @Test
+    public void testAmbiguous() throws Exception {
+        // ANTLR picks one of the trees, so an ambiguous text is reported as OK
+        AntlrParseOracle oracle = new AntlrParseOracle(new Grammar(GRAMMAR), "start");
+
+        assertEquals(Verdict.OK, oracle.parse("1 + 2 + 3"));
+    }
+
+    @Test
+    public void testError() throws Exception {
+        AntlrParseOracle oracle = new AntlrParseOracle(new Grammar(GRAMMAR), "start");
+
+        assertEquals(Verdict.ERROR, oracle.parse("1 +"));
+        assertEquals(Verdict.ERROR, oracle.parse("1 - 2"));
+    }
+
+    @Test
+    public void testCacheHit() throws Exception {
+        AntlrParseOracle oracle = new AntlrParseOracle(new Grammar(GRAMMAR), "start", 1);
+
+        oracle.parse("1 + 2");
+        oracle.parse("1 + 2");
+
+        assertEquals(1, oracle.getHits());
+        assertEquals(1, oracle.getMisses());
+
+        // A capacity of one keeps only the last text
+        oracle.parse("1 +");
+        oracle.parse("1 + 2");
+
+        assertEquals(1, oracle.getHits());
+        assertEquals(3, oracle.getMisses());
+    }
+}
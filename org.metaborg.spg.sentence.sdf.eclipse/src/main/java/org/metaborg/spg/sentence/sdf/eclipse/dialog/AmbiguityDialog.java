@@ -12,12 +12,54 @@ public class AmbiguityDialog extends SentenceDialog {
 
     private static final String DEFAULT_MAX_NUMBER_OF_TERMS = "10000";
     private static final String DEFAULT_MAX_TERM_SIZE = "10000";
+    private static final String DEFAULT_WORKERS = "1";
+    private static final boolean DEFAULT_BOLTZMANN = false;
+    private static final boolean DEFAULT_ENUMERATE = false;
+    private static final boolean DEFAULT_PIPELINE = false;
+    private static final boolean DEFAULT_INCREMENTAL_PRINTING = false;
+    private static final boolean DEFAULT_TEMPLATE_PRINTING = false;
+    private static final boolean DEFAULT_TEMPLATE_VALIDATION = false;
+    private static final boolean DEFAULT_DELTA_DEBUGGING = false;
+    private static final boolean DEFAULT_HIERARCHICAL = false;
+    private static final boolean DEFAULT_SIZE_ORDERING = false;
+    private static final boolean DEFAULT_LOCALIZED = false;
+    private static final boolean DEFAULT_TEXT_SHRINKING = false;
+    private static final String DEFAULT_SHRINK_TIME_LIMIT = "0";
+    private static final String DEFAULT_MAX_SHRINK_TESTS = "0";
 
     private Text txtMaxNumberOfTerms;
     private Text txtMaxTermSize;
+    private Text txtWorkers;
+    private Button btnBoltzmann;
+    private Button btnEnumerate;
+    private Button btnPipeline;
+    private Button btnIncrementalPrinting;
+    private Button btnTemplatePrinting;
+    private Button btnTemplateValidation;
+    private Button btnDeltaDebugging;
+    private Button btnHierarchical;
+    private Button btnSizeOrdering;
+    private Button btnLocalized;
+    private Button btnTextShrinking;
+    private Text txtShrinkTimeLimit;
+    private Text txtMaxShrinkTests;
 
     private String maxNumberOfTerms;
     private String maxTermSize;
+    private String workers;
+    private boolean boltzmann;
+    private boolean enumerate;
+    private boolean pipeline;
+    private boolean incrementalPrinting;
+    private boolean templatePrinting;
+    private boolean templateValidation;
+    private boolean deltaDebugging;
+    private boolean hierarchical;
+    private boolean sizeOrdering;
+    private boolean localized;
+    private boolean textShrinking;
+    private String shrinkTimeLimit;
+    private String maxShrinkTests;
 
     public AmbiguityDialog(Shell parentShell) {
         super(parentShell);
@@ -42,6 +84,20 @@ public class AmbiguityDialog extends SentenceDialog {
 
         txtMaxNumberOfTerms = createField(group, "Max number of terms:", DEFAULT_MAX_NUMBER_OF_TERMS);
         txtMaxTermSize = createField(group, "Max term size:", DEFAULT_MAX_TERM_SIZE);
+        txtWorkers = createField(group, "Workers:", DEFAULT_WORKERS);
+        btnBoltzmann = createCheckbox(group, "Boltzmann sampling:", DEFAULT_BOLTZMANN);
+        btnEnumerate = createCheckbox(group, "Exhaustive enumeration:", DEFAULT_ENUMERATE);
+        btnPipeline = createCheckbox(group, "Pipeline stages:", DEFAULT_PIPELINE);
+        btnIncrementalPrinting = createCheckbox(group, "Incremental printing:", DEFAULT_INCREMENTAL_PRINTING);
+        btnTemplatePrinting = createCheckbox(group, "Template printing:", DEFAULT_TEMPLATE_PRINTING);
+        btnTemplateValidation = createCheckbox(group, "Validate template printing:", DEFAULT_TEMPLATE_VALIDATION);
+        btnDeltaDebugging = createCheckbox(group, "Delta debugging:", DEFAULT_DELTA_DEBUGGING);
+        btnHierarchical = createCheckbox(group, "Hierarchical shrinking:", DEFAULT_HIERARCHICAL);
+        btnSizeOrdering = createCheckbox(group, "Largest cuts first:", DEFAULT_SIZE_ORDERING);
+        btnLocalized = createCheckbox(group, "Shrink to ambiguity:", DEFAULT_LOCALIZED);
+        btnTextShrinking = createCheckbox(group, "Token-level shrinking:", DEFAULT_TEXT_SHRINKING);
+        txtShrinkTimeLimit = createField(group, "Shrink time limit (ms, 0 = none):", DEFAULT_SHRINK_TIME_LIMIT);
+        txtMaxShrinkTests = createField(group, "Max shrink tests (0 = none):", DEFAULT_MAX_SHRINK_TESTS);
 
         return area;
     }
@@ -50,6 +106,20 @@ public class AmbiguityDialog extends SentenceDialog {
     protected void okPressed() {
         maxNumberOfTerms = txtMaxNumberOfTerms.getText();
         maxTermSize = txtMaxTermSize.getText();
+        workers = txtWorkers.getText();
+        boltzmann = btnBoltzmann.getSelection();
+        enumerate = btnEnumerate.getSelection();
+        pipeline = btnPipeline.getSelection();
+        incrementalPrinting = btnIncrementalPrinting.getSelection();
+        templatePrinting = btnTemplatePrinting.getSelection();
+        templateValidation = btnTemplateValidation.getSelection();
+        deltaDebugging = btnDeltaDebugging.getSelection();
+        hierarchical = btnHierarchical.getSelection();
+        sizeOrdering = btnSizeOrdering.getSelection();
+        localized = btnLocalized.getSelection();
+        textShrinking = btnTextShrinking.getSelection();
+        shrinkTimeLimit = txtShrinkTimeLimit.getText();
+        maxShrinkTests = txtMaxShrinkTests.getText();
 
         super.okPressed();
     }
@@ -66,4 +136,60 @@ public class AmbiguityDialog extends SentenceDialog {
     public Integer getMaxTermSize() {
         return Integer.valueOf(maxTermSize);
     }
+
+    public Integer getWorkers() {
+        return Integer.valueOf(workers);
+    }
+
+    public boolean isBoltzmann() {
+        return boltzmann;
+    }
+
+    public boolean isEnumerate() {
+        return enumerate;
+    }
+
+    public boolean isPipeline() {
+        return pipeline;
+    }
+
+    public boolean isIncrementalPrinting() {
+        return incrementalPrinting;
+    }
+
+    public boolean isTemplatePrinting() {
+        return templatePrinting;
+    }
+
+    public boolean isTemplateValidation() {
+        return templateValidation;
+    }
+
+    public boolean isDeltaDebugging() {
+        return deltaDebugging;
+    }
+
+    public boolean isHierarchical() {
+        return hierarchical;
+    }
+
+    public boolean isSizeOrdering() {
+        return sizeOrdering;
+    }
+
+    public boolean isLocalized() {
+        return localized;
+    }
+
+    public boolean isTextShrinking() {
+        return textShrinking;
+    }
+
+    public Long getShrinkTimeLimit() {
+        return Long.valueOf(shrinkTimeLimit);
+    }
+
+    public Long getMaxShrinkTests() {
+        return Long.valueOf(maxShrinkTests);
+    }
 }
@@ -7,13 +7,19 @@ import org.eclipse.jface.dialogs.MessageDialog;
 import org.eclipse.jface.window.Window;
 import org.metaborg.core.language.ILanguageImpl;
 import org.metaborg.core.project.IProject;
+import org.metaborg.spg.sentence.ambiguity.GenerationMode;
+import org.metaborg.spg.sentence.ambiguity.PipelineConfig;
 import org.metaborg.spg.sentence.ambiguity.TesterConfig;
 import org.metaborg.spg.sentence.sdf.eclipse.dialog.AmbiguityDialog;
 import org.metaborg.spg.sentence.sdf.eclipse.exception.LanguageNotFoundException;
 import org.metaborg.spg.sentence.sdf.eclipse.exception.ProjectNotFoundException;
 import org.metaborg.spg.sentence.sdf.eclipse.job.JobFactory;
+import org.metaborg.spg.sentence.shared.shrink.ShrinkBudget;
+import org.metaborg.spg.sentence.shrinker.ShrinkerConfig;
 
 public class AmbiguityHandler extends SentenceHandler {
+    private static final int PIPELINE_QUEUE_CAPACITY = 64;
+
     public Object execute(ExecutionEvent executionEvent) throws ExecutionException {
         try {
             IProject project = getProject(executionEvent);
@@ -42,7 +48,39 @@ public class AmbiguityHandler extends SentenceHandler {
     private TesterConfig getConfig(AmbiguityDialog generateDialog) {
         int maxNumberOfTerms = generateDialog.getMaxNumberOfTerms();
         int maxTermSize = generateDialog.getMaxTermSize();
+        GenerationMode generationMode = getGenerationMode(generateDialog);
+        int workers = generateDialog.getWorkers();
+        PipelineConfig pipelineConfig = getPipelineConfig(generateDialog, workers);
+
+        return new TesterConfig(maxNumberOfTerms, maxTermSize, generationMode, workers, pipelineConfig)
+                .withIncrementalPrinting(generateDialog.isIncrementalPrinting())
+                .withTemplatePrinting(generateDialog.isTemplatePrinting())
+                .withTemplateValidation(generateDialog.isTemplateValidation())
+                .withShrinkerConfig(new ShrinkerConfig(generateDialog.isDeltaDebugging(), generateDialog.isHierarchical(),
+                        generateDialog.isSizeOrdering(), generateDialog.isLocalized(),
+                        generateDialog.isTextShrinking()))
+                .withShrinkBudget(new ShrinkBudget(generateDialog.getShrinkTimeLimit(), generateDialog.getMaxShrinkTests()));
+    }
+
+    private PipelineConfig getPipelineConfig(AmbiguityDialog generateDialog, int workers) {
+        if (!generateDialog.isPipeline()) {
+            return null;
+        }
 
-        return new TesterConfig(maxNumberOfTerms, maxTermSize);
+        // Generation is cheap compared to printing and parsing, so split the workers over the other two stages
+        int printers = Math.max(1, workers / 2);
+        int parsers = Math.max(1, workers - printers);
+
+        return new PipelineConfig(1, printers, parsers, PIPELINE_QUEUE_CAPACITY);
+    }
+
+    private GenerationMode getGenerationMode(AmbiguityDialog generateDialog) {
+        if (generateDialog.isEnumerate()) {
+            return GenerationMode.ENUMERATE;
+        } else if (generateDialog.isBoltzmann()) {
+            return GenerationMode.BOLTZMANN;
+        } else {
+            return GenerationMode.RANDOM;
+        }
     }
 }
@@ -1,7 +1,5 @@
 package org.metaborg.spg.sentence.sdf.eclipse.job;
 
-import static org.metaborg.spg.sentence.shared.utils.SpoofaxUtils.getLanguage;
-
 import java.text.NumberFormat;
 import java.util.Locale;
 
@@ -23,8 +21,6 @@ import org.metaborg.spg.sentence.ambiguity.result.ShrinkResult;
 import org.metaborg.spg.sentence.ambiguity.result.TestResult;
 import org.metaborg.spg.sentence.sdf.eclipse.Activator;
 import org.metaborg.spg.sentence.statistics.Histogram;
-import org.metaborg.spoofax.core.SpoofaxConstants;
-import org.metaborg.spoofax.eclipse.SpoofaxPlugin;
 
 import com.google.inject.Inject;
 import com.google.inject.assistedinject.Assisted;
@@ -36,7 +32,6 @@ public class AmbiguityJob extends SentenceJob {
     private final TesterConfig config;
     private final IProject project;
     private final ILanguageImpl language;
-    private final ILanguageImpl templateLanguage;
 
     @jakarta.inject.Inject
     public AmbiguityJob(
@@ -50,7 +45,6 @@ public class AmbiguityJob extends SentenceJob {
         this.config = config;
         this.project = project;
         this.language = language;
-        this.templateLanguage = getLanguage(SpoofaxPlugin.spoofax(), SpoofaxConstants.LANG_SDF3_NAME);
     }
 
     @Override
@@ -58,7 +52,7 @@ public class AmbiguityJob extends SentenceJob {
         try {
             final SubMonitor subMonitor = SubMonitor.convert(monitor, config.getMaxNumberOfTerms());
 
-            Tester tester = testerFactory.create(templateLanguage, language, project);
+            Tester tester = testerFactory.create(language, project, config);
 
             StatisticsTesterProgress progress = new StatisticsTesterProgress() {
                 @Override
@@ -93,21 +87,29 @@ public class AmbiguityJob extends SentenceJob {
             ShrinkResult shrinkResult = testResult.getShrinkResult();
 
             if (findResult.found()) {
-                print("Found ambiguous sentence after %s terms (%s ms). ",
+                print("Found ambiguous sentence after %s terms by worker %s (%s ms). ",
                         numberFormat.format(findResult.terms()),
+                        numberFormat.format(findResult.worker()),
                         numberFormat.format(findResult.duration()));
 
                 if (shrinkResult != null) {
                     if (shrinkResult.success()) {
-                        print("Shrunk from %s to %s characters (%s ms).\n\n",
+                        print("Shrunk from %s to %s characters, %s characters as text (%s ms, %s).\n\n",
                                 numberFormat.format(findResult.text().length()),
                                 numberFormat.format(shrinkResult.text().length()),
-                                numberFormat.format(shrinkResult.duration()));
+                                numberFormat.format(shrinkResult.minimalText().length()),
+                                numberFormat.format(shrinkResult.duration()),
+                                shrinkResult.isLocalMinimum() ? "local minimum" : "budget exhausted");
                     } else {
                         print("Unable to shrink (%s ms).\n\n",
                                 numberFormat.format(shrinkResult.duration()));
                     }
                 }
+            } else if (findResult.exhaustive()) {
+                print("No ambiguous sentence of up to %s nodes, modulo lexical content (%s terms, %s ms).\n\n",
+                        numberFormat.format(config.getMaxTermSize()),
+                        numberFormat.format(findResult.terms()),
+                        numberFormat.format(findResult.duration()));
             } else {
                 print("No ambiguous sentence found after %s terms (%s ms).\n\n",
                         numberFormat.format(findResult.terms()),
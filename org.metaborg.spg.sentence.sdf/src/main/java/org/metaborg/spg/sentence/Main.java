@@ -13,7 +13,6 @@ import org.metaborg.spg.sentence.ambiguity.result.TestResult;
 import org.metaborg.spg.sentence.guice.SentenceModule;
 import org.metaborg.spg.sentence.statistics.Histogram;
 import org.metaborg.spoofax.core.Spoofax;
-import org.metaborg.spoofax.core.SpoofaxConstants;
 import org.metaborg.spoofax.core.shell.CLIUtils;
 
 import com.google.inject.Injector;
@@ -24,7 +23,6 @@ public class Main {
         try(final Spoofax spoofax = new Spoofax(new SentenceModule(0))) {
             final CLIUtils cli = new CLIUtils(spoofax);
             cli.loadLanguagesFromPath();
-            final ILanguageImpl templateLanguage = cli.getLanguage(SpoofaxConstants.LANG_SDF3_NAME);
             final ILanguageImpl language = cli.loadLanguage(spoofax.resourceService.resolve(args[0]));
             final IProject project = cli.getOrCreateProject(spoofax.resourceService.resolve(args[1]));
 
@@ -33,23 +31,29 @@ public class Main {
 
             Injector injector = spoofax.injector;
             TesterFactory testerFactory = injector.getInstance(TesterFactory.class);
-            Tester tester = testerFactory.create(templateLanguage, language, project);
-            TesterProgressDefault progress = new TesterProgressDefault();
             TesterConfig config = new TesterConfig(maxNumberOfTerms, maxTermSize);
+            Tester tester = testerFactory.create(language, project, config);
+            TesterProgressDefault progress = new TesterProgressDefault();
 
             TestResult result = tester.test(config, progress);
             FindResult findResult = result.getFindResult();
             ShrinkResult shrinkResult = result.getShrinkResult();
 
             if(findResult.found()) {
-                print("Found ambiguous sentence after %d terms (%d ms). ", findResult.terms(), findResult.duration());
+                print("Found ambiguous sentence after %d terms by worker %d (%d ms). ", findResult.terms(),
+                        findResult.worker(), findResult.duration());
 
                 if(shrinkResult != null) {
-                    print("Shrunk from %d to %d characters (%d ms).\n\n", findResult.text().length(),
-                            shrinkResult.text().length(), shrinkResult.duration());
+                    print("Shrunk from %d to %d characters, %d characters as text (%d ms, %s).\n\n",
+                            findResult.text().length(), shrinkResult.text().length(),
+                            shrinkResult.minimalText().length(), shrinkResult.duration(),
+                            shrinkResult.isLocalMinimum() ? "local minimum" : "budget exhausted");
                 } else {
                     print("Unable to shrink.\n\n");
                 }
+            } else if(findResult.exhaustive()) {
+                print("No ambiguous sentence of up to %d nodes, modulo lexical content (%d terms, %d ms).\n\n", maxTermSize,
+                        findResult.terms(), findResult.duration());
             } else {
                 print("No ambiguous sentence found after %d terms (%d ms).\n\n", findResult.terms(),
                         findResult.duration());
@@ -57,6 +61,7 @@ public class Main {
 
             print("### Statistics ###\n");
             print("%s", new Histogram(progress.getLengths()));
+            print("%s\n", tester.getParseOracle());
         } catch(MetaborgException e) {
             e.printStackTrace();
         }
@@ -0,0 +1,302 @@
+package org.metaborg.spg.sentence.ambiguity;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import org.metaborg.core.language.ILanguageImpl;
+import org.metaborg.core.syntax.ParseException;
+import org.metaborg.sdf2table.grammar.ISymbol;
+import org.metaborg.spg.sentence.generator.Generator;
+import org.metaborg.spg.sentence.generator.GeneratorAttachment;
+import org.metaborg.spg.sentence.printer.IPrinter;
+import org.metaborg.spg.sentence.printer.PrinterRuntimeException;
+import org.metaborg.spg.sentence.terms.GeneratorTermFactory;
+import org.metaborg.spoofax.core.syntax.ISpoofaxSyntaxService;
+import org.metaborg.spoofax.core.syntax.JSGLRParserConfiguration;
+import org.metaborg.spoofax.core.unit.ISpoofaxInputUnit;
+import org.metaborg.spoofax.core.unit.ISpoofaxParseUnit;
+import org.metaborg.spoofax.core.unit.ISpoofaxUnitService;
+import org.spoofax.interpreter.terms.IStrategoAppl;
+import org.spoofax.interpreter.terms.IStrategoList;
+import org.spoofax.interpreter.terms.IStrategoString;
+import org.spoofax.interpreter.terms.IStrategoTerm;
+import org.spoofax.jsglr.client.imploder.IToken;
+import org.spoofax.jsglr.client.imploder.ImploderAttachment;
+
+/**
+ * Locates the ambiguity of an ambiguous sentence in the generated term that the sentence was printed from.
+ *
+ * The sentence is parsed, and the span of the innermost amb node is taken from the origin of the node. The generated
+ * term is then descended from the root for as long as one of the children covers the span. The span of a child is
+ * found by locating its printed text in the text of its parent, ignoring whitespace, because a subterm that is printed
+ * on its own can be laid out differently. Locating texts is a heuristic, so a caller should test the terms that this
+ * locator proposes.
+ */
+public class AmbiguityLocator {
+    private final ISpoofaxUnitService unitService;
+    private final ISpoofaxSyntaxService syntaxService;
+    private final ILanguageImpl languageImpl;
+    private final JSGLRParserConfiguration parserConfig;
+    private final GeneratorTermFactory termFactory;
+    private final Generator generator;
+    private final IPrinter printer;
+
+    public AmbiguityLocator(ISpoofaxUnitService unitService, ISpoofaxSyntaxService syntaxService,
+            ILanguageImpl languageImpl, JSGLRParserConfiguration parserConfig, GeneratorTermFactory termFactory,
+            Generator generator, IPrinter printer) {
+        this.unitService = unitService;
+        this.syntaxService = syntaxService;
+        this.languageImpl = languageImpl;
+        this.parserConfig = parserConfig;
+        this.termFactory = termFactory;
+        this.generator = generator;
+        this.printer = printer;
+    }
+
+    /**
+     * Propose smaller terms that contain the ambiguity of the text, smallest first: the smallest subterm that covers
+     * the ambiguity if it has the same symbol as the term, and that subterm in the minimal context of its ancestors.
+     *
+     * @param term A nonambiguous term.
+     * @param text The ambiguous text of the term.
+     * @return The proposed terms, or an empty list if the ambiguity cannot be located below the root.
+     */
+    public List<IStrategoTerm> localize(IStrategoTerm term, String text) {
+        Optional<int[]> spanOpt = locate(text);
+
+        if (!spanOpt.isPresent()) {
+            return Collections.emptyList();
+        }
+
+        Stripped stripped = new Stripped(text);
+        int[] span = spanOpt.get();
+
+        List<IStrategoTerm> path = new ArrayList<>();
+        List<Integer> indices = new ArrayList<>();
+        cover(term, stripped.text, stripped.offset(span[0]), stripped.offset(span[1]), path, indices);
+
+        if (path.size() <= 1) {
+            return Collections.emptyList();
+        }
+
+        IStrategoTerm cover = path.get(path.size() - 1);
+        List<IStrategoTerm> candidates = new ArrayList<>();
+
+        ISymbol symbol = getSymbol(term);
+
+        if (symbol != null && symbol.equals(getSymbol(cover))) {
+            candidates.add(cover);
+        }
+
+        candidates.add(wrap(path, indices));
+
+        return candidates;
+    }
+
+    /**
+     * @return The start (inclusive) and end (exclusive) offset of the innermost ambiguity in the text.
+     */
+    Optional<int[]> locate(String text) {
+        ISpoofaxInputUnit inputUnit = unitService.inputUnit(text, languageImpl, null, parserConfig);
+        ISpoofaxParseUnit parseUnit;
+
+        try {
+            parseUnit = syntaxService.parse(inputUnit);
+        } catch (ParseException e) {
+            return Optional.empty();
+        }
+
+        if (!parseUnit.success() || parseUnit.ast() == null) {
+            return Optional.empty();
+        }
+
+        IStrategoTerm amb = findAmbiguity(parseUnit.ast());
+
+        if (amb == null) {
+            return Optional.empty();
+        }
+
+        ImploderAttachment origin = ImploderAttachment.get(amb);
+
+        if (origin == null) {
+            return Optional.empty();
+        }
+
+        IToken left = origin.getLeftToken();
+        IToken right = origin.getRightToken();
+
+        if (left == null || right == null) {
+            return Optional.empty();
+        }
+
+        return Optional.of(new int[] { left.getStartOffset(), right.getEndOffset() + 1 });
+    }
+
+    /**
+     * @return The innermost amb node in the term, or null if the term is not ambiguous.
+     */
+    static IStrategoTerm findAmbiguity(IStrategoTerm term) {
+        for (IStrategoTerm subterm : term.getAllSubterms()) {
+            IStrategoTerm amb = findAmbiguity(subterm);
+
+            if (amb != null) {
+                return amb;
+            }
+        }
+
+        if (term instanceof IStrategoAppl && "amb".equals(((IStrategoAppl) term).getConstructor().getName())) {
+            return term;
+        }
+
+        return null;
+    }
+
+    /**
+     * Descend into the term for as long as a child covers the span. All offsets are offsets in the text without
+     * whitespace.
+     */
+    private void cover(IStrategoTerm term, String text, int spanStart, int spanEnd, List<IStrategoTerm> path,
+            List<Integer> indices) {
+        IStrategoTerm node = term;
+        int nodeStart = 0;
+        int nodeEnd = text.length();
+
+        path.add(node);
+
+        while (!(node instanceof IStrategoString)) {
+            int offset = nodeStart;
+            int covering = -1;
+
+            for (int i = 0; i < node.getSubtermCount() && covering == -1; i++) {
+                Optional<String> childTextOpt = print(node.getSubterm(i));
+
+                if (!childTextOpt.isPresent()) {
+                    return;
+                }
+
+                String childText = Stripped.strip(childTextOpt.get());
+
+                if (childText.isEmpty()) {
+                    continue;
+                }
+
+                int start = text.indexOf(childText, offset);
+                int end = start + childText.length();
+
+                if (start == -1 || end > nodeEnd) {
+                    return;
+                }
+
+                if (start <= spanStart && spanEnd <= end) {
+                    covering = i;
+                    nodeStart = start;
+                    nodeEnd = end;
+                }
+
+                offset = end;
+            }
+
+            if (covering == -1) {
+                return;
+            }
+
+            node = node.getSubterm(covering);
+            path.add(node);
+            indices.add(covering);
+        }
+    }
+
+    /**
+     * Replace the ancestors of the last term on the path by their minimal context: all other children of an appl are
+     * replaced by a minimal term of their symbol, and all other elements of a list are removed.
+     */
+    private IStrategoTerm wrap(List<IStrategoTerm> path, List<Integer> indices) {
+        IStrategoTerm current = path.get(path.size() - 1);
+
+        for (int i = path.size() - 2; i >= 0; i--) {
+            IStrategoTerm parent = path.get(i);
+            int index = indices.get(i);
+
+            if (parent instanceof IStrategoList) {
+                current = termFactory.replaceList(new IStrategoTerm[] { current }, (IStrategoList) parent);
+            } else if (parent instanceof IStrategoAppl) {
+                IStrategoAppl appl = (IStrategoAppl) parent;
+                IStrategoTerm[] children = new IStrategoTerm[appl.getSubtermCount()];
+
+                for (int j = 0; j < children.length; j++) {
+                    children[j] = j == index ? current : minimal(appl.getSubterm(j));
+                }
+
+                current = termFactory.replaceAppl(appl.getConstructor(), children, appl);
+            } else {
+                throw new IllegalStateException("Unknown term: " + parent);
+            }
+        }
+
+        return current;
+    }
+
+    private IStrategoTerm minimal(IStrategoTerm term) {
+        ISymbol symbol = getSymbol(term);
+
+        if (symbol == null || term instanceof IStrategoString) {
+            return term;
+        }
+
+        return generator.generateWitness(symbol).orElse(term);
+    }
+
+    private Optional<String> print(IStrategoTerm term) {
+        if (term instanceof IStrategoString) {
+            return Optional.of(((IStrategoString) term).stringValue());
+        }
+
+        try {
+            return Optional.of(printer.print(term));
+        } catch (PrinterRuntimeException e) {
+            return Optional.empty();
+        }
+    }
+
+    private ISymbol getSymbol(IStrategoTerm term) {
+        GeneratorAttachment attachment = term.getAttachment(GeneratorAttachment.TYPE);
+
+        return attachment != null ? attachment.getSymbol() : null;
+    }
+
+    /**
+     * A text without whitespace, with a map from offsets in the original text to offsets in the stripped text.
+     */
+    private static class Stripped {
+        private final String text;
+        private final int[] offsets;
+
+        private Stripped(String original) {
+            StringBuilder builder = new StringBuilder(original.length());
+            int[] offsets = new int[original.length() + 1];
+
+            for (int i = 0; i < original.length(); i++) {
+                offsets[i] = builder.length();
+
+                if (!Character.isWhitespace(original.charAt(i))) {
+                    builder.append(original.charAt(i));
+                }
+            }
+
+            offsets[original.length()] = builder.length();
+
+            this.text = builder.toString();
+            this.offsets = offsets;
+        }
+
+        private int offset(int offset) {
+            return offsets[Math.max(0, Math.min(offset, offsets.length - 1))];
+        }
+
+        private static String strip(String text) {
+            return text.replaceAll("\\s+", "");
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package org.metaborg.spg.sentence.ambiguity;
+
+public enum GenerationMode {
+    /**
+     * Random generation that splits the size budget over the children of every node.
+     */
+    RANDOM,
+
+    /**
+     * Boltzmann sampling that only accepts terms whose size is close to the maximum term size.
+     */
+    BOLTZMANN,
+
+    /**
+     * Enumeration of all terms up to the maximum term size in order of increasing size. The enumeration is exhaustive
+     * modulo lexical content: every lexical symbol contributes a single string.
+     */
+    ENUMERATE
+}
@@ -0,0 +1,34 @@
+package org.metaborg.spg.sentence.ambiguity;
+
+public class PipelineConfig {
+    private final int generators;
+    private final int printers;
+    private final int parsers;
+    private final int queueCapacity;
+
+    public PipelineConfig(int generators, int printers, int parsers, int queueCapacity) {
+        this.generators = generators;
+        this.printers = printers;
+        this.parsers = parsers;
+        this.queueCapacity = queueCapacity;
+    }
+
+    public int getGenerators() {
+        return generators;
+    }
+
+    public int getPrinters() {
+        return printers;
+    }
+
+    public int getParsers() {
+        return parsers;
+    }
+
+    /**
+     * @return The capacity of the queues between the stages. A full queue blocks the stage before it.
+     */
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+}
@@ -0,0 +1,287 @@
+package org.metaborg.spg.sentence.ambiguity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.metaborg.core.MetaborgException;
+import org.metaborg.spg.sentence.ambiguity.result.FindResult;
+import org.metaborg.spg.sentence.generator.Generator;
+import org.metaborg.spg.sentence.printer.IPrinter;
+import org.metaborg.spg.sentence.printer.PrinterRuntimeException;
+import org.metaborg.spg.sentence.shared.functional.CheckedSupplier;
+import org.metaborg.util.time.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.spoofax.interpreter.terms.IStrategoTerm;
+
+/**
+ * Finds an ambiguous sentence with a pipeline of three stages: generating terms, pretty-printing terms, and parsing
+ * sentences. Every stage runs on its own threads, and the stages are connected by bounded queues, so that a slow
+ * stage blocks the stage before it instead of letting work pile up.
+ */
+public class PipelinedFinder {
+    private static final Logger logger = LoggerFactory.getLogger(PipelinedFinder.class);
+    private static final long POLL_TIMEOUT = 100;
+
+    private final Tester tester;
+    private final Generator generator;
+    private final CheckedSupplier<IPrinter, MetaborgException> printerSupplier;
+    private final PipelineConfig pipelineConfig;
+    private final StageStatistics generateStatistics;
+    private final StageStatistics printStatistics;
+    private final StageStatistics parseStatistics;
+
+    public PipelinedFinder(Tester tester, Generator generator,
+            CheckedSupplier<IPrinter, MetaborgException> printerSupplier, PipelineConfig pipelineConfig) {
+        this.tester = tester;
+        this.generator = generator;
+        this.printerSupplier = printerSupplier;
+        this.pipelineConfig = pipelineConfig;
+        this.generateStatistics = new StageStatistics("generate", pipelineConfig.getGenerators());
+        this.printStatistics = new StageStatistics("print", pipelineConfig.getPrinters());
+        this.parseStatistics = new StageStatistics("parse", pipelineConfig.getParsers());
+    }
+
+    public List<StageStatistics> getStatistics() {
+        return Arrays.asList(generateStatistics, printStatistics, parseStatistics);
+    }
+
+    public FindResult find(TesterConfig config, TesterProgress progress) {
+        Timer timer = new Timer(true);
+
+        int generators = pipelineConfig.getGenerators();
+        int printers = pipelineConfig.getPrinters();
+        int parsers = pipelineConfig.getParsers();
+
+        BlockingQueue<Item> terms = new ArrayBlockingQueue<>(pipelineConfig.getQueueCapacity());
+        BlockingQueue<Item> texts = new ArrayBlockingQueue<>(pipelineConfig.getQueueCapacity());
+        AtomicInteger counter = new AtomicInteger();
+        AtomicInteger activeGenerators = new AtomicInteger(generators);
+        AtomicInteger activePrinters = new AtomicInteger(printers);
+        AtomicBoolean stopped = new AtomicBoolean();
+        AtomicReference<Item> ambiguity = new AtomicReference<>();
+        ExecutorService executor = Executors.newFixedThreadPool(generators + printers + parsers);
+
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+
+            generateStatistics.start();
+            printStatistics.start();
+            parseStatistics.start();
+
+            for (int i = 0; i < generators; i++) {
+                int worker = i;
+                Generator workerGenerator = generator.split();
+
+                futures.add(executor.submit(() -> runStage(
+                        () -> generate(worker, workerGenerator, config, counter, terms, stopped),
+                        () -> {
+                            // The last generator tells every printer that there are no more terms
+                            if (activeGenerators.decrementAndGet() == 0) {
+                                generateStatistics.stop();
+                                sendEnd(terms, printers, stopped);
+                            }
+                        },
+                        stopped)));
+            }
+
+            for (int i = 0; i < printers; i++) {
+                IPrinter printer = printerSupplier.get();
+
+                futures.add(executor.submit(() -> runStage(
+                        () -> print(printer, progress, terms, texts, stopped),
+                        () -> {
+                            if (activePrinters.decrementAndGet() == 0) {
+                                printStatistics.stop();
+                                sendEnd(texts, parsers, stopped);
+                            }
+                        },
+                        stopped)));
+            }
+
+            for (int i = 0; i < parsers; i++) {
+                futures.add(executor.submit(() -> runStage(() -> parse(texts, ambiguity, stopped), () -> {}, stopped)));
+            }
+
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (MetaborgException | ExecutionException e) {
+            throw new RuntimeException("Pipelined ambiguity search failed.", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            stopped.set(true);
+            executor.shutdownNow();
+
+            generateStatistics.stop();
+            printStatistics.stop();
+            parseStatistics.stop();
+        }
+
+        for (StageStatistics statistics : getStatistics()) {
+            logger.info("{}", statistics);
+        }
+
+        int generated = Math.min(counter.get(), config.getMaxNumberOfTerms());
+        Item found = ambiguity.get();
+
+        if (found == null) {
+            return new FindResult(timer, generated);
+        }
+
+        return new FindResult(timer, generated, found.term, found.text, found.worker, found.index);
+    }
+
+    /**
+     * Run the task of a stage, and then the exit action of the stage, even if the task fails. An unexpected exception
+     * stops the search, so that the other stages do not wait forever on this one, and fails the future of the task.
+     */
+    private void runStage(Runnable task, Runnable exit, AtomicBoolean stopped) {
+        try {
+            task.run();
+        } catch (RuntimeException | Error e) {
+            stopped.set(true);
+
+            throw e;
+        } finally {
+            exit.run();
+        }
+    }
+
+    private void generate(int worker, Generator generator, TesterConfig config, AtomicInteger counter,
+            BlockingQueue<Item> terms, AtomicBoolean stopped) {
+        for (int index = 0; !stopped.get() && counter.getAndIncrement() < config.getMaxNumberOfTerms(); index++) {
+            long start = System.nanoTime();
+            Optional<IStrategoTerm> termOpt = tester.generate(generator, config);
+            generateStatistics.item(System.nanoTime() - start);
+
+            if (termOpt.isPresent()) {
+                put(terms, new Item(worker, index, termOpt.get(), null), generateStatistics, stopped);
+            }
+        }
+    }
+
+    private void print(IPrinter printer, TesterProgress progress, BlockingQueue<Item> terms, BlockingQueue<Item> texts,
+            AtomicBoolean stopped) {
+        Item item;
+
+        while ((item = take(terms, printStatistics, stopped)) != null) {
+            try {
+                long start = System.nanoTime();
+                String text = printer.print(item.term);
+                printStatistics.item(System.nanoTime() - start);
+
+                synchronized (progress) {
+                    progress.sentenceGenerated(text);
+                }
+
+                put(texts, new Item(item.worker, item.index, item.term, text), printStatistics, stopped);
+            } catch (TesterCancelledException e) {
+                stopped.set(true);
+            } catch (PrinterRuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private void parse(BlockingQueue<Item> texts, AtomicReference<Item> ambiguity, AtomicBoolean stopped) {
+        Item item;
+
+        while ((item = take(texts, parseStatistics, stopped)) != null) {
+            long start = System.nanoTime();
+            boolean ambiguous = tester.isAmbiguous(item.text);
+            parseStatistics.item(System.nanoTime() - start);
+
+            if (ambiguous && ambiguity.compareAndSet(null, item)) {
+                stopped.set(true);
+            }
+        }
+    }
+
+    private void sendEnd(BlockingQueue<Item> queue, int consumers, AtomicBoolean stopped) {
+        for (int i = 0; i < consumers; i++) {
+            put(queue, Item.END, null, stopped);
+        }
+    }
+
+    /**
+     * Put the item in the queue, blocking while the queue is full. Gives up when the search is stopped.
+     */
+    private void put(BlockingQueue<Item> queue, Item item, StageStatistics statistics, AtomicBoolean stopped) {
+        long start = System.nanoTime();
+
+        try {
+            while (!stopped.get()) {
+                if (queue.offer(item, POLL_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            stopped.set(true);
+        }
+
+        if (statistics != null) {
+            statistics.waited(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Take an item from the queue, blocking while the queue is empty.
+     *
+     * @return The item, or null if there are no more items or the search is stopped.
+     */
+    private Item take(BlockingQueue<Item> queue, StageStatistics statistics, AtomicBoolean stopped) {
+        long start = System.nanoTime();
+
+        try {
+            while (!stopped.get()) {
+                statistics.occupancy(queue.size());
+
+                Item item = queue.poll(POLL_TIMEOUT, TimeUnit.MILLISECONDS);
+
+                if (item != null) {
+                    statistics.waited(System.nanoTime() - start);
+
+                    return item == Item.END ? null : item;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            stopped.set(true);
+        }
+
+        statistics.waited(System.nanoTime() - start);
+
+        return null;
+    }
+
+    private static class Item {
+        private static final Item END = new Item(-1, -1, null, null);
+
+        private final int worker;
+        private final int index;
+        private final IStrategoTerm term;
+        private final String text;
+
+        private Item(int worker, int index, IStrategoTerm term, String text) {
+            this.worker = worker;
+            this.index = index;
+            this.term = term;
+            this.text = text;
+        }
+    }
+}
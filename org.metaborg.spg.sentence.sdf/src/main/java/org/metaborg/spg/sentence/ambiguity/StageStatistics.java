@@ -0,0 +1,97 @@
+package org.metaborg.spg.sentence.ambiguity;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Statistics of one stage of the {@link PipelinedFinder}. All counters can be updated concurrently by the threads of
+ * the stage.
+ */
+public class StageStatistics {
+    private final String name;
+    private final int threads;
+    private final AtomicLong items = new AtomicLong();
+    private final AtomicLong busyTime = new AtomicLong();
+    private final AtomicLong waitTime = new AtomicLong();
+    private final AtomicLong occupancySum = new AtomicLong();
+    private final AtomicLong occupancySamples = new AtomicLong();
+    private volatile long startTime;
+    private volatile long stopTime;
+
+    public StageStatistics(String name, int threads) {
+        this.name = name;
+        this.threads = threads;
+    }
+
+    void start() {
+        startTime = System.nanoTime();
+    }
+
+    synchronized void stop() {
+        if (stopTime == 0) {
+            stopTime = System.nanoTime();
+        }
+    }
+
+    void item(long busy) {
+        items.incrementAndGet();
+        busyTime.addAndGet(busy);
+    }
+
+    void waited(long wait) {
+        waitTime.addAndGet(wait);
+    }
+
+    void occupancy(int queueSize) {
+        occupancySum.addAndGet(queueSize);
+        occupancySamples.incrementAndGet();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getItems() {
+        return items.get();
+    }
+
+    /**
+     * @return The fraction of the thread time of this stage that was spent processing items.
+     */
+    public double getUtilization() {
+        long total = (stopTime - startTime) * threads;
+
+        return total > 0 ? (double) busyTime.get() / total : 0;
+    }
+
+    /**
+     * @return The time, in milliseconds, that the threads of this stage were blocked on their queues.
+     */
+    public long getWaitTime() {
+        return waitTime.get() / 1000000;
+    }
+
+    /**
+     * @return The number of items that this stage processed per second.
+     */
+    public double getThroughput() {
+        long duration = stopTime - startTime;
+
+        return duration > 0 ? items.get() * 1e9 / duration : 0;
+    }
+
+    /**
+     * @return The average number of items in the input queue of this stage when it polled for an item.
+     */
+    public double getAverageOccupancy() {
+        long samples = occupancySamples.get();
+
+        return samples > 0 ? (double) occupancySum.get() / samples : 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d threads, %d items, %.1f items/s, %.0f%% busy, %d ms waiting, %.1f queued",
+                name, threads, getItems(), getThroughput(), getUtilization() * 100, getWaitTime(),
+                getAverageOccupancy());
+    }
+}
@@ -1,41 +1,66 @@
 package org.metaborg.spg.sentence.ambiguity;
 
 import com.google.inject.Inject;
+import org.metaborg.core.MetaborgException;
 import org.metaborg.core.language.ILanguageImpl;
-import org.metaborg.core.syntax.ParseException;
 import org.metaborg.spg.sentence.ambiguity.result.FindResult;
 import org.metaborg.spg.sentence.ambiguity.result.ShrinkResult;
 import org.metaborg.spg.sentence.ambiguity.result.TestResult;
 import org.metaborg.spg.sentence.generator.Generator;
-import org.metaborg.spg.sentence.printer.Printer;
+import org.metaborg.spg.sentence.printer.IncrementalPrinter;
+import org.metaborg.spg.sentence.printer.IPrinter;
 import org.metaborg.spg.sentence.printer.PrinterRuntimeException;
+import org.metaborg.spg.sentence.shared.concurrent.OrderedSearch;
+import org.metaborg.spg.sentence.shared.functional.CheckedSupplier;
+import org.metaborg.spg.sentence.shared.parse.ParseOracle;
+import org.metaborg.spg.sentence.shared.parse.SpoofaxParseOracle;
+import org.metaborg.spg.sentence.shared.shrink.RejectionMemo;
+import org.metaborg.spg.sentence.shared.shrink.ShrinkBudget;
+import org.metaborg.spg.sentence.shared.shrink.TextShrinker;
 import org.metaborg.spg.sentence.shrinker.Shrinker;
+import org.metaborg.spg.sentence.shrinker.ShrinkerConfig;
 import org.metaborg.spg.sentence.terms.GeneratorTermFactory;
 import org.metaborg.spoofax.core.syntax.ISpoofaxSyntaxService;
 import org.metaborg.spoofax.core.syntax.JSGLRParserConfiguration;
-import org.metaborg.spoofax.core.unit.ISpoofaxInputUnit;
-import org.metaborg.spoofax.core.unit.ISpoofaxParseUnit;
 import org.metaborg.spoofax.core.unit.ISpoofaxUnitService;
 import org.metaborg.util.time.Timer;
 import org.spoofax.interpreter.terms.IStrategoAppl;
 import org.spoofax.interpreter.terms.IStrategoList;
 import org.spoofax.interpreter.terms.IStrategoTerm;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
 
 import static java.util.stream.Stream.of;
+import static org.metaborg.spg.sentence.shared.utils.FunctionalUtils.uncheckSupplier;
 
 public class Tester {
     private static final JSGLRParserConfiguration PARSER_CONFIG = new JSGLRParserConfiguration(false, false);
+    private static final int SHRINK_WINDOW_PER_WORKER = 2;
     private final GeneratorTermFactory termFactory;
     private final ISpoofaxUnitService unitService;
     private final ISpoofaxSyntaxService syntaxService;
     private final ILanguageImpl languageImpl;
-    private final Printer printer;
+    private final IPrinter printer;
     private final Generator generator;
     private final Shrinker shrinker;
+    private final CheckedSupplier<IPrinter, MetaborgException> printerSupplier;
+    private final IncrementalPrinter incrementalPrinter;
+    private final ParseOracle parseOracle;
+    private final AmbiguityLocator ambiguityLocator;
 
     @jakarta.inject.Inject
     public Tester(
@@ -43,9 +68,27 @@ public class Tester {
             ISpoofaxUnitService unitService,
             ISpoofaxSyntaxService syntaxService,
             ILanguageImpl languageImpl,
-            Printer printer,
+            IPrinter printer,
             Generator generator,
             Shrinker shrinker
+    ) {
+        this(termFactory, unitService, syntaxService, languageImpl, printer, generator, shrinker, null);
+    }
+
+    /**
+     * @param printerSupplier Supplies the printer of every worker: either a new printer with its own interpreter, or a
+     *                        thread-safe printer such as a pool that all workers share. Without a printer supplier,
+     *                        the tester rejects configurations with more than one worker or with a pipeline.
+     */
+    public Tester(
+            GeneratorTermFactory termFactory,
+            ISpoofaxUnitService unitService,
+            ISpoofaxSyntaxService syntaxService,
+            ILanguageImpl languageImpl,
+            IPrinter printer,
+            Generator generator,
+            Shrinker shrinker,
+            CheckedSupplier<IPrinter, MetaborgException> printerSupplier
     ) {
         this.termFactory = termFactory;
         this.unitService = unitService;
@@ -54,6 +97,11 @@ public class Tester {
         this.printer = printer;
         this.generator = generator;
         this.shrinker = shrinker;
+        this.printerSupplier = printerSupplier;
+        this.incrementalPrinter = new IncrementalPrinter(printer);
+        this.parseOracle = new SpoofaxParseOracle(unitService, syntaxService, languageImpl, PARSER_CONFIG);
+        this.ambiguityLocator = new AmbiguityLocator(unitService, syntaxService, languageImpl, PARSER_CONFIG,
+                termFactory, generator, printer);
     }
 
     public TestResult test(TesterConfig config, TesterProgress progress) {
@@ -63,19 +111,35 @@ public class Tester {
             return new TestResult(findResult);
         }
 
-        ShrinkResult shrinkResult = shrink(findResult.term(), progress);
+        ShrinkResult shrinkResult = shrink(findResult.term(), config, progress);
 
         return new TestResult(findResult, shrinkResult);
     }
 
     public FindResult find(TesterConfig config, TesterProgress progress) {
+        checkConfig(config);
+
+        if (config.getGenerationMode() == GenerationMode.ENUMERATE) {
+            return enumerate(config, progress);
+        }
+
+        if (config.getPipelineConfig() != null) {
+            PipelineConfig pipelineConfig = config.getPipelineConfig();
+
+            return new PipelinedFinder(this, generator, printerSupplier, pipelineConfig).find(config, progress);
+        }
+
+        if (config.getWorkers() > 1) {
+            return findParallel(config, progress);
+        }
+
         Timer timer = new Timer(true);
 
         int terms = config.getMaxNumberOfTerms();
 
         for (int i = 0; i < terms; i++) {
             try {
-                Optional<IStrategoTerm> termOpt = generator.generate(config.getMaxTermSize());
+                Optional<IStrategoTerm> termOpt = generate(config);
 
                 if (termOpt.isPresent()) {
                     IStrategoTerm term = termOpt.get();
@@ -89,7 +153,7 @@ public class Tester {
                 }
             } catch (TesterCancelledException e) {
                 return new FindResult(timer, i);
-            } catch (PrinterRuntimeException | ParseException e) {
+            } catch (PrinterRuntimeException e) {
                 e.printStackTrace();
             }
         }
@@ -97,57 +161,350 @@ public class Tester {
         return new FindResult(timer, terms);
     }
 
-    public ShrinkResult shrink(IStrategoTerm term, TesterProgress progress) {
+    /**
+     * Test all terms in order of increasing size. If all terms up to the maximum term size have been printed and
+     * parsed without finding an ambiguity, the result is exhaustive modulo lexical content: every lexical symbol is
+     * only tested with a single string. A term that cannot be printed makes the result inexhaustive.
+     */
+    public FindResult enumerate(TesterConfig config, TesterProgress progress) {
+        Timer timer = new Timer(true);
+
+        Iterator<IStrategoTerm> iterator = generator.enumerate(config.getMaxTermSize()).iterator();
+        int terms = config.getMaxNumberOfTerms();
+        boolean skipped = false;
+        int i = 0;
+
+        for (; i < terms && iterator.hasNext(); i++) {
+            IStrategoTerm term = iterator.next();
+
+            try {
+                String text = printer.print(term);
+
+                progress.sentenceGenerated(text);
+
+                if (isAmbiguous(text)) {
+                    return new FindResult(timer, i, term, text);
+                }
+            } catch (TesterCancelledException e) {
+                return new FindResult(timer, i);
+            } catch (PrinterRuntimeException e) {
+                skipped = true;
+                e.printStackTrace();
+            }
+        }
+
+        return new FindResult(timer, i, !skipped && !iterator.hasNext());
+    }
+
+    /**
+     * Test terms on multiple workers. Every worker has its own generator and random stream, and a printer from the
+     * printer supplier. The first worker that finds an ambiguous term stops the other workers.
+     */
+    public FindResult findParallel(TesterConfig config, TesterProgress progress) {
+        Timer timer = new Timer(true);
+
+        int workers = config.getWorkers();
+        AtomicInteger counter = new AtomicInteger();
+        AtomicBoolean stopped = new AtomicBoolean();
+        AtomicReference<Ambiguity> ambiguity = new AtomicReference<>();
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+
+            for (int i = 0; i < workers; i++) {
+                int worker = i;
+                Generator workerGenerator = generator.split();
+                IPrinter workerPrinter = printerSupplier.get();
+
+                futures.add(executor.submit(() -> findWorker(worker, workerGenerator, workerPrinter, config, progress,
+                        counter, stopped, ambiguity)));
+            }
+
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (MetaborgException | ExecutionException e) {
+            throw new RuntimeException("Parallel ambiguity search failed.", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            stopped.set(true);
+            executor.shutdownNow();
+        }
+
+        int terms = Math.min(counter.get(), config.getMaxNumberOfTerms());
+        Ambiguity found = ambiguity.get();
+
+        if (found == null) {
+            return new FindResult(timer, terms);
+        }
+
+        return new FindResult(timer, terms, found.term, found.text, found.worker, found.index);
+    }
+
+    private void findWorker(int worker, Generator generator, IPrinter printer, TesterConfig config,
+            TesterProgress progress, AtomicInteger counter, AtomicBoolean stopped,
+            AtomicReference<Ambiguity> ambiguity) {
+        for (int index = 0; !stopped.get() && counter.getAndIncrement() < config.getMaxNumberOfTerms(); index++) {
+            try {
+                Optional<IStrategoTerm> termOpt = generate(generator, config);
+
+                if (termOpt.isPresent()) {
+                    IStrategoTerm term = termOpt.get();
+                    String text = printer.print(term);
+
+                    synchronized (progress) {
+                        progress.sentenceGenerated(text);
+                    }
+
+                    if (isAmbiguous(text) && ambiguity.compareAndSet(null, new Ambiguity(worker, index, term, text))) {
+                        stopped.set(true);
+                    }
+                }
+            } catch (TesterCancelledException e) {
+                stopped.set(true);
+            } catch (PrinterRuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Workers need their own printers, so a tester without a printer supplier cannot run in parallel.
+     */
+    private void checkConfig(TesterConfig config) {
+        if (printerSupplier == null && (config.getWorkers() > 1 || config.getPipelineConfig() != null)) {
+            throw new IllegalArgumentException("Parallel and pipelined testing need a printer supplier; create the "
+                    + "tester with TesterFactory or use a single worker without a pipeline.");
+        }
+    }
+
+    protected Optional<IStrategoTerm> generate(TesterConfig config) {
+        return generate(generator, config);
+    }
+
+    protected Optional<IStrategoTerm> generate(Generator generator, TesterConfig config) {
+        switch (config.getGenerationMode()) {
+            case BOLTZMANN:
+                return generator.generateBoltzmann(config.getMaxTermSize());
+            default:
+                return generator.generate(config.getMaxTermSize());
+        }
+    }
+
+    /**
+     * Shrink the term within the shrink budget of the configuration. If the budget runs out, the result is the
+     * smallest term found so far, and it is not marked as a local minimum.
+     */
+    public ShrinkResult shrink(IStrategoTerm term, TesterConfig config, TesterProgress progress) {
+        checkConfig(config);
+
+        ShrinkBudget.Meter meter = config.getShrinkBudget().start();
+        ShrinkResult result = shrinkTree(term, config, progress, meter);
+
+        if (!config.getShrinkerConfig().isTextShrinking() || !result.success()) {
+            return result;
+        }
+
+        return shrinkText(result, progress, meter);
+    }
+
+    /**
+     * Shrink the text of a shrunk term at the level of tokens. Candidates are only parsed, never printed.
+     */
+    public ShrinkResult shrinkText(ShrinkResult result, TesterProgress progress) {
+        return shrinkText(result, progress, ShrinkBudget.UNLIMITED.start());
+    }
+
+    private ShrinkResult shrinkText(ShrinkResult result, TesterProgress progress, ShrinkBudget.Meter meter) {
         Timer timer = new Timer(true);
+        Predicate<String> ambiguous = meter.count(parseOracle::isAmbiguous);
+        String minimalText = new TextShrinker(text -> !meter.isExhausted() && ambiguous.test(text)).shrink(result.text());
+
+        if (!minimalText.equals(result.text())) {
+            try {
+                progress.sentenceShrinked(minimalText);
+            } catch (TesterCancelledException e) {
+                // The text is already shrunk, so there is nothing left to cancel
+            }
+        }
 
-        return shrink(term, progress, timer);
+        return result.withMinimalText(timer, minimalText, !meter.isExhausted());
     }
 
-    protected ShrinkResult shrink(IStrategoTerm term, TesterProgress progress, Timer timer) {
+    private ShrinkResult shrinkTree(IStrategoTerm term, TesterConfig config, TesterProgress progress,
+            ShrinkBudget.Meter meter) {
+        Timer timer = new Timer(true);
+        RejectionMemo<IStrategoTerm> memo = RejectionMemo.ofTerms();
+
+        if (config.getShrinkerConfig().isLocalized()) {
+            term = localize(term);
+        }
+
+        if (config.getWorkers() <= 1) {
+            return shrink(term, config, progress, timer, memo, meter);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(config.getWorkers());
+        ThreadLocal<IPrinter> workerPrinters = ThreadLocal.withInitial(uncheckSupplier(printerSupplier));
+        ThreadLocal<IncrementalPrinter> workerIncrementalPrinters = ThreadLocal.withInitial(() ->
+                incrementalPrinter.withPrinter(workerPrinters.get()));
+        int window = config.getWorkers() * SHRINK_WINDOW_PER_WORKER;
+
+        try {
+            return shrink(term, progress, timer, config.isIncrementalPrinting(), meter, nonambiguous -> OrderedSearch.findFirst(
+                    meter.limit(shrinker.shrink(nonambiguous, config.getShrinkerConfig()).iterator()),
+                    memo.filter(meter.count(shrunk -> printAmbiguous(shrunk, nonambiguous, workerPrinters.get(),
+                            workerIncrementalPrinters.get(), config.isIncrementalPrinting()))),
+                    executor, window));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Try to shrink the term to the part that contains the ambiguity in one step: the smallest subterm that covers the
+     * amb node in the parse of its text, on its own or in a minimal context.
+     *
+     * @return The smallest proposed term that is still ambiguous, or the term itself.
+     */
+    public IStrategoTerm localize(IStrategoTerm term) {
         IStrategoTerm nonambiguous = disambiguate(term);
-        String text = printer.print(nonambiguous);
 
         try {
-            progress.sentenceShrinked(text);
-        } catch (TesterCancelledException e) {
-            return new ShrinkResult(timer, nonambiguous, text);
+            String text = printer.print(nonambiguous);
+
+            for (IStrategoTerm candidate : ambiguityLocator.localize(nonambiguous, text)) {
+                if (printAmbiguous(candidate)) {
+                    return candidate;
+                }
+            }
+        } catch (PrinterRuntimeException e) {
+            return term;
         }
 
-        Optional<IStrategoTerm> shrunkOpt = shrink(nonambiguous).findAny();
+        return term;
+    }
 
-        if (!shrunkOpt.isPresent()) {
-            return new ShrinkResult(timer, nonambiguous, text);
-        } else {
-            return shrink(shrunkOpt.get(), progress, timer);
+    protected ShrinkResult shrink(IStrategoTerm term, TesterConfig config, TesterProgress progress, Timer timer) {
+        return shrink(term, config, progress, timer, RejectionMemo.ofTerms(), config.getShrinkBudget().start());
+    }
+
+    /**
+     * Shrink the term sequentially. Candidates that were rejected in an earlier round are skipped, and no candidates
+     * are tested once the meter is exhausted.
+     */
+    protected ShrinkResult shrink(IStrategoTerm term, TesterConfig config, TesterProgress progress, Timer timer,
+            RejectionMemo<IStrategoTerm> memo, ShrinkBudget.Meter meter) {
+        return shrink(term, progress, timer, config.isIncrementalPrinting(), meter, nonambiguous ->
+                shrink(nonambiguous, config.getShrinkerConfig(), config.isIncrementalPrinting(), memo, meter).findFirst());
+    }
+
+    /**
+     * Shrink the term for as long as the shrink step finds a smaller ambiguous term. The result is a local minimum if
+     * the last step tested all candidates without exhausting the meter.
+     */
+    private ShrinkResult shrink(IStrategoTerm term, TesterProgress progress, Timer timer, boolean incremental,
+            ShrinkBudget.Meter meter, Function<IStrategoTerm, Optional<IStrategoTerm>> step) {
+        IStrategoTerm nonambiguous = disambiguate(term);
+
+        while (true) {
+            String text = incremental ? incrementalPrinter.print(nonambiguous) : printer.print(nonambiguous);
+
+            try {
+                progress.sentenceShrinked(text);
+            } catch (TesterCancelledException e) {
+                return new ShrinkResult(timer, nonambiguous, text, false);
+            }
+
+            Optional<IStrategoTerm> shrunkOpt = step.apply(nonambiguous);
+
+            if (!shrunkOpt.isPresent()) {
+                return new ShrinkResult(timer, nonambiguous, text, !meter.isExhausted());
+            }
+
+            nonambiguous = disambiguate(shrunkOpt.get());
         }
     }
 
     public Stream<IStrategoTerm> shrink(IStrategoTerm nonambiguous) {
-        Stream<IStrategoTerm> shrunkTerms = shrinker.shrink(nonambiguous);
+        return shrink(nonambiguous, false);
+    }
+
+    public Stream<IStrategoTerm> shrink(IStrategoTerm nonambiguous, boolean incremental) {
+        return shrink(nonambiguous, new ShrinkerConfig(), incremental);
+    }
 
-        return shrunkTerms.filter(this::printAmbiguous);
+    public Stream<IStrategoTerm> shrink(IStrategoTerm nonambiguous, ShrinkerConfig shrinkerConfig, boolean incremental) {
+        return shrink(nonambiguous, shrinkerConfig, incremental, RejectionMemo.ofTerms(), ShrinkBudget.UNLIMITED.start());
+    }
+
+    /**
+     * @param memo  The candidates that were rejected before. Rejected candidates are skipped without printing them,
+     *              and newly rejected candidates are added to the memo.
+     * @param meter Counts the candidates that are tested. The stream ends when the meter is exhausted.
+     */
+    public Stream<IStrategoTerm> shrink(IStrategoTerm nonambiguous, ShrinkerConfig shrinkerConfig, boolean incremental,
+            RejectionMemo<IStrategoTerm> memo, ShrinkBudget.Meter meter) {
+        Stream<IStrategoTerm> shrunkTerms = meter.limit(shrinker.shrink(nonambiguous, shrinkerConfig));
+
+        if (incremental) {
+            return shrunkTerms.filter(memo.filter(meter.count(term -> printAmbiguous(term, nonambiguous))));
+        } else {
+            return shrunkTerms.filter(memo.filter(meter.count(this::printAmbiguous)));
+        }
     }
 
     protected boolean printAmbiguous(IStrategoTerm term) {
-        String text = printer.print(term);
+        return parseAmbiguous(printer.print(term));
+    }
+
+    protected boolean printAmbiguous(IStrategoTerm term, IStrategoTerm parent) {
+        return printAmbiguous(term, parent, printer, incrementalPrinter);
+    }
+
+    /**
+     * Print the term incrementally from the text of its parent. An incrementally printed text may differ from the
+     * full text, so an ambiguity is only reported if the full text is ambiguous as well.
+     */
+    private boolean printAmbiguous(IStrategoTerm term, IStrategoTerm parent, IPrinter printer,
+            IncrementalPrinter incrementalPrinter) {
+        String text;
 
         try {
-            ISpoofaxParseUnit parseUnit = parse(text);
+            text = incrementalPrinter.print(term, parent);
+        } catch (PrinterRuntimeException e) {
+            return false;
+        }
 
-            if (parseUnit.success()) {
-                return isAmbiguous(parseUnit.ast());
+        if (!parseAmbiguous(text)) {
+            return false;
+        }
+
+        String fullText = printer.print(term);
+
+        return fullText.equals(text) || parseAmbiguous(fullText);
+    }
+
+    /**
+     * Test a shrink candidate on a worker thread. A candidate that cannot be printed is not ambiguous.
+     */
+    private boolean printAmbiguous(IStrategoTerm term, IStrategoTerm parent, IPrinter printer,
+            IncrementalPrinter incrementalPrinter, boolean incremental) {
+        try {
+            if (incremental) {
+                return printAmbiguous(term, parent, printer, incrementalPrinter);
             } else {
-                return false;
+                return parseAmbiguous(printer.print(term));
             }
-        } catch (ParseException e) {
+        } catch (PrinterRuntimeException e) {
             return false;
         }
     }
 
-    protected ISpoofaxParseUnit parse(String text) throws ParseException {
-        ISpoofaxInputUnit inputUnit = unitService.inputUnit(text, languageImpl, null, PARSER_CONFIG);
-
-        return syntaxService.parse(inputUnit);
+    protected boolean parseAmbiguous(String text) {
+        return parseOracle.isAmbiguous(text);
     }
 
     protected IStrategoTerm disambiguate(IStrategoTerm term) {
@@ -162,12 +519,21 @@ public class Tester {
             } else {
                 IStrategoTerm[] children = disambiguateChildren(appl);
 
+                // Keep the identity of unchanged terms, so that their printed text can be reused
+                if (isSameChildren(children, appl)) {
+                    return appl;
+                }
+
                 return termFactory.replaceAppl(children, appl);
             }
         } else if (term instanceof IStrategoList) {
             IStrategoList list = (IStrategoList) term;
             IStrategoTerm[] children = disambiguateChildren(list);
 
+            if (!isAmbiguousList(list) && isSameChildren(children, list)) {
+                return list;
+            }
+
             if (isAmbiguousList(list)) {
                 return flatten(termFactory.replaceList(children, list));
             } else {
@@ -185,6 +551,16 @@ public class Tester {
                 .toArray(IStrategoTerm[]::new);
     }
 
+    private boolean isSameChildren(IStrategoTerm[] children, IStrategoTerm term) {
+        for (int i = 0; i < children.length; i++) {
+            if (children[i] != term.getSubterm(i)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
     private IStrategoTerm flatten(IStrategoTerm term) {
         if (term instanceof IStrategoList) {
             IStrategoList list = (IStrategoList) term;
@@ -207,24 +583,15 @@ public class Tester {
         }
     }
 
-    private boolean isAmbiguous(String text) throws ParseException {
-        ISpoofaxParseUnit parseUnit = parse(text);
-
-        return parseUnit.success() && isAmbiguous(parseUnit.ast());
+    boolean isAmbiguous(String text) {
+        return parseOracle.isAmbiguous(text);
     }
 
-    private boolean isAmbiguous(IStrategoTerm term) {
-        if (isAmbNode(term)) {
-            return true;
-        }
-
-        for (IStrategoTerm subterm : term.getAllSubterms()) {
-            if (isAmbiguous(subterm)) {
-                return true;
-            }
-        }
-
-        return false;
+    /**
+     * @return The oracle that parses all texts of this tester, with its cache statistics.
+     */
+    public ParseOracle getParseOracle() {
+        return parseOracle;
     }
 
     private boolean isAmbiguousList(IStrategoTerm term) {
@@ -248,4 +615,18 @@ public class Tester {
 
         return false;
     }
+
+    private static class Ambiguity {
+        private final int worker;
+        private final int index;
+        private final IStrategoTerm term;
+        private final String text;
+
+        private Ambiguity(int worker, int index, IStrategoTerm term, String text) {
+            this.worker = worker;
+            this.index = index;
+            this.term = term;
+            this.text = text;
+        }
+    }
 }
@@ -1,12 +1,92 @@
 package org.metaborg.spg.sentence.ambiguity;
 
+import org.metaborg.spg.sentence.shared.shrink.ShrinkBudget;
+import org.metaborg.spg.sentence.shrinker.ShrinkerConfig;
+
 public class TesterConfig {
     private final int maxNumberOfTerms;
     private final int maxTermSize;
+    private final GenerationMode generationMode;
+    private final int workers;
+    private final PipelineConfig pipelineConfig;
+    private final boolean incrementalPrinting;
+    private final boolean templatePrinting;
+    private final boolean templateValidation;
+    private final ShrinkerConfig shrinkerConfig;
+    private final ShrinkBudget shrinkBudget;
 
     public TesterConfig(int maxNumberOfTerms, int maxTermSize) {
+        this(maxNumberOfTerms, maxTermSize, GenerationMode.RANDOM);
+    }
+
+    public TesterConfig(int maxNumberOfTerms, int maxTermSize, GenerationMode generationMode) {
+        this(maxNumberOfTerms, maxTermSize, generationMode, 1);
+    }
+
+    public TesterConfig(int maxNumberOfTerms, int maxTermSize, GenerationMode generationMode, int workers) {
+        this(maxNumberOfTerms, maxTermSize, generationMode, workers, null);
+    }
+
+    public TesterConfig(int maxNumberOfTerms, int maxTermSize, GenerationMode generationMode, int workers,
+            PipelineConfig pipelineConfig) {
+        this(maxNumberOfTerms, maxTermSize, generationMode, workers, pipelineConfig, false, false, false,
+                new ShrinkerConfig(), ShrinkBudget.UNLIMITED);
+    }
+
+    private TesterConfig(int maxNumberOfTerms, int maxTermSize, GenerationMode generationMode, int workers,
+            PipelineConfig pipelineConfig, boolean incrementalPrinting, boolean templatePrinting,
+            boolean templateValidation, ShrinkerConfig shrinkerConfig, ShrinkBudget shrinkBudget) {
         this.maxNumberOfTerms = maxNumberOfTerms;
         this.maxTermSize = maxTermSize;
+        this.generationMode = generationMode;
+        this.workers = workers;
+        this.pipelineConfig = pipelineConfig;
+        this.incrementalPrinting = incrementalPrinting;
+        this.templatePrinting = templatePrinting;
+        this.templateValidation = templateValidation;
+        this.shrinkerConfig = shrinkerConfig;
+        this.shrinkBudget = shrinkBudget;
+    }
+
+    /**
+     * @return A copy of this configuration with incremental printing of shrink candidates enabled or disabled.
+     */
+    public TesterConfig withIncrementalPrinting(boolean incrementalPrinting) {
+        return new TesterConfig(maxNumberOfTerms, maxTermSize, generationMode, workers, pipelineConfig,
+                incrementalPrinting, templatePrinting, templateValidation, shrinkerConfig, shrinkBudget);
+    }
+
+    /**
+     * @return A copy of this configuration with printing from the templates of the grammar enabled or disabled.
+     */
+    public TesterConfig withTemplatePrinting(boolean templatePrinting) {
+        return new TesterConfig(maxNumberOfTerms, maxTermSize, generationMode, workers, pipelineConfig,
+                incrementalPrinting, templatePrinting, templateValidation, shrinkerConfig, shrinkBudget);
+    }
+
+    /**
+     * @return A copy of this configuration with validation of template-printed texts against the Stratego printer
+     * enabled or disabled.
+     */
+    public TesterConfig withTemplateValidation(boolean templateValidation) {
+        return new TesterConfig(maxNumberOfTerms, maxTermSize, generationMode, workers, pipelineConfig,
+                incrementalPrinting, templatePrinting, templateValidation, shrinkerConfig, shrinkBudget);
+    }
+
+    /**
+     * @return A copy of this configuration with the given shrinker configuration.
+     */
+    public TesterConfig withShrinkerConfig(ShrinkerConfig shrinkerConfig) {
+        return new TesterConfig(maxNumberOfTerms, maxTermSize, generationMode, workers, pipelineConfig,
+                incrementalPrinting, templatePrinting, templateValidation, shrinkerConfig, shrinkBudget);
+    }
+
+    /**
+     * @return A copy of this configuration with the given budget for shrinking.
+     */
+    public TesterConfig withShrinkBudget(ShrinkBudget shrinkBudget) {
+        return new TesterConfig(maxNumberOfTerms, maxTermSize, generationMode, workers, pipelineConfig,
+                incrementalPrinting, templatePrinting, templateValidation, shrinkerConfig, shrinkBudget);
     }
 
     public int getMaxNumberOfTerms() {
@@ -16,4 +96,55 @@ public class TesterConfig {
     public int getMaxTermSize() {
         return maxTermSize;
     }
+
+    public GenerationMode getGenerationMode() {
+        return generationMode;
+    }
+
+    /**
+     * @return The number of threads that generate, print, and parse terms in parallel.
+     */
+    public int getWorkers() {
+        return workers;
+    }
+
+    /**
+     * @return The configuration of the pipelined search, or null if terms are not tested in a pipeline.
+     */
+    public PipelineConfig getPipelineConfig() {
+        return pipelineConfig;
+    }
+
+    /**
+     * @return True if shrink candidates are printed incrementally from the text of the term they were shrunk from.
+     */
+    public boolean isIncrementalPrinting() {
+        return incrementalPrinting;
+    }
+
+    /**
+     * @return True if terms are printed from the templates of the grammar instead of by the Stratego printer.
+     */
+    public boolean isTemplatePrinting() {
+        return templatePrinting;
+    }
+
+    /**
+     * @return True if every template-printed text is compared to the text of the Stratego printer, which is used when
+     * the texts differ. Only applies to template printing.
+     */
+    public boolean isTemplateValidation() {
+        return templateValidation;
+    }
+
+    public ShrinkerConfig getShrinkerConfig() {
+        return shrinkerConfig;
+    }
+
+    /**
+     * @return The time and number of candidate tests that shrinking may spend before it returns the best term so far.
+     */
+    public ShrinkBudget getShrinkBudget() {
+        return shrinkBudget;
+    }
 }
@@ -3,12 +3,12 @@ package org.metaborg.spg.sentence.ambiguity;
 import com.google.inject.Inject;
 import org.metaborg.core.language.ILanguageImpl;
 import org.metaborg.core.project.IProject;
+import org.metaborg.spg.sentence.generator.CompiledGrammar;
 import org.metaborg.spg.sentence.generator.Generator;
 import org.metaborg.spg.sentence.generator.GeneratorFactory;
-import org.metaborg.spg.sentence.printer.Printer;
+import org.metaborg.spg.sentence.printer.IPrinter;
 import org.metaborg.spg.sentence.printer.PrinterFactory;
-import org.metaborg.spg.sentence.sdf3.Grammar;
-import org.metaborg.spg.sentence.sdf3.GrammarFactory;
+import org.metaborg.spg.sentence.printer.PrinterPool;
 import org.metaborg.spg.sentence.shrinker.Shrinker;
 import org.metaborg.spg.sentence.shrinker.ShrinkerFactory;
 import org.metaborg.spg.sentence.signature.Signature;
@@ -23,7 +23,6 @@ public class TesterFactory {
     private final ISpoofaxSyntaxService syntaxService;
     private final PrinterFactory printerFactory;
     private final GeneratorFactory generatorFactory;
-    private final GrammarFactory grammarFactory;
     private final SignatureFactory signatureFactory;
     private final ShrinkerFactory shrinkerFactory;
 
@@ -34,7 +33,6 @@ public class TesterFactory {
             ISpoofaxSyntaxService syntaxService,
             PrinterFactory printerFactory,
             GeneratorFactory generatorFactory,
-            GrammarFactory grammarFactory,
             SignatureFactory signatureFactory,
             ShrinkerFactory shrinkerFactory) {
         this.termFactory = termFactory;
@@ -42,18 +40,54 @@ public class TesterFactory {
         this.syntaxService = syntaxService;
         this.printerFactory = printerFactory;
         this.generatorFactory = generatorFactory;
-        this.grammarFactory = grammarFactory;
         this.signatureFactory = signatureFactory;
         this.shrinkerFactory = shrinkerFactory;
     }
 
-    public Tester create(ILanguageImpl templateLanguageImpl, ILanguageImpl languageImpl, IProject project) throws Exception {
-        Printer printer = printerFactory.create(languageImpl, project);
+    public Tester create(ILanguageImpl languageImpl, IProject project) throws Exception {
+        return create(languageImpl, project, new TesterConfig(0, 0));
+    }
+
+    /**
+     * The tester prints with a pool of Stratego printers, which the calling thread, the ambiguity locator, and every
+     * parallel worker, pipeline printer, and shrink worker share. Every print borrows a printer from the pool. The pool
+     * has a printer for every thread that prints in the configuration, so that workers do not wait for each other to
+     * print, and its printers are only created when they are first borrowed.
+     *
+     * @param config Decides whether terms are printed from the templates of the grammar instead of by the Stratego
+     *               printer of the language, and whether template-printed texts are validated.
+     */
+    public Tester create(ILanguageImpl languageImpl, IProject project, TesterConfig config) throws Exception {
         Generator generator = generatorFactory.create(languageImpl, project);
-        Grammar grammar = grammarFactory.create(templateLanguageImpl, project);
+        CompiledGrammar grammar = generator.getGrammar();
+        PrinterPool printerPool = printerFactory.createPool(languageImpl, project, getPrintingThreads(config));
+        IPrinter printer = createPrinter(grammar, printerPool, config);
         Signature signature = signatureFactory.create(grammar);
         Shrinker shrinker = shrinkerFactory.create(generator, signature);
 
-        return new Tester(termFactory, unitService, syntaxService, languageImpl, printer, generator, shrinker);
+        return new Tester(termFactory, unitService, syntaxService, languageImpl, printer, generator, shrinker,
+                () -> printer);
+    }
+
+    /**
+     * @return The number of threads that print at the same time: the workers or the printers of the pipeline, and the
+     * calling thread.
+     */
+    private int getPrintingThreads(TesterConfig config) {
+        int workers = config.getWorkers();
+
+        if (config.getPipelineConfig() != null) {
+            workers = Math.max(workers, config.getPipelineConfig().getPrinters());
+        }
+
+        return workers + 1;
+    }
+
+    private IPrinter createPrinter(CompiledGrammar grammar, IPrinter strategoPrinter, TesterConfig config) {
+        if (config.isTemplatePrinting()) {
+            return printerFactory.create(grammar, strategoPrinter, config.isTemplateValidation());
+        }
+
+        return strategoPrinter;
     }
 }
@@ -8,16 +8,35 @@ public class FindResult {
     private final int terms;
     private final IStrategoTerm term;
     private final String text;
+    private final boolean exhaustive;
+    private final int worker;
+    private final int index;
 
     public FindResult(Timer timer, int terms) {
-        this(timer, terms, null, null);
+        this(timer, terms, false);
+    }
+
+    public FindResult(Timer timer, int terms, boolean exhaustive) {
+        this(timer, terms, null, null, exhaustive, 0, terms);
     }
 
     public FindResult(Timer timer, int terms, IStrategoTerm term, String text) {
+        this(timer, terms, term, text, 0, terms);
+    }
+
+    public FindResult(Timer timer, int terms, IStrategoTerm term, String text, int worker, int index) {
+        this(timer, terms, term, text, false, worker, index);
+    }
+
+    private FindResult(Timer timer, int terms, IStrategoTerm term, String text, boolean exhaustive, int worker,
+            int index) {
         this.duration = timer.stop();
         this.terms = terms;
         this.term = term;
         this.text = text;
+        this.exhaustive = exhaustive;
+        this.worker = worker;
+        this.index = index;
     }
 
     public long duration() {
@@ -39,4 +58,26 @@ public class FindResult {
     public boolean found() {
         return term != null;
     }
+
+    /**
+     * @return The worker that found the ambiguous term.
+     */
+    public int worker() {
+        return worker;
+    }
+
+    /**
+     * @return The index of the ambiguous term among the terms that were generated by its worker.
+     */
+    public int index() {
+        return index;
+    }
+
+    /**
+     * @return True if all terms up to the maximum term size have been tested, modulo lexical content: every lexical
+     * symbol is only tested with a single string.
+     */
+    public boolean exhaustive() {
+        return exhaustive;
+    }
 }
@@ -7,15 +7,41 @@ public class ShrinkResult {
     private final long duration;
     private final IStrategoTerm term;
     private final String text;
+    private final String minimalText;
+    private final boolean localMinimum;
 
     public ShrinkResult(Timer timer) {
-        this(timer, null, null);
+        this(timer, null, null, false);
     }
 
     public ShrinkResult(Timer timer, IStrategoTerm term, String text) {
-        this.duration = timer.stop();
+        this(timer, term, text, true);
+    }
+
+    /**
+     * @param localMinimum True if no candidate of the term was found to be smaller, false if shrinking was stopped
+     *                     early, e.g. because the budget ran out.
+     */
+    public ShrinkResult(Timer timer, IStrategoTerm term, String text, boolean localMinimum) {
+        this(timer.stop(), term, text, text, localMinimum);
+    }
+
+    private ShrinkResult(long duration, IStrategoTerm term, String text, String minimalText, boolean localMinimum) {
+        this.duration = duration;
         this.term = term;
         this.text = text;
+        this.minimalText = minimalText;
+        this.localMinimum = localMinimum;
+    }
+
+    /**
+     * @param timer       The timer of the text shrinking pass.
+     * @param minimalText The text that was shrunk from the text of this result.
+     * @param complete    True if the text shrinking pass ran to completion.
+     * @return A copy of this result with the text-minimal result of a text shrinking pass.
+     */
+    public ShrinkResult withMinimalText(Timer timer, String minimalText, boolean complete) {
+        return new ShrinkResult(duration + timer.stop(), term, text, minimalText, localMinimum && complete);
     }
 
     public long duration() {
@@ -26,10 +52,27 @@ public class ShrinkResult {
         return term;
     }
 
+    /**
+     * @return The text of the tree-minimal term.
+     */
     public String text() {
         return text;
     }
 
+    /**
+     * @return The text-minimal sentence, which is the text of the term if the text was not shrunk further.
+     */
+    public String minimalText() {
+        return minimalText;
+    }
+
+    /**
+     * @return True if the result is a local minimum, false if it is the best result before shrinking was stopped.
+     */
+    public boolean isLocalMinimum() {
+        return localMinimum;
+    }
+
     public boolean success() {
         return term != null;
     }
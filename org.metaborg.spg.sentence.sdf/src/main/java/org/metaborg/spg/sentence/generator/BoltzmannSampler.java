@@ -0,0 +1,480 @@
+package org.metaborg.spg.sentence.generator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.metaborg.spg.sentence.random.IRandom;
+import org.metaborg.spg.sentence.terms.GeneratorTermFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.spoofax.interpreter.terms.IStrategoTerm;
+
+import static org.metaborg.spg.sentence.generator.CompiledGrammar.*;
+
+/**
+ * Boltzmann sampler for a compiled grammar.
+ *
+ * The size of a term is its number of nodes: every constructor application, list, option, and string counts as one.
+ * The sampler evaluates the generating functions of all symbols at a value z that is tuned such that the expected size
+ * of a term equals the target size. Branches are then chosen with probabilities proportional to their generating
+ * functions, and terms that fall outside the size window are rejected. Terms that exceed the window are abandoned as
+ * soon as they grow too large.
+ *
+ * Injections and bracket productions do not create nodes, so they are not sampled as branches of their own. Instead,
+ * the generating function of a symbol sums the terms that are derived by the symbols in its injection closure (see
+ * {@link InjectionAnalysis}), which also keeps cycles of injections from diverging.
+ */
+public class BoltzmannSampler {
+    private static final Logger logger = LoggerFactory.getLogger(BoltzmannSampler.class);
+
+    public static final double DEFAULT_TOLERANCE = 0.1;
+
+    private static final int MAXIMUM_ITERATIONS = 1000;
+    private static final int TUNING_STEPS = 60;
+    private static final int MAXIMUM_ATTEMPTS = 1000;
+    private static final double EPSILON = 1e-9;
+    private static final double DIVERGENCE = 1e100;
+
+    private final Generator generator;
+    private final CompiledGrammar grammar;
+    private final InjectionAnalysis injections;
+    private final GeneratorTermFactory termFactory;
+    private final IRandom random;
+    private final int startSymbol;
+    private final int targetSize;
+    private final int minimumSize;
+    private final int maximumSize;
+    private final double z;
+    private final double[] values;
+    private final double[][] weights;
+    private final double[][] closureWeights;
+
+    private int size;
+
+    public BoltzmannSampler(Generator generator, GeneratorTermFactory termFactory, IRandom random, int startSymbol,
+            int targetSize) {
+        this(generator, termFactory, random, startSymbol, targetSize, DEFAULT_TOLERANCE);
+    }
+
+    public BoltzmannSampler(Generator generator, GeneratorTermFactory termFactory, IRandom random, int startSymbol,
+            int targetSize, double tolerance) {
+        this.generator = generator;
+        this.grammar = generator.getGrammar();
+        this.injections = grammar.getInjectionAnalysis();
+        this.termFactory = termFactory;
+        this.random = random;
+        this.startSymbol = startSymbol;
+        this.targetSize = targetSize;
+        this.minimumSize = (int) Math.floor(targetSize * (1 - tolerance));
+        this.maximumSize = (int) Math.ceil(targetSize * (1 + tolerance));
+        this.z = tune();
+
+        double[][] evaluation = evaluate(z);
+
+        this.values = evaluation[0];
+        this.weights = createWeights();
+        this.closureWeights = createClosureWeights(evaluation[1]);
+
+        logger.debug("Tuned Boltzmann sampler to z = {} for target size {}", z, targetSize);
+    }
+
+    public int getTargetSize() {
+        return targetSize;
+    }
+
+    public Optional<IStrategoTerm> sample() {
+        if (values[startSymbol] == 0) {
+            return Optional.empty();
+        }
+
+        for (int attempt = 0; attempt < MAXIMUM_ATTEMPTS; attempt++) {
+            size = 0;
+
+            Optional<IStrategoTerm> termOpt = sampleSymbol(startSymbol);
+
+            if (termOpt.isPresent() && size >= minimumSize) {
+                return termOpt;
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    private Optional<IStrategoTerm> sampleSymbol(int symbol) {
+        int[] closure = injections.getClosure(symbol);
+        int index = choose(closureWeights[symbol]);
+
+        if (index == -1) {
+            return Optional.empty();
+        }
+
+        return sampleDerived(closure[index]);
+    }
+
+    private Optional<IStrategoTerm> sampleDerived(int symbol) {
+        switch (grammar.getKind(symbol)) {
+            case KIND_LEXICAL:
+                if (!grow()) {
+                    return Optional.empty();
+                }
+
+                String text = generator.generateLexicalSymbol(symbol);
+
+                return Optional.of(termFactory.makeString(grammar.getSymbol(symbol), text));
+            case KIND_ITER:
+                return sampleIter(grammar.getElement(symbol));
+            case KIND_ITER_STAR:
+                return sampleIterStar(grammar.getElement(symbol));
+            case KIND_OPTIONAL:
+                return sampleOptional(grammar.getElement(symbol));
+            default:
+                return sampleCf(symbol);
+        }
+    }
+
+    private Optional<IStrategoTerm> sampleIter(int element) {
+        if (!grow()) {
+            return Optional.empty();
+        }
+
+        Optional<IStrategoTerm> headOpt = sampleSymbol(element);
+
+        if (!headOpt.isPresent()) {
+            return Optional.empty();
+        }
+
+        Optional<List<IStrategoTerm>> tailOpt = sampleElements(element);
+
+        return tailOpt.map(tail -> termFactory.makeListCons(grammar.getIterSymbol(element), headOpt.get(),
+                generator.makeList(element, tail)));
+    }
+
+    private Optional<IStrategoTerm> sampleIterStar(int element) {
+        if (!grow()) {
+            return Optional.empty();
+        }
+
+        return sampleElements(element).map(elements -> generator.makeList(element, elements));
+    }
+
+    private Optional<List<IStrategoTerm>> sampleElements(int element) {
+        List<IStrategoTerm> elements = new ArrayList<>();
+
+        // The number of elements is geometrically distributed with parameter E(z)
+        while (random.uniform() < values[element]) {
+            Optional<IStrategoTerm> elementOpt = sampleSymbol(element);
+
+            if (!elementOpt.isPresent()) {
+                return Optional.empty();
+            }
+
+            elements.add(elementOpt.get());
+        }
+
+        return Optional.of(elements);
+    }
+
+    private Optional<IStrategoTerm> sampleOptional(int element) {
+        if (!grow()) {
+            return Optional.empty();
+        }
+
+        double value = values[element];
+
+        if (random.uniform() * (1 + value) < value) {
+            return sampleSymbol(element).map(term -> termFactory.makeSome(grammar.getOptionalSymbol(element), term));
+        } else {
+            return Optional.of(termFactory.makeNone(grammar.getOptionalSymbol(element)));
+        }
+    }
+
+    private Optional<IStrategoTerm> sampleCf(int symbol) {
+        int index = choose(weights[symbol]);
+
+        if (index == -1) {
+            return Optional.empty();
+        }
+
+        return sampleProduction(grammar.getProductions(symbol)[index]);
+    }
+
+    /**
+     * Choose an index with a probability proportional to its weight.
+     *
+     * @return The chosen index, or -1 if all weights are zero.
+     */
+    private int choose(double[] cumulativeWeights) {
+        if (cumulativeWeights.length == 0 || cumulativeWeights[cumulativeWeights.length - 1] == 0) {
+            return -1;
+        }
+
+        double u = random.uniform() * cumulativeWeights[cumulativeWeights.length - 1];
+
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (u < cumulativeWeights[i]) {
+                return i;
+            }
+        }
+
+        return cumulativeWeights.length - 1;
+    }
+
+    private Optional<IStrategoTerm> sampleProduction(int production) {
+        if (grammar.getConstructor(production) != null && !grow()) {
+            return Optional.empty();
+        }
+
+        int[] rhsSymbols = grammar.getRhs(production);
+        IStrategoTerm[] children = new IStrategoTerm[rhsSymbols.length];
+
+        for (int i = 0; i < rhsSymbols.length; i++) {
+            Optional<IStrategoTerm> childOpt = sampleSymbol(rhsSymbols[i]);
+
+            if (!childOpt.isPresent()) {
+                return Optional.empty();
+            }
+
+            children[i] = childOpt.get();
+        }
+
+        return generator.makeProduction(production, children);
+    }
+
+    private boolean grow() {
+        return ++size <= maximumSize;
+    }
+
+    private double[][] createWeights() {
+        double[][] weights = new double[grammar.getSymbolCount()][];
+
+        for (int symbol = 0; symbol < weights.length; symbol++) {
+            int[] productions = grammar.getProductions(symbol);
+            double total = 0;
+
+            weights[symbol] = new double[productions.length];
+
+            for (int i = 0; i < productions.length; i++) {
+                if (injections.isDerivation(productions[i])) {
+                    total += evaluateProduction(productions[i], values, null, z)[0];
+                }
+
+                weights[symbol][i] = total;
+            }
+        }
+
+        return weights;
+    }
+
+    /**
+     * For every symbol, weigh the symbols in its injection closure by the terms that they derive.
+     */
+    private double[][] createClosureWeights(double[] derivatives) {
+        double[][] closureWeights = new double[grammar.getSymbolCount()][];
+
+        for (int symbol = 0; symbol < closureWeights.length; symbol++) {
+            int[] closure = injections.getClosure(symbol);
+            double total = 0;
+
+            closureWeights[symbol] = new double[closure.length];
+
+            for (int i = 0; i < closure.length; i++) {
+                total += evaluateDerived(closure[i], values, derivatives, z)[0];
+                closureWeights[symbol][i] = total;
+            }
+        }
+
+        return closureWeights;
+    }
+
+    /**
+     * Find, by bisection, the largest z for which the expected size does not exceed the target size.
+     */
+    private double tune() {
+        double low = 0;
+        double high = 1;
+
+        for (int step = 0; step < TUNING_STEPS; step++) {
+            double middle = (low + high) / 2;
+            double[][] evaluation = evaluate(middle);
+
+            if (evaluation == null || expectedSize(evaluation, middle) > targetSize) {
+                high = middle;
+            } else {
+                low = middle;
+            }
+        }
+
+        return low;
+    }
+
+    private double expectedSize(double[][] evaluation, double z) {
+        double value = evaluation[0][startSymbol];
+        double derivative = evaluation[1][startSymbol];
+
+        if (value == 0) {
+            return 0;
+        }
+
+        return z * derivative / value;
+    }
+
+    /**
+     * Evaluate the generating functions and their derivatives at z by fixpoint iteration.
+     *
+     * @return The values and derivatives of all symbols, or null if the iteration diverges at z.
+     */
+    private double[][] evaluate(double z) {
+        double[] values = new double[grammar.getSymbolCount()];
+        double[] derivatives = new double[grammar.getSymbolCount()];
+
+        for (int iteration = 0; iteration < MAXIMUM_ITERATIONS; iteration++) {
+            double delta = 0;
+
+            for (int symbol = 0; symbol < values.length; symbol++) {
+                double[] result = evaluateSymbol(symbol, values, derivatives, z);
+
+                if (result == null || !(result[0] < DIVERGENCE) || !(result[1] < DIVERGENCE)) {
+                    return null;
+                }
+
+                delta = Math.max(delta, relativeChange(values[symbol], result[0]));
+                delta = Math.max(delta, relativeChange(derivatives[symbol], result[1]));
+
+                values[symbol] = result[0];
+                derivatives[symbol] = result[1];
+            }
+
+            if (delta < EPSILON) {
+                return new double[][] { values, derivatives };
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Evaluate a symbol, which is the sum of the terms that are derived by the symbols in its injection closure.
+     */
+    private double[] evaluateSymbol(int symbol, double[] values, double[] derivatives, double z) {
+        double value = 0;
+        double derivative = 0;
+
+        for (int member : injections.getClosure(symbol)) {
+            double[] result = evaluateDerived(member, values, derivatives, z);
+
+            if (result == null) {
+                return null;
+            }
+
+            value += result[0];
+            derivative += result[1];
+        }
+
+        return new double[] { value, derivative };
+    }
+
+    /**
+     * Evaluate the terms that a symbol derives itself, i.e. without following injections.
+     */
+    private double[] evaluateDerived(int symbol, double[] values, double[] derivatives, double z) {
+        int element = grammar.getElement(symbol);
+
+        switch (grammar.getKind(symbol)) {
+            case KIND_LEXICAL:
+                if (grammar.getSizeAnalysis().isProductive(symbol)) {
+                    return new double[] { z, 1 };
+                } else {
+                    return new double[] { 0, 0 };
+                }
+            case KIND_ITER: {
+                double e = values[element];
+                double de = derivatives[element];
+
+                if (e >= 1) {
+                    return null;
+                }
+
+                // Iter(z) = z E / (1 - E)
+                return new double[] {
+                    z * e / (1 - e),
+                    ((e + z * de) * (1 - e) + z * e * de) / ((1 - e) * (1 - e))
+                };
+            }
+            case KIND_ITER_STAR: {
+                double e = values[element];
+                double de = derivatives[element];
+
+                if (e >= 1) {
+                    return null;
+                }
+
+                // IterStar(z) = z / (1 - E)
+                return new double[] {
+                    z / (1 - e),
+                    1 / (1 - e) + z * de / ((1 - e) * (1 - e))
+                };
+            }
+            case KIND_OPTIONAL: {
+                double e = values[element];
+                double de = derivatives[element];
+
+                // Optional(z) = z (1 + E)
+                return new double[] {
+                    z * (1 + e),
+                    1 + e + z * de
+                };
+            }
+            case KIND_CONTEXT_FREE_UNKNOWN:
+                return new double[] { 0, 0 };
+            default:
+                double value = 0;
+                double derivative = 0;
+
+                for (int production : grammar.getProductions(symbol)) {
+                    if (injections.isDerivation(production)) {
+                        double[] result = evaluateProduction(production, values, derivatives, z);
+
+                        value += result[0];
+                        derivative += result[1];
+                    }
+                }
+
+                return new double[] { value, derivative };
+        }
+    }
+
+    /**
+     * Evaluate a production, which is the product of its children and z if the production has a constructor.
+     * Derivatives are skipped if no derivatives are given.
+     */
+    private double[] evaluateProduction(int production, double[] values, double[] derivatives, double z) {
+        int[] rhs = grammar.getRhs(production);
+        boolean injection = grammar.getConstructor(production) == null;
+
+        if (injection && rhs.length == 0) {
+            return new double[] { 0, 0 };
+        }
+
+        double value = injection ? 1 : z;
+        double derivative = injection ? 0 : 1;
+
+        for (int symbol : rhs) {
+            if (derivatives != null) {
+                derivative = derivative * values[symbol] + value * derivatives[symbol];
+            }
+
+            value = value * values[symbol];
+        }
+
+        return new double[] { value, derivative };
+    }
+
+    private static double relativeChange(double oldValue, double newValue) {
+        if (newValue == 0) {
+            return 0;
+        }
+
+        return Math.abs(newValue - oldValue) / newValue;
+    }
+}
@@ -0,0 +1,201 @@
+package org.metaborg.spg.sentence.generator;
+
+import java.util.Map;
+
+import org.metaborg.sdf2table.grammar.ISymbol;
+import org.metaborg.sdf2table.grammar.Symbol;
+
+/**
+ * Int-indexed representation of a normalized grammar.
+ *
+ * Every symbol and every production is identified by its index. All per-symbol and per-production information the
+ * generator needs (kind, element symbol, cleaned right-hand side, constructor) is computed once by the
+ * {@link GrammarCompiler}, so that generation only does array lookups. The arrays returned by the getters are shared
+ * and must not be modified.
+ */
+public class CompiledGrammar {
+    public static final int NONE = -1;
+
+    public static final byte KIND_OTHER = 0;
+    public static final byte KIND_LEXICAL = 1;
+    public static final byte KIND_CHARACTER_CLASS = 2;
+    public static final byte KIND_SORT = 3;
+    public static final byte KIND_CONTEXT_FREE = 4;
+    public static final byte KIND_CONTEXT_FREE_UNKNOWN = 5;
+    public static final byte KIND_ITER = 6;
+    public static final byte KIND_ITER_STAR = 7;
+    public static final byte KIND_OPTIONAL = 8;
+
+    private final Map<ISymbol, Integer> symbolIds;
+    private final ISymbol[] symbols;
+    private final byte[] kinds;
+    private final int[] elements;
+    private final Symbol[] iterSymbols;
+    private final Symbol[] iterStarSymbols;
+    private final Symbol[] optionalSymbols;
+    private final String[][] characters;
+    private final int[][] symbolProductions;
+    private final int[] productionLhs;
+    private final int[][] productionRhs;
+    private final int[][] productionSymbols;
+    private final String[] productionConstructors;
+    private final boolean[] productionBrackets;
+    private final SizeAnalysis sizeAnalysis;
+    private final WitnessAnalysis witnessAnalysis;
+    private final InjectionAnalysis injectionAnalysis;
+
+    CompiledGrammar(
+            Map<ISymbol, Integer> symbolIds,
+            ISymbol[] symbols,
+            byte[] kinds,
+            int[] elements,
+            Symbol[] iterSymbols,
+            Symbol[] iterStarSymbols,
+            Symbol[] optionalSymbols,
+            String[][] characters,
+            int[][] symbolProductions,
+            int[] productionLhs,
+            int[][] productionRhs,
+            int[][] productionSymbols,
+            String[] productionConstructors,
+            boolean[] productionBrackets) {
+        this.symbolIds = symbolIds;
+        this.symbols = symbols;
+        this.kinds = kinds;
+        this.elements = elements;
+        this.iterSymbols = iterSymbols;
+        this.iterStarSymbols = iterStarSymbols;
+        this.optionalSymbols = optionalSymbols;
+        this.characters = characters;
+        this.symbolProductions = symbolProductions;
+        this.productionLhs = productionLhs;
+        this.productionRhs = productionRhs;
+        this.productionSymbols = productionSymbols;
+        this.productionConstructors = productionConstructors;
+        this.productionBrackets = productionBrackets;
+        this.sizeAnalysis = new SizeAnalysis(this);
+        this.witnessAnalysis = new WitnessAnalysis(this);
+        this.injectionAnalysis = new InjectionAnalysis(this);
+    }
+
+    public int getSymbolCount() {
+        return symbols.length;
+    }
+
+    public int getProductionCount() {
+        return productionLhs.length;
+    }
+
+    /**
+     * @return The id of the given symbol, or {@link #NONE} if the grammar does not contain the symbol.
+     */
+    public int getSymbolId(ISymbol symbol) {
+        Integer id = symbolIds.get(symbol);
+
+        if (id == null) {
+            return NONE;
+        }
+
+        return id;
+    }
+
+    public ISymbol getSymbol(int symbol) {
+        return symbols[symbol];
+    }
+
+    public byte getKind(int symbol) {
+        return kinds[symbol];
+    }
+
+    /**
+     * @return The context-free element symbol of an iter, iter-star or optional symbol, or {@link #NONE}.
+     */
+    public int getElement(int symbol) {
+        return elements[symbol];
+    }
+
+    /**
+     * @return The iter symbol that is attached to lists of the given element symbol.
+     */
+    public Symbol getIterSymbol(int element) {
+        return iterSymbols[element];
+    }
+
+    /**
+     * @return The iter-star symbol that is attached to lists of the given element symbol.
+     */
+    public Symbol getIterStarSymbol(int element) {
+        return iterStarSymbols[element];
+    }
+
+    /**
+     * @return The optional symbol that is attached to Some and None terms of the given element symbol.
+     */
+    public Symbol getOptionalSymbol(int element) {
+        return optionalSymbols[element];
+    }
+
+    /**
+     * @return The printable characters of a character class symbol.
+     */
+    public String[] getCharacters(int symbol) {
+        return characters[symbol];
+    }
+
+    public int[] getProductions(int symbol) {
+        return symbolProductions[symbol];
+    }
+
+    public int getLhs(int production) {
+        return productionLhs[production];
+    }
+
+    /**
+     * @return The right-hand side of the production without layout, literals, and other improper symbols.
+     */
+    public int[] getRhs(int production) {
+        return productionRhs[production];
+    }
+
+    /**
+     * @return The complete right-hand side of the production.
+     */
+    public int[] getSymbols(int production) {
+        return productionSymbols[production];
+    }
+
+    /**
+     * @return The constructor of the production, or null if the production is an injection.
+     */
+    public String getConstructor(int production) {
+        return productionConstructors[production];
+    }
+
+    /**
+     * @return True if the production is a bracket production.
+     */
+    public boolean isBracket(int production) {
+        return productionBrackets[production];
+    }
+
+    /**
+     * @return The minimum-size analysis of this grammar, which is computed once when the grammar is compiled.
+     */
+    public SizeAnalysis getSizeAnalysis() {
+        return sizeAnalysis;
+    }
+
+    /**
+     * @return The smallest-witness analysis of this grammar, which is computed once when the grammar is compiled.
+     */
+    public WitnessAnalysis getWitnessAnalysis() {
+        return witnessAnalysis;
+    }
+
+    /**
+     * @return The injection analysis of this grammar, which is computed once when the grammar is compiled.
+     */
+    public InjectionAnalysis getInjectionAnalysis() {
+        return injectionAnalysis;
+    }
+}
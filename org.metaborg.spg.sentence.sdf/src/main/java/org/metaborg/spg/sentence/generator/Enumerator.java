@@ -0,0 +1,374 @@
+package org.metaborg.spg.sentence.generator;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.metaborg.spg.sentence.terms.GeneratorTermFactory;
+import org.spoofax.interpreter.terms.IStrategoTerm;
+
+import static java.math.BigInteger.ONE;
+import static java.math.BigInteger.ZERO;
+import static org.metaborg.spg.sentence.generator.CompiledGrammar.*;
+
+/**
+ * Exhaustive enumeration of the terms of a compiled grammar in order of increasing size.
+ *
+ * The size of a term is its number of nodes, as in the {@link BoltzmannSampler}. The number of terms of every symbol
+ * and size is computed once and memoized, so that the n-th term of a given size can be constructed directly
+ * (unranking) without enumerating the terms before it.
+ *
+ * Chains of injections do not create nodes, so a term that is reachable through several injection paths is counted
+ * once (see {@link InjectionAnalysis}). Lexical symbols are not enumerated: every lexical symbol contributes a single
+ * string of size one, which is generated by the {@link Generator}. The enumeration is therefore only exhaustive
+ * modulo lexical content.
+ */
+public class Enumerator {
+    private final Generator generator;
+    private final CompiledGrammar grammar;
+    private final GeneratorTermFactory termFactory;
+    private final InjectionAnalysis injections;
+    private final int[] splitOffsets;
+
+    // Indexed by size, then by symbol
+    private final List<BigInteger[]> counts = new ArrayList<>();
+    private final List<BigInteger[]> derivedCounts = new ArrayList<>();
+    private final List<BigInteger[]> sequenceCounts = new ArrayList<>();
+    private final Map<Long, BigInteger> splitCounts = new HashMap<>();
+
+    public Enumerator(Generator generator, GeneratorTermFactory termFactory) {
+        this.generator = generator;
+        this.grammar = generator.getGrammar();
+        this.termFactory = termFactory;
+        this.injections = grammar.getInjectionAnalysis();
+        this.splitOffsets = createSplitOffsets();
+
+        // There are no terms of size zero, except for the empty sequence
+        BigInteger[] zeros = new BigInteger[grammar.getSymbolCount()];
+        BigInteger[] ones = new BigInteger[grammar.getSymbolCount()];
+
+        Arrays.fill(zeros, ZERO);
+        Arrays.fill(ones, ONE);
+
+        counts.add(zeros);
+        derivedCounts.add(zeros);
+        sequenceCounts.add(ones);
+    }
+
+    /**
+     * @return The number of terms of the given symbol that have exactly the given size.
+     */
+    public BigInteger count(int symbol, int size) {
+        ensure(size);
+
+        return counts.get(size)[symbol];
+    }
+
+    /**
+     * @return The term with the given rank among all terms of the given symbol and size.
+     */
+    public IStrategoTerm unrank(int symbol, int size, BigInteger rank) {
+        if (rank.signum() < 0 || rank.compareTo(count(symbol, size)) >= 0) {
+            throw new IllegalArgumentException("Rank " + rank + " out of bounds for symbol "
+                    + grammar.getSymbol(symbol) + " of size " + size);
+        }
+
+        for (int member : injections.getClosure(symbol)) {
+            BigInteger count = derivedCounts.get(size)[member];
+
+            if (rank.compareTo(count) < 0) {
+                return unrankDerived(member, size, rank);
+            }
+
+            rank = rank.subtract(count);
+        }
+
+        throw new IllegalStateException("Unable to unrank term of symbol " + grammar.getSymbol(symbol));
+    }
+
+    /**
+     * Lazily enumerate all terms of the given symbol, up to and including the given size, in order of increasing
+     * size.
+     */
+    public Stream<IStrategoTerm> enumerate(int symbol, int maxSize) {
+        Iterator<IStrategoTerm> iterator = new Iterator<IStrategoTerm>() {
+            private int size = 1;
+            private BigInteger rank = ZERO;
+
+            @Override
+            public boolean hasNext() {
+                while (size <= maxSize && rank.compareTo(count(symbol, size)) >= 0) {
+                    size++;
+                    rank = ZERO;
+                }
+
+                return size <= maxSize;
+            }
+
+            @Override
+            public IStrategoTerm next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+
+                IStrategoTerm term = unrank(symbol, size, rank);
+                rank = rank.add(ONE);
+
+                return term;
+            }
+        };
+
+        Spliterator<IStrategoTerm> spliterator = Spliterators.spliteratorUnknownSize(iterator,
+                Spliterator.ORDERED | Spliterator.NONNULL);
+
+        return StreamSupport.stream(spliterator, false);
+    }
+
+    private IStrategoTerm unrankDerived(int symbol, int size, BigInteger rank) {
+        int element = grammar.getElement(symbol);
+
+        switch (grammar.getKind(symbol)) {
+            case KIND_LEXICAL:
+                return termFactory.makeString(grammar.getSymbol(symbol), generator.generateLexicalSymbol(symbol));
+            case KIND_ITER: {
+                List<IStrategoTerm> elements = unrankSequence(element, size - 1, rank);
+                IStrategoTerm head = elements.get(0);
+                List<IStrategoTerm> tail = elements.subList(1, elements.size());
+
+                return termFactory.makeListCons(grammar.getIterSymbol(element), head, generator.makeList(element, tail));
+            }
+            case KIND_ITER_STAR:
+                return generator.makeList(element, unrankSequence(element, size - 1, rank));
+            case KIND_OPTIONAL:
+                if (size == 1) {
+                    return termFactory.makeNone(grammar.getOptionalSymbol(element));
+                }
+
+                return termFactory.makeSome(grammar.getOptionalSymbol(element), unrank(element, size - 1, rank));
+            default:
+                for (int production : grammar.getProductions(symbol)) {
+                    if (!injections.isDerivation(production)) {
+                        continue;
+                    }
+
+                    BigInteger count = countProduction(production, size);
+
+                    if (rank.compareTo(count) < 0) {
+                        return unrankProduction(production, size, rank);
+                    }
+
+                    rank = rank.subtract(count);
+                }
+
+                throw new IllegalStateException("Unable to unrank term of symbol " + grammar.getSymbol(symbol));
+        }
+    }
+
+    private IStrategoTerm unrankProduction(int production, int size, BigInteger rank) {
+        int[] rhs = grammar.getRhs(production);
+        IStrategoTerm[] children = new IStrategoTerm[rhs.length];
+        int remaining = size - 1;
+
+        for (int i = 0; i < rhs.length; i++) {
+            for (int childSize = 1; childSize <= remaining; childSize++) {
+                BigInteger rest = countSplits(production, i + 1, remaining - childSize);
+                BigInteger count = counts.get(childSize)[rhs[i]].multiply(rest);
+
+                if (rank.compareTo(count) < 0) {
+                    BigInteger[] quotientAndRemainder = rank.divideAndRemainder(rest);
+
+                    children[i] = unrank(rhs[i], childSize, quotientAndRemainder[0]);
+                    rank = quotientAndRemainder[1];
+                    remaining -= childSize;
+
+                    break;
+                }
+
+                rank = rank.subtract(count);
+            }
+        }
+
+        return generator.makeProduction(production, children).orElseThrow(() ->
+                new IllegalStateException("Unable to construct term for production " + production));
+    }
+
+    private List<IStrategoTerm> unrankSequence(int element, int size, BigInteger rank) {
+        List<IStrategoTerm> elements = new ArrayList<>();
+
+        while (size > 0) {
+            for (int elementSize = 1; elementSize <= size; elementSize++) {
+                BigInteger rest = sequenceCounts.get(size - elementSize)[element];
+                BigInteger count = counts.get(elementSize)[element].multiply(rest);
+
+                if (rank.compareTo(count) < 0) {
+                    BigInteger[] quotientAndRemainder = rank.divideAndRemainder(rest);
+
+                    elements.add(unrank(element, elementSize, quotientAndRemainder[0]));
+                    rank = quotientAndRemainder[1];
+                    size -= elementSize;
+
+                    break;
+                }
+
+                rank = rank.subtract(count);
+            }
+        }
+
+        return elements;
+    }
+
+    /**
+     * Compute the counts for all sizes up to and including the given size. The counts of a size only depend on
+     * counts of smaller sizes, so computing them in increasing order keeps the recursion shallow.
+     */
+    private void ensure(int size) {
+        for (int current = counts.size(); current <= size; current++) {
+            BigInteger[] derived = new BigInteger[grammar.getSymbolCount()];
+            BigInteger[] total = new BigInteger[grammar.getSymbolCount()];
+            BigInteger[] sequences = new BigInteger[grammar.getSymbolCount()];
+
+            for (int symbol = 0; symbol < derived.length; symbol++) {
+                derived[symbol] = countDerived(symbol, current);
+            }
+
+            derivedCounts.add(derived);
+
+            for (int symbol = 0; symbol < total.length; symbol++) {
+                BigInteger count = ZERO;
+
+                for (int member : injections.getClosure(symbol)) {
+                    count = count.add(derived[member]);
+                }
+
+                total[symbol] = count;
+            }
+
+            counts.add(total);
+
+            for (int symbol = 0; symbol < sequences.length; symbol++) {
+                BigInteger count = ZERO;
+
+                for (int elementSize = 1; elementSize <= current; elementSize++) {
+                    BigInteger elementCount = counts.get(elementSize)[symbol];
+
+                    if (elementCount.signum() != 0) {
+                        count = count.add(elementCount.multiply(sequenceCounts.get(current - elementSize)[symbol]));
+                    }
+                }
+
+                sequences[symbol] = count;
+            }
+
+            sequenceCounts.add(sequences);
+        }
+    }
+
+    /**
+     * Count the terms of the given size that are derived from the symbol without a unit injection at the root.
+     */
+    private BigInteger countDerived(int symbol, int size) {
+        int element = grammar.getElement(symbol);
+
+        switch (grammar.getKind(symbol)) {
+            case KIND_LEXICAL:
+                return size == 1 && grammar.getSizeAnalysis().isProductive(symbol) ? ONE : ZERO;
+            case KIND_ITER:
+                return size >= 2 ? sequenceCounts.get(size - 1)[element] : ZERO;
+            case KIND_ITER_STAR:
+                return sequenceCounts.get(size - 1)[element];
+            case KIND_OPTIONAL:
+                return size == 1 ? ONE : counts.get(size - 1)[element];
+            case KIND_CONTEXT_FREE_UNKNOWN:
+                return ZERO;
+            default:
+                BigInteger count = ZERO;
+
+                for (int production : grammar.getProductions(symbol)) {
+                    if (injections.isDerivation(production)) {
+                        count = count.add(countProduction(production, size));
+                    }
+                }
+
+                return count;
+        }
+    }
+
+    /**
+     * Count the terms of a production that is not an injection. A production without a constructor and without
+     * children does not produce a term.
+     */
+    private BigInteger countProduction(int production, int size) {
+        if (grammar.getConstructor(production) == null) {
+            return ZERO;
+        }
+
+        return countSplits(production, 0, size - 1);
+    }
+
+    /**
+     * Count the ways in which the children of the production, starting at the given index, form terms with a
+     * combined size of exactly the given size.
+     */
+    private BigInteger countSplits(int production, int index, int size) {
+        int[] rhs = grammar.getRhs(production);
+
+        if (index == rhs.length) {
+            return size == 0 ? ONE : ZERO;
+        }
+
+        // Every remaining child has a size of at least one
+        if (size < rhs.length - index) {
+            return ZERO;
+        }
+
+        long key = ((long) (splitOffsets[production] + index) << 32) | size;
+        BigInteger cached = splitCounts.get(key);
+
+        if (cached != null) {
+            return cached;
+        }
+
+        BigInteger count = ZERO;
+
+        for (int childSize = 1; childSize <= size - (rhs.length - index - 1); childSize++) {
+            BigInteger childCount = counts.get(childSize)[rhs[index]];
+
+            if (childCount.signum() != 0) {
+                count = count.add(childCount.multiply(countSplits(production, index + 1, size - childSize)));
+            }
+        }
+
+        splitCounts.put(key, count);
+
+        return count;
+    }
+
+    /**
+     * Number the (production, index) pairs of all productions consecutively, so that a pair and a size form a key
+     * without collisions: the pair in the high 32 bits and the (non-negative) size in the low 32 bits.
+     */
+    private int[] createSplitOffsets() {
+        int[] offsets = new int[grammar.getProductionCount()];
+        long offset = 0;
+
+        for (int production = 0; production < offsets.length; production++) {
+            offsets[production] = (int) offset;
+            offset += grammar.getRhs(production).length + 1;
+        }
+
+        if (offset > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Grammar too large to enumerate: " + offset + " split positions");
+        }
+
+        return offsets;
+    }
+}
@@ -1,20 +1,18 @@
 package org.metaborg.spg.sentence.generator;
 
-import java.util.*;
-import java.util.function.Predicate;
-import java.util.stream.Collectors;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-import org.metaborg.parsetable.characterclasses.CharacterClassFactory;
-import org.metaborg.parsetable.characterclasses.ICharacterClass;
 import org.metaborg.sdf2table.grammar.*;
-import org.metaborg.sdf2table.io.ParseTableIO;
 import org.metaborg.spg.sentence.random.IRandom;
 import org.metaborg.spg.sentence.terms.GeneratorTermFactory;
-import org.metaborg.util.collection.MultiSetMap;
 import org.spoofax.interpreter.terms.IStrategoList;
 import org.spoofax.interpreter.terms.IStrategoTerm;
 
-import com.google.inject.Inject;
+import static org.metaborg.spg.sentence.generator.CompiledGrammar.*;
 
 public class Generator {
     public static final int MINIMUM_PRINTABLE = 32;
@@ -23,290 +21,449 @@ public class Generator {
     private final GeneratorTermFactory termFactory;
     private final IRandom random;
     private final String startSymbol;
-    private final NormGrammar grammar;
-    private final MultiSetMap.Immutable<ISymbol, IProduction> productionsMap;
-    private final GrammarFactory gf;
+    private final CompiledGrammar grammar;
+    private final SizeAnalysis sizes;
+    private final WitnessAnalysis witnesses;
+    private final IStrategoTerm[] witnessTerms;
+    private final int startSymbolId;
+    private BoltzmannSampler sampler;
+    private Enumerator enumerator;
 
     @jakarta.inject.Inject public Generator(GeneratorTermFactory termFactory, IRandom random, String startSymbol,
         NormGrammar grammar) {
+        this(termFactory, random, startSymbol, new GrammarCompiler(grammar).compile());
+    }
+
+    public Generator(GeneratorTermFactory termFactory, IRandom random, String startSymbol, CompiledGrammar grammar) {
         this.termFactory = termFactory;
         this.random = random;
         this.startSymbol = startSymbol;
         this.grammar = grammar;
-        this.gf = new GrammarFactory();
+        this.sizes = grammar.getSizeAnalysis();
+        this.witnesses = grammar.getWitnessAnalysis();
+        this.witnessTerms = new IStrategoTerm[grammar.getSymbolCount()];
+        this.startSymbolId = getStartSymbolId(startSymbol, grammar);
+    }
+
+    /**
+     * Create a generator that shares the compiled grammar, but has its own random stream and sampler state, so that it
+     * can be used on another thread.
+     */
+    public Generator split() {
+        return new Generator(termFactory, random.split(), startSymbol, grammar);
+    }
 
-        Collection<IProduction> productions = retainRealProductions(grammar.getCacheProductionsRead().values());
-        this.productionsMap = createProductionMap(productions);
+    public CompiledGrammar getGrammar() {
+        return grammar;
+    }
+
+    public String getStartSymbol() {
+        return startSymbol;
     }
 
     public Optional<IStrategoTerm> generate(int size) {
-        ContextFreeSymbol symbol = gf.createContextFreeSymbol(gf.createSort(startSymbol));
-        return generateSymbol(symbol, size);
+        if(startSymbolId == NONE) {
+            return Optional.empty();
+        }
+
+        return generateSymbol(startSymbolId, size);
     }
 
-    public Optional<IStrategoTerm> generateSymbol(ISymbol symbol, int size) {
-        if(size <= 0) {
+    /**
+     * Generate a term whose number of nodes is close to the given size using a Boltzmann sampler.
+     */
+    public Optional<IStrategoTerm> generateBoltzmann(int size) {
+        if(startSymbolId == NONE) {
             return Optional.empty();
         }
 
-        if(symbol instanceof LexicalSymbol) {
-            String generatedString = generateLexicalSymbol(symbol);
-
-            return Optional.of(termFactory.makeString(symbol, generatedString));
-        } else if(symbol instanceof ContextFreeSymbol) {
-            Symbol innerSymbol = ((ContextFreeSymbol) symbol).getSymbol();
-
-            if(innerSymbol instanceof IterSymbol) {
-                return generateIter(gf.createContextFreeSymbol(((IterSymbol) innerSymbol).getSymbol()), size);
-            } else if(innerSymbol instanceof IterSepSymbol) {
-                return generateIter(gf.createContextFreeSymbol(((IterSepSymbol) innerSymbol).getSymbol()), size);
-            } else if(innerSymbol instanceof IterStarSymbol) {
-                return generateIterStar(gf.createContextFreeSymbol(((IterStarSymbol) innerSymbol).getSymbol()), size);
-            } else if(innerSymbol instanceof IterStarSepSymbol) {
-                return generateIterStar(gf.createContextFreeSymbol(((IterStarSepSymbol) innerSymbol).getSymbol()), size);
-            } else if(innerSymbol instanceof OptionalSymbol) {
-                return generateOptional(gf.createContextFreeSymbol(((OptionalSymbol) innerSymbol).getSymbol()), size);
-            } else if(innerSymbol instanceof Sort) {
-                return generateCf(symbol, size);
-            }
-        } else {
-            return generateCf(symbol, size);
+        if(sampler == null || sampler.getTargetSize() != size) {
+            sampler = new BoltzmannSampler(this, termFactory, random, startSymbolId, size);
         }
 
-        throw new IllegalStateException("Unknown symbol: " + symbol);
+        return sampler.sample();
     }
 
-    private Optional<IStrategoTerm> generateIterStar(Symbol symbol, int size) {
-        IterStarSymbol iterStarSymbol = gf.createIterStarSymbol(symbol);
+    /**
+     * Enumerate all terms with at most the given number of nodes in order of increasing size.
+     */
+    public Stream<IStrategoTerm> enumerate(int maxSize) {
+        if(startSymbolId == NONE) {
+            return Stream.empty();
+        }
 
-        if(random.flip()) {
-            return Optional.of(termFactory.makeList(iterStarSymbol));
-        } else {
-            Optional<IStrategoTerm> headOpt = generateSymbol(symbol, size / 2);
+        if(enumerator == null) {
+            enumerator = new Enumerator(this, termFactory);
+        }
 
-            if(headOpt.isPresent()) {
-                Optional<IStrategoTerm> tailOpt = generateIterStar(symbol, size / 2);
+        return enumerator.enumerate(startSymbolId, maxSize);
+    }
 
-                if(tailOpt.isPresent()) {
-                    IStrategoTerm head = headOpt.get();
-                    IStrategoList tail = (IStrategoList) tailOpt.get();
-                    IStrategoList list = termFactory.makeListCons(iterStarSymbol, head, tail);
+    public Optional<IStrategoTerm> generateSymbol(ISymbol symbol, int size) {
+        int id = grammar.getSymbolId(symbol);
 
-                    return Optional.of(list);
-                }
+        if(id == NONE) {
+            if(size > 0 && symbol instanceof LexicalSymbol) {
+                throw new IllegalStateException("No productions found for symbol " + symbol);
             }
+
+            return Optional.empty();
         }
 
-        return Optional.empty();
+        return generateSymbol(id, size);
     }
 
-    private Optional<IStrategoTerm> generateIter(Symbol symbol, int size) {
-        IterSymbol iterSymbol = gf.createIterSymbol(symbol);
-        Optional<IStrategoTerm> headOpt = generateSymbol(symbol, size / 2);
+    /**
+     * Generate a term of the symbol with the smallest possible size.
+     */
+    public Optional<IStrategoTerm> generateMinimal(ISymbol symbol) {
+        int id = grammar.getSymbolId(symbol);
 
-        if(headOpt.isPresent()) {
-            Optional<IStrategoTerm> tailOpt = generateIterStar(symbol, size / 2);
+        if(id == NONE || !sizes.isProductive(id)) {
+            return Optional.empty();
+        }
 
-            if(tailOpt.isPresent()) {
-                IStrategoTerm head = headOpt.get();
-                IStrategoList tail = (IStrategoList) tailOpt.get();
+        return generateSymbol(id, sizes.getMinimumSize(id));
+    }
 
-                return Optional.of(termFactory.makeListCons(iterSymbol, head, tail));
-            }
+    /**
+     * Build the smallest term of the symbol, measured in nodes. Lexical symbols are given their shortest string. The
+     * witness does not depend on the random stream, and is built once per symbol.
+     */
+    public Optional<IStrategoTerm> generateWitness(ISymbol symbol) {
+        int id = grammar.getSymbolId(symbol);
+
+        if(id == NONE) {
+            return Optional.empty();
         }
 
-        return Optional.empty();
+        return generateWitness(id);
     }
 
-    private Optional<IStrategoTerm> generateOptional(Symbol symbol, int size) {
-        OptionalSymbol optionalSymbol = gf.createOptionalSymbol(symbol);
-
-        if(random.flip()) {
-            return Optional.of(termFactory.makeNone(optionalSymbol));
-        } else {
-            Optional<IStrategoTerm> termOpt = generateSymbol(symbol, size - 1);
+    public Optional<IStrategoTerm> generateWitness(int symbol) {
+        if(witnesses.getMinimumSize(symbol) == SizeAnalysis.INFINITE) {
+            return Optional.empty();
+        }
 
-            return termOpt.map(term -> termFactory.makeSome(optionalSymbol, term));
+        if(witnessTerms[symbol] == null) {
+            witnessTerms[symbol] = makeWitness(symbol);
         }
+
+        return Optional.ofNullable(witnessTerms[symbol]);
     }
 
-    public String generateLex(ISymbol symbol) {
-        if(symbol instanceof CharacterClassSymbol) {
-            return generateCharacterClass(((CharacterClassSymbol) symbol));
-        } else if(symbol instanceof LexicalSymbol || symbol instanceof Sort) {
-            return generateLexicalSymbol(symbol);
-        }
+    private IStrategoTerm makeWitness(int symbol) {
+        switch(grammar.getKind(symbol)) {
+            case KIND_LEXICAL:
+                StringBuilder builder = new StringBuilder();
+                makeWitnessString(symbol, builder);
+
+                return termFactory.makeString(grammar.getSymbol(symbol), builder.toString());
+            case KIND_ITER_STAR:
+                return makeList(grammar.getElement(symbol), new ArrayList<>());
+            case KIND_ITER:
+                int element = grammar.getElement(symbol);
+                IStrategoList tail = makeList(element, new ArrayList<>());
+
+                return generateWitness(element)
+                    .map(head -> termFactory.makeListCons(grammar.getIterSymbol(element), head, tail))
+                    .orElse(null);
+            case KIND_OPTIONAL:
+                return termFactory.makeNone(grammar.getOptionalSymbol(grammar.getElement(symbol)));
+            default:
+                int production = witnesses.getWitness(symbol);
+
+                if(production == NONE) {
+                    return null;
+                }
 
-        throw new IllegalStateException("Unknown symbol: " + symbol);
+                int[] rhsSymbols = grammar.getRhs(production);
+                IStrategoTerm[] children = new IStrategoTerm[rhsSymbols.length];
+
+                for(int i = 0; i < rhsSymbols.length; i++) {
+                    Optional<IStrategoTerm> childOpt = generateWitness(rhsSymbols[i]);
+
+                    if(!childOpt.isPresent()) {
+                        return null;
+                    }
+
+                    children[i] = childOpt.get();
+                }
+
+                return makeProduction(production, children).orElse(null);
+        }
     }
 
-    public String generateCharacterClass(CharacterClassSymbol characterClassSymbol) {
-        ICharacterClass printableRange = characterClassSymbol.getCC()
-            .intersection(ParseTableIO.getCharacterClassFactory().fromRange(MINIMUM_PRINTABLE, MAXIMUM_PRINTABLE));
+    private void makeWitnessString(int symbol, StringBuilder builder) {
+        if(grammar.getKind(symbol) == KIND_CHARACTER_CLASS) {
+            builder.append(grammar.getCharacters(symbol)[0]);
 
-        List<Integer> list = new ArrayList<>(MAXIMUM_PRINTABLE);
-        for(int i = MINIMUM_PRINTABLE; i <= MAXIMUM_PRINTABLE; i++) {
-            if(printableRange.contains(i)) {
-                list.add(i);
-            }
+            return;
         }
 
-        if(list.size() == 0)
-            return "";
+        int production = witnesses.getLexicalWitness(symbol);
 
-        return CharacterClassFactory.intToString(random.fromList(list));
+        if(production == NONE) {
+            throw new IllegalStateException("No finite string for symbol " + grammar.getSymbol(symbol));
+        }
+
+        for(int rhsSymbol : grammar.getSymbols(production)) {
+            makeWitnessString(rhsSymbol, builder);
+        }
     }
 
-    public String generateLexicalSymbol(ISymbol symbol) {
-        List<IProduction> productions = new ArrayList<>(productionsMap.get(symbol).toCollection());
+    public Optional<IStrategoTerm> generateSymbol(int symbol, int size) {
+        if(size <= 0 || size < sizes.getMinimumSize(symbol)) {
+            return Optional.empty();
+        }
 
-        if(productions.isEmpty()) {
-            throw new IllegalStateException("No productions found for symbol " + symbol);
+        switch(grammar.getKind(symbol)) {
+            case KIND_LEXICAL:
+                String generatedString = generateLexicalSymbol(symbol);
+
+                return Optional.of(termFactory.makeString(grammar.getSymbol(symbol), generatedString));
+            case KIND_ITER:
+                return generateIter(grammar.getElement(symbol), size);
+            case KIND_ITER_STAR:
+                return generateIterStar(grammar.getElement(symbol), size);
+            case KIND_OPTIONAL:
+                return generateOptional(grammar.getElement(symbol), size);
+            case KIND_CONTEXT_FREE_UNKNOWN:
+                throw new IllegalStateException("Unknown symbol: " + grammar.getSymbol(symbol));
+            default:
+                return generateCf(symbol, size);
         }
+    }
 
-        IProduction production = random.fromList(productions);
+    private Optional<IStrategoTerm> generateIterStar(int element, int size) {
+        List<IStrategoTerm> heads = new ArrayList<>();
 
-        return production.rightHand().stream().map(this::generateLex).collect(Collectors.joining());
-    }
+        while(!random.flip()) {
+            size = size / 2;
 
-    public Optional<IStrategoTerm> generateCf(ISymbol symbol, int size) {
-        List<IProduction> productions = new ArrayList<>(productionsMap.get(symbol).toCollection());
+            if(size < sizes.getMinimumSize(element)) {
+                break;
+            }
 
-        for(IProduction production : random.shuffle(productions)) {
-            Optional<IStrategoTerm> term = generateProduction(production, size);
+            Optional<IStrategoTerm> headOpt = generateSymbol(element, size);
 
-            if(term.isPresent()) {
-                return term;
+            if(!headOpt.isPresent()) {
+                return Optional.empty();
             }
+
+            heads.add(headOpt.get());
         }
 
-        return Optional.empty();
+        return Optional.of(makeList(element, heads));
     }
 
-    public Optional<IStrategoTerm> generateProduction(IProduction production, int size) {
-        List<ISymbol> rhsSymbols = cleanRhs(production.rightHand());
-        List<IStrategoTerm> children = new ArrayList<>();
+    private Optional<IStrategoTerm> generateIter(int element, int size) {
+        Optional<IStrategoTerm> headOpt = generateSymbol(element, size / 2);
 
-        int childSize = (size - 1) / Math.max(1, rhsSymbols.size());
+        if(headOpt.isPresent()) {
+            Optional<IStrategoTerm> tailOpt = generateIterStar(element, size / 2);
 
-        for(ISymbol rhsSymbol : rhsSymbols) {
-            Optional<IStrategoTerm> childTerm = generateSymbol(rhsSymbol, childSize);
+            if(tailOpt.isPresent()) {
+                IStrategoTerm head = headOpt.get();
+                IStrategoList tail = (IStrategoList) tailOpt.get();
 
-            if(childTerm.isPresent()) {
-                children.add(childTerm.get());
-            } else {
-                break;
+                return Optional.of(termFactory.makeListCons(grammar.getIterSymbol(element), head, tail));
             }
         }
 
-        if(children.size() == rhsSymbols.size()) {
-            Optional<String> constructor = getConstructor(production);
+        return Optional.empty();
+    }
 
-            if(constructor.isPresent()) {
-                return Optional.of(termFactory.makeAppl(production.leftHand(), constructor.get(), children));
-            } else {
-                if(children.size() == 0) {
-                    return Optional.empty();
-                }
+    IStrategoList makeList(int element, List<IStrategoTerm> elements) {
+        Symbol iterStarSymbol = grammar.getIterStarSymbol(element);
+        IStrategoList list = termFactory.makeList(iterStarSymbol);
 
-                return Optional.of(children.get(0));
-            }
+        for(int i = elements.size() - 1; i >= 0; i--) {
+            list = termFactory.makeListCons(iterStarSymbol, elements.get(i), list);
         }
 
-        return Optional.empty();
+        return list;
     }
 
-    protected Optional<String> getConstructor(IProduction production) {
-        Optional<IAttribute> findAttribute = findAttribute(production, this::isConstructorAttribute);
+    private Optional<IStrategoTerm> generateOptional(int element, int size) {
+        Symbol optionalSymbol = grammar.getOptionalSymbol(element);
 
-        return findAttribute.map(attribute -> ((ConstructorAttribute) attribute).getConstructor());
-    }
+        if(size - 1 < sizes.getMinimumSize(element) || random.flip()) {
+            return Optional.of(termFactory.makeNone(optionalSymbol));
+        } else {
+            Optional<IStrategoTerm> termOpt = generateSymbol(element, size - 1);
 
-    protected boolean isConstructorAttribute(IAttribute attribute) {
-        return attribute instanceof ConstructorAttribute;
+            return termOpt.map(term -> termFactory.makeSome(optionalSymbol, term));
+        }
     }
 
-    protected List<ISymbol> cleanRhs(List<ISymbol> rightHand) {
-        return rightHand.stream().filter(this::isProperSymbol).collect(Collectors.toList());
+    public String generateLex(ISymbol symbol) {
+        StringBuilder builder = new StringBuilder();
+        generateLex(getKnownSymbolId(symbol), builder);
+
+        return builder.toString();
     }
 
-    protected boolean isProperSymbol(ISymbol symbol) {
-        if("LAYOUT?-CF".equals(symbol.name())) {
-            return false;
+    private void generateLex(int symbol, StringBuilder builder) {
+        switch(grammar.getKind(symbol)) {
+            case KIND_CHARACTER_CLASS:
+                generateCharacterClass(symbol, builder);
+                break;
+            case KIND_LEXICAL:
+            case KIND_SORT:
+                generateLexicalSymbol(symbol, builder);
+                break;
+            default:
+                throw new IllegalStateException("Unknown symbol: " + grammar.getSymbol(symbol));
         }
+    }
+
+    public String generateCharacterClass(CharacterClassSymbol characterClassSymbol) {
+        StringBuilder builder = new StringBuilder();
+        generateCharacterClass(getKnownSymbolId(characterClassSymbol), builder);
 
-        // @formatter:off
-        return symbol instanceof ContextFreeSymbol
-            || symbol instanceof FileStartSymbol
-            || symbol instanceof StartSymbol
-            || symbol instanceof EOFSymbol
-            || symbol instanceof LexicalSymbol;
-        // @formatter:on
+        return builder.toString();
     }
 
-    protected MultiSetMap.Immutable<ISymbol, IProduction> createProductionMap(Collection<IProduction> productions) {
-        MultiSetMap.Transient<ISymbol, IProduction> productionsMap = MultiSetMap.Transient.of();
+    private void generateCharacterClass(int symbol, StringBuilder builder) {
+        String[] characters = grammar.getCharacters(symbol);
 
-        for(IProduction production : productions) {
-            productionsMap.put(production.leftHand(), production);
+        if(characters.length != 0) {
+            builder.append(characters[random.fromRange(characters.length)]);
         }
-
-        return productionsMap.freeze();
     }
 
-    protected Collection<IProduction> retainRealProductions(Collection<Production> collection) {
-        return collection.stream().filter(this::isRealProduction).collect(Collectors.toList());
+    public String generateLexicalSymbol(ISymbol symbol) {
+        return generateLexicalSymbol(getKnownSymbolId(symbol));
     }
 
-    protected boolean isRealProduction(IProduction production) {
-        return !isPlaceholder(production) && !isRecover(production) && !isReject(production);
-    }
+    String generateLexicalSymbol(int symbol) {
+        StringBuilder builder = new StringBuilder();
+        generateLexicalSymbol(symbol, builder);
 
-    protected boolean isPlaceholder(IProduction production) {
-        return findAttribute(production, this::isPlaceholderAttribute).isPresent();
+        return builder.toString();
     }
 
-    protected boolean isPlaceholderAttribute(IAttribute attribute) {
-        return isAttribute(attribute, "placeholder");
-    }
+    private void generateLexicalSymbol(int symbol, StringBuilder builder) {
+        int[] productions = grammar.getProductions(symbol);
+
+        if(productions.length == 0) {
+            throw new IllegalStateException("No productions found for symbol " + grammar.getSymbol(symbol));
+        }
 
-    protected boolean isRecover(IProduction production) {
-        return findAttribute(production, this::isRecoverAttribute).isPresent();
+        int production = productions[random.fromRange(productions.length)];
+
+        if(sizes.getProductionMinimumSize(production) == SizeAnalysis.INFINITE) {
+            production = productiveProduction(symbol, productions);
+        }
+
+        for(int rhsSymbol : grammar.getSymbols(production)) {
+            generateLex(rhsSymbol, builder);
+        }
     }
 
-    protected boolean isRecoverAttribute(IAttribute attribute) {
-        return isAttribute(attribute, "recover");
+    private int productiveProduction(int symbol, int[] productions) {
+        int[] productive = Arrays.stream(productions)
+            .filter(production -> sizes.getProductionMinimumSize(production) != SizeAnalysis.INFINITE)
+            .toArray();
+
+        if(productive.length == 0) {
+            throw new IllegalStateException("No productive productions found for symbol " + grammar.getSymbol(symbol));
+        }
+
+        return productive[random.fromRange(productive.length)];
     }
 
-    protected boolean isReject(IProduction production) {
-        return findAttribute(production, this::isRejectAttribute).isPresent();
+    public Optional<IStrategoTerm> generateCf(ISymbol symbol, int size) {
+        int id = grammar.getSymbolId(symbol);
+
+        if(id == NONE) {
+            return Optional.empty();
+        }
+
+        return generateCf(id, size);
     }
 
-    protected boolean isRejectAttribute(IAttribute attribute) {
-        return isAttribute(attribute, "reject");
+    private Optional<IStrategoTerm> generateCf(int symbol, int size) {
+        int[] productions = grammar.getProductions(symbol).clone();
+
+        // Lazy Fisher-Yates shuffle; stop as soon as one of the productions succeeds.
+        for(int i = 0; i < productions.length; i++) {
+            int j = i + random.fromRange(productions.length - i);
+            int production = productions[j];
+            productions[j] = productions[i];
+
+            if(size < sizes.getProductionMinimumSize(production)) {
+                continue;
+            }
+
+            Optional<IStrategoTerm> term = generateProduction(production, size);
+
+            if(term.isPresent()) {
+                return term;
+            }
+        }
+
+        return Optional.empty();
     }
 
-    protected boolean isAttribute(IAttribute attribute, String name) {
-        if(attribute instanceof GeneralAttribute) {
-            GeneralAttribute generalAttribute = (GeneralAttribute) attribute;
+    public Optional<IStrategoTerm> generateProduction(int production, int size) {
+        if(size < sizes.getProductionMinimumSize(production)) {
+            return Optional.empty();
+        }
+
+        int[] rhsSymbols = grammar.getRhs(production);
+        IStrategoTerm[] children = new IStrategoTerm[rhsSymbols.length];
 
-            if(name.equals(generalAttribute.getName())) {
-                return true;
+        int childSize = (size - 1) / Math.max(1, rhsSymbols.length);
+
+        for(int i = 0; i < rhsSymbols.length; i++) {
+            Optional<IStrategoTerm> childTerm = generateSymbol(rhsSymbols[i], childSize);
+
+            if(!childTerm.isPresent()) {
+                return Optional.empty();
             }
+
+            children[i] = childTerm.get();
         }
 
-        return false;
+        return makeProduction(production, children);
     }
 
-    protected Optional<IAttribute> findAttribute(IProduction production, Predicate<IAttribute> predicate) {
-        Set<IAttribute> attributes = grammar.getProductionAttributesMapping().get(production);
+    Optional<IStrategoTerm> makeProduction(int production, IStrategoTerm[] children) {
+        String constructor = grammar.getConstructor(production);
 
-        for(IAttribute attribute : attributes) {
-            if(predicate.test(attribute)) {
-                return Optional.of(attribute);
+        if(constructor != null) {
+            ISymbol lhs = grammar.getSymbol(grammar.getLhs(production));
+
+            return Optional.of(termFactory.makeAppl(constructor, children, lhs));
+        } else {
+            if(children.length == 0) {
+                return Optional.empty();
             }
+
+            return Optional.of(children[0]);
         }
+    }
 
-        return Optional.empty();
+    private int getKnownSymbolId(ISymbol symbol) {
+        int id = grammar.getSymbolId(symbol);
+
+        if(id == NONE) {
+            throw new IllegalStateException("Unknown symbol: " + symbol);
+        }
+
+        return id;
+    }
+
+    private static int getStartSymbolId(String startSymbol, CompiledGrammar grammar) {
+        if(startSymbol == null) {
+            return NONE;
+        }
+
+        GrammarFactory gf = new GrammarFactory();
+        ContextFreeSymbol symbol = gf.createContextFreeSymbol(gf.createSort(startSymbol));
+
+        return grammar.getSymbolId(symbol);
     }
 }
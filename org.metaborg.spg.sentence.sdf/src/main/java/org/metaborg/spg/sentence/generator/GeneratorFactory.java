@@ -7,16 +7,33 @@ import org.metaborg.core.resource.IResourceService;
 import org.metaborg.sdf2table.grammar.NormGrammar;
 import org.metaborg.sdf2table.io.NormGrammarReader;
 import org.metaborg.spg.sentence.random.IRandom;
+import org.metaborg.spg.sentence.shared.utils.HashUtils;
 import org.metaborg.spg.sentence.terms.GeneratorTermFactory;
 import org.metaborg.spoofax.core.build.SpoofaxCommonPaths;
 import org.metaborg.spoofax.core.syntax.SyntaxFacet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Stream;
 
 public class GeneratorFactory {
+    private static final Logger logger = LoggerFactory.getLogger(GeneratorFactory.class);
+    private static final String SNAPSHOT_DIRECTORY = "spg/generator";
+    private static final String SNAPSHOT_EXTENSION = ".snapshot";
+    private static final String NORM_SUFFIX = "-norm.aterm";
+
     private final IResourceService resourceService;
     private final GeneratorTermFactory termFactory;
     private final IRandom random;
@@ -33,15 +50,77 @@ public class GeneratorFactory {
 
         File syntaxMainFile = getSyntaxMainFile(spoofaxCommonPaths, language);
         List<String> syntaxPath = getSyntaxPath(spoofaxCommonPaths);
-        
-        NormGrammarReader grammarReader = new NormGrammarReader(syntaxPath);
-        NormGrammar grammar = grammarReader.readGrammar(syntaxMainFile);
+        CompiledGrammar grammar = getGrammar(spoofaxCommonPaths, language, syntaxMainFile, syntaxPath);
 
         String startSymbol = getStartSymbol(language);
 
         return new Generator(termFactory, random, startSymbol, grammar);
     }
 
+    /**
+     * Read the compiled grammar from its snapshot if the normalized grammar did not change since the snapshot was
+     * written. Otherwise, read and compile the normalized grammar and write a new snapshot.
+     */
+    protected CompiledGrammar getGrammar(SpoofaxCommonPaths spoofaxCommonPaths, ILanguageImpl language,
+            File syntaxMainFile, List<String> syntaxPath) throws Exception {
+        String key = getSnapshotKey(syntaxMainFile, getSyntaxDirectory(spoofaxCommonPaths));
+        Path snapshotFile = getSnapshotFile(spoofaxCommonPaths, language);
+        Optional<CompiledGrammar> snapshotOpt = GrammarSnapshot.read(key, snapshotFile);
+
+        if (snapshotOpt.isPresent()) {
+            logger.trace("Read grammar snapshot {}", snapshotFile);
+
+            return snapshotOpt.get();
+        }
+
+        NormGrammarReader grammarReader = new NormGrammarReader(syntaxPath);
+        NormGrammar normGrammar = grammarReader.readGrammar(syntaxMainFile);
+        CompiledGrammar grammar = new GrammarCompiler(normGrammar).compile();
+
+        try {
+            GrammarSnapshot.write(grammar, key, snapshotFile);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Unable to write grammar snapshot {}", snapshotFile, e);
+        }
+
+        return grammar;
+    }
+
+    /**
+     * @return The SHA-256 hash of the normalized grammar: the main file and every normalized module in the syntax
+     * directory, which is where the grammar reader looks up the modules that the main file imports.
+     */
+    protected String getSnapshotKey(File syntaxMainFile, File syntaxDirectory) throws IOException {
+        MessageDigest digest = HashUtils.sha256();
+        Set<Path> files = new TreeSet<>();
+        files.add(syntaxMainFile.toPath());
+
+        if (syntaxDirectory.isDirectory()) {
+            try (Stream<Path> paths = Files.walk(syntaxDirectory.toPath())) {
+                paths
+                        .filter(Files::isRegularFile)
+                        .filter(path -> path.getFileName().toString().endsWith(NORM_SUFFIX))
+                        .forEach(files::add);
+            }
+        }
+
+        for (Path file : files) {
+            digest.update(file.toString().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(Files.readAllBytes(file));
+        }
+
+        return HashUtils.hex(digest.digest());
+    }
+
+    protected Path getSnapshotFile(SpoofaxCommonPaths spoofaxCommonPaths, ILanguageImpl language) {
+        File targetDirectory = resourceService.localFile(spoofaxCommonPaths.targetDir());
+
+        return targetDirectory.toPath()
+                .resolve(SNAPSHOT_DIRECTORY)
+                .resolve(language.belongsTo().name() + SNAPSHOT_EXTENSION);
+    }
+
     protected File getSyntaxMainFile(SpoofaxCommonPaths spoofaxCommonPaths, ILanguageImpl language) {
         return resourceService.localFile(spoofaxCommonPaths.syntaxSrcGenMainNormFile(language.belongsTo().name()));
     }
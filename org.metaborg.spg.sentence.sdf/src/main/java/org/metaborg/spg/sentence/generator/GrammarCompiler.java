@@ -0,0 +1,310 @@
+package org.metaborg.spg.sentence.generator;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import org.metaborg.parsetable.characterclasses.CharacterClassFactory;
+import org.metaborg.parsetable.characterclasses.ICharacterClass;
+import org.metaborg.sdf2table.grammar.*;
+import org.metaborg.sdf2table.io.ParseTableIO;
+
+import static org.metaborg.spg.sentence.generator.CompiledGrammar.*;
+import static org.metaborg.spg.sentence.generator.Generator.MAXIMUM_PRINTABLE;
+import static org.metaborg.spg.sentence.generator.Generator.MINIMUM_PRINTABLE;
+
+/**
+ * Compiles a {@link NormGrammar} into a {@link CompiledGrammar}.
+ *
+ * Placeholder, recover, and reject productions are dropped, and the attribute lookups and right-hand side filtering
+ * that the generator needs are done once for every production.
+ */
+public class GrammarCompiler {
+    private final NormGrammar grammar;
+    private final GrammarFactory gf;
+
+    private final Map<ISymbol, Integer> symbolIds = new HashMap<>();
+    private final List<ISymbol> symbols = new ArrayList<>();
+    private final List<Byte> kinds = new ArrayList<>();
+    private final List<Integer> elements = new ArrayList<>();
+    private final Map<Integer, Symbol> iterSymbols = new HashMap<>();
+    private final Map<Integer, Symbol> iterStarSymbols = new HashMap<>();
+    private final Map<Integer, Symbol> optionalSymbols = new HashMap<>();
+
+    public GrammarCompiler(NormGrammar grammar) {
+        this.grammar = grammar;
+        this.gf = new GrammarFactory();
+    }
+
+    public CompiledGrammar compile() {
+        List<IProduction> productions = retainRealProductions(grammar.getCacheProductionsRead().values());
+
+        int[] productionLhs = new int[productions.size()];
+        int[][] productionRhs = new int[productions.size()][];
+        int[][] productionSymbols = new int[productions.size()][];
+        String[] productionConstructors = new String[productions.size()];
+        boolean[] productionBrackets = new boolean[productions.size()];
+
+        for (int i = 0; i < productions.size(); i++) {
+            IProduction production = productions.get(i);
+
+            productionLhs[i] = intern(production.leftHand());
+            productionSymbols[i] = intern(production.rightHand());
+            productionRhs[i] = intern(cleanRhs(production.rightHand()));
+            productionConstructors[i] = getConstructor(production).orElse(null);
+            productionBrackets[i] = isBracket(production);
+        }
+
+        int symbolCount = symbols.size();
+        int[][] symbolProductions = createProductionIndex(productionLhs, symbolCount);
+
+        return new CompiledGrammar(
+                symbolIds,
+                symbols.toArray(new ISymbol[symbolCount]),
+                toByteArray(kinds),
+                elements.stream().mapToInt(Integer::intValue).toArray(),
+                toSymbolArray(iterSymbols, symbolCount),
+                toSymbolArray(iterStarSymbols, symbolCount),
+                toSymbolArray(optionalSymbols, symbolCount),
+                createCharacters(),
+                symbolProductions,
+                productionLhs,
+                productionRhs,
+                productionSymbols,
+                productionConstructors,
+                productionBrackets
+        );
+    }
+
+    private int[] intern(List<ISymbol> symbols) {
+        int[] ids = new int[symbols.size()];
+
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = intern(symbols.get(i));
+        }
+
+        return ids;
+    }
+
+    private int intern(ISymbol symbol) {
+        Integer existing = symbolIds.get(symbol);
+
+        if (existing != null) {
+            return existing;
+        }
+
+        int id = symbols.size();
+        symbolIds.put(symbol, id);
+        symbols.add(symbol);
+        kinds.add(KIND_OTHER);
+        elements.add(NONE);
+
+        if (symbol instanceof LexicalSymbol) {
+            kinds.set(id, KIND_LEXICAL);
+        } else if (symbol instanceof ContextFreeSymbol) {
+            Symbol innerSymbol = ((ContextFreeSymbol) symbol).getSymbol();
+
+            if (innerSymbol instanceof IterSymbol) {
+                internList(id, KIND_ITER, ((IterSymbol) innerSymbol).getSymbol());
+            } else if (innerSymbol instanceof IterSepSymbol) {
+                internList(id, KIND_ITER, ((IterSepSymbol) innerSymbol).getSymbol());
+            } else if (innerSymbol instanceof IterStarSymbol) {
+                internList(id, KIND_ITER_STAR, ((IterStarSymbol) innerSymbol).getSymbol());
+            } else if (innerSymbol instanceof IterStarSepSymbol) {
+                internList(id, KIND_ITER_STAR, ((IterStarSepSymbol) innerSymbol).getSymbol());
+            } else if (innerSymbol instanceof OptionalSymbol) {
+                internList(id, KIND_OPTIONAL, ((OptionalSymbol) innerSymbol).getSymbol());
+            } else if (innerSymbol instanceof Sort) {
+                kinds.set(id, KIND_CONTEXT_FREE);
+            } else {
+                kinds.set(id, KIND_CONTEXT_FREE_UNKNOWN);
+            }
+        } else if (symbol instanceof CharacterClassSymbol) {
+            kinds.set(id, KIND_CHARACTER_CLASS);
+        } else if (symbol instanceof Sort) {
+            kinds.set(id, KIND_SORT);
+        }
+
+        return id;
+    }
+
+    private void internList(int id, byte kind, Symbol innerSymbol) {
+        ContextFreeSymbol elementSymbol = gf.createContextFreeSymbol(innerSymbol);
+        int element = intern(elementSymbol);
+
+        kinds.set(id, kind);
+        elements.set(id, element);
+
+        iterSymbols.computeIfAbsent(element, e -> gf.createIterSymbol(elementSymbol));
+        iterStarSymbols.computeIfAbsent(element, e -> gf.createIterStarSymbol(elementSymbol));
+        optionalSymbols.computeIfAbsent(element, e -> gf.createOptionalSymbol(elementSymbol));
+    }
+
+    private int[][] createProductionIndex(int[] productionLhs, int symbolCount) {
+        int[] counts = new int[symbolCount];
+
+        for (int lhs : productionLhs) {
+            counts[lhs]++;
+        }
+
+        int[][] symbolProductions = new int[symbolCount][];
+
+        for (int symbol = 0; symbol < symbolCount; symbol++) {
+            symbolProductions[symbol] = new int[counts[symbol]];
+            counts[symbol] = 0;
+        }
+
+        for (int production = 0; production < productionLhs.length; production++) {
+            int lhs = productionLhs[production];
+
+            symbolProductions[lhs][counts[lhs]++] = production;
+        }
+
+        return symbolProductions;
+    }
+
+    private String[][] createCharacters() {
+        String[][] characters = new String[symbols.size()][];
+        ICharacterClass printable = ParseTableIO.getCharacterClassFactory()
+                .fromRange(MINIMUM_PRINTABLE, MAXIMUM_PRINTABLE);
+
+        for (int symbol = 0; symbol < characters.length; symbol++) {
+            if (kinds.get(symbol) == KIND_CHARACTER_CLASS) {
+                characters[symbol] = createCharacters((CharacterClassSymbol) symbols.get(symbol), printable);
+            }
+        }
+
+        return characters;
+    }
+
+    private String[] createCharacters(CharacterClassSymbol symbol, ICharacterClass printable) {
+        ICharacterClass printableRange = symbol.getCC().intersection(printable);
+        List<String> characters = new ArrayList<>();
+
+        for (int i = MINIMUM_PRINTABLE; i <= MAXIMUM_PRINTABLE; i++) {
+            if (printableRange.contains(i)) {
+                characters.add(CharacterClassFactory.intToString(i));
+            }
+        }
+
+        return characters.toArray(new String[0]);
+    }
+
+    private static byte[] toByteArray(List<Byte> list) {
+        byte[] array = new byte[list.size()];
+
+        for (int i = 0; i < array.length; i++) {
+            array[i] = list.get(i);
+        }
+
+        return array;
+    }
+
+    private static Symbol[] toSymbolArray(Map<Integer, Symbol> map, int size) {
+        Symbol[] array = new Symbol[size];
+
+        for (Map.Entry<Integer, Symbol> entry : map.entrySet()) {
+            array[entry.getKey()] = entry.getValue();
+        }
+
+        return array;
+    }
+
+    protected Optional<String> getConstructor(IProduction production) {
+        Optional<IAttribute> findAttribute = findAttribute(production, this::isConstructorAttribute);
+
+        return findAttribute.map(attribute -> ((ConstructorAttribute) attribute).getConstructor());
+    }
+
+    protected boolean isConstructorAttribute(IAttribute attribute) {
+        return attribute instanceof ConstructorAttribute;
+    }
+
+    protected List<ISymbol> cleanRhs(List<ISymbol> rightHand) {
+        return rightHand.stream().filter(this::isProperSymbol).collect(Collectors.toList());
+    }
+
+    protected boolean isProperSymbol(ISymbol symbol) {
+        if ("LAYOUT?-CF".equals(symbol.name())) {
+            return false;
+        }
+
+        // @formatter:off
+        return symbol instanceof ContextFreeSymbol
+            || symbol instanceof FileStartSymbol
+            || symbol instanceof StartSymbol
+            || symbol instanceof EOFSymbol
+            || symbol instanceof LexicalSymbol;
+        // @formatter:on
+    }
+
+    protected List<IProduction> retainRealProductions(Collection<Production> collection) {
+        return collection.stream().filter(this::isRealProduction).collect(Collectors.toList());
+    }
+
+    protected boolean isRealProduction(IProduction production) {
+        return !isPlaceholder(production) && !isRecover(production) && !isReject(production);
+    }
+
+    protected boolean isPlaceholder(IProduction production) {
+        return findAttribute(production, this::isPlaceholderAttribute).isPresent();
+    }
+
+    protected boolean isPlaceholderAttribute(IAttribute attribute) {
+        return isAttribute(attribute, "placeholder");
+    }
+
+    protected boolean isRecover(IProduction production) {
+        return findAttribute(production, this::isRecoverAttribute).isPresent();
+    }
+
+    protected boolean isRecoverAttribute(IAttribute attribute) {
+        return isAttribute(attribute, "recover");
+    }
+
+    protected boolean isReject(IProduction production) {
+        return findAttribute(production, this::isRejectAttribute).isPresent();
+    }
+
+    protected boolean isRejectAttribute(IAttribute attribute) {
+        return isAttribute(attribute, "reject");
+    }
+
+    protected boolean isBracket(IProduction production) {
+        return findAttribute(production, this::isBracketAttribute).isPresent();
+    }
+
+    protected boolean isBracketAttribute(IAttribute attribute) {
+        return isAttribute(attribute, "bracket");
+    }
+
+    protected boolean isAttribute(IAttribute attribute, String name) {
+        if (attribute instanceof GeneralAttribute) {
+            GeneralAttribute generalAttribute = (GeneralAttribute) attribute;
+
+            if (name.equals(generalAttribute.getName())) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    protected Optional<IAttribute> findAttribute(IProduction production, Predicate<IAttribute> predicate) {
+        Set<IAttribute> attributes = grammar.getProductionAttributesMapping().get(production);
+
+        for (IAttribute attribute : attributes) {
+            if (predicate.test(attribute)) {
+                return Optional.of(attribute);
+            }
+        }
+
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,273 @@
+package org.metaborg.spg.sentence.generator;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.metaborg.sdf2table.grammar.ISymbol;
+import org.metaborg.sdf2table.grammar.Symbol;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Binary snapshot of a {@link CompiledGrammar}, so that later runs can skip reading and normalizing the grammar.
+ *
+ * The tables of the grammar (kinds, elements, characters, productions, constructors, and bracket flags) are written as
+ * big-endian ints and length-prefixed UTF-8 strings, and are read back from a memory-mapped file. The sdf2table
+ * symbols, which generated terms carry in their {@link GeneratorAttachment}, are written with Java serialization in a
+ * single trailing section. A snapshot records the key of the grammar it was written for, and is only read if the key
+ * matches. The analyses of the grammar are not stored, because they are recomputed when the grammar is constructed.
+ */
+public class GrammarSnapshot {
+    private static final Logger logger = LoggerFactory.getLogger(GrammarSnapshot.class);
+
+    private static final int MAGIC = 0x53504753;
+
+    // Bump when the format of the snapshot or the grammar compiler changes
+    private static final int VERSION = 1;
+
+    /**
+     * Write the grammar to the file. A temporary file is written first and then moved, so that a concurrent reader
+     * never sees a partial snapshot.
+     *
+     * @param key The key of the grammar, e.g. a hash of the normalized grammar files.
+     */
+    public static void write(CompiledGrammar grammar, String key, Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+
+        Path temporaryFile = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryFile)))) {
+            write(grammar, key, output);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporaryFile);
+
+            throw e;
+        }
+
+        Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * @return The grammar in the file, or empty if there is no snapshot for the key or the snapshot cannot be read.
+     */
+    public static Optional<CompiledGrammar> read(String key, Path file) {
+        if (!Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            return read(key, buffer);
+        } catch (IOException | ClassNotFoundException | RuntimeException e) {
+            logger.warn("Ignoring unreadable grammar snapshot {}", file, e);
+
+            return Optional.empty();
+        }
+    }
+
+    private static void write(CompiledGrammar grammar, String key, DataOutputStream output) throws IOException {
+        int symbolCount = grammar.getSymbolCount();
+        int productionCount = grammar.getProductionCount();
+
+        output.writeInt(MAGIC);
+        output.writeInt(VERSION);
+        writeString(output, key);
+        output.writeInt(symbolCount);
+        output.writeInt(productionCount);
+
+        for (int symbol = 0; symbol < symbolCount; symbol++) {
+            output.writeByte(grammar.getKind(symbol));
+            output.writeInt(grammar.getElement(symbol));
+            writeStrings(output, grammar.getCharacters(symbol));
+            writeInts(output, grammar.getProductions(symbol));
+        }
+
+        for (int production = 0; production < productionCount; production++) {
+            output.writeInt(grammar.getLhs(production));
+            writeInts(output, grammar.getRhs(production));
+            writeInts(output, grammar.getSymbols(production));
+            writeString(output, grammar.getConstructor(production));
+            output.writeBoolean(grammar.isBracket(production));
+        }
+
+        ISymbol[] symbols = new ISymbol[symbolCount];
+        Symbol[] iterSymbols = new Symbol[symbolCount];
+        Symbol[] iterStarSymbols = new Symbol[symbolCount];
+        Symbol[] optionalSymbols = new Symbol[symbolCount];
+
+        for (int symbol = 0; symbol < symbolCount; symbol++) {
+            symbols[symbol] = grammar.getSymbol(symbol);
+            iterSymbols[symbol] = grammar.getIterSymbol(symbol);
+            iterStarSymbols[symbol] = grammar.getIterStarSymbol(symbol);
+            optionalSymbols[symbol] = grammar.getOptionalSymbol(symbol);
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try (ObjectOutputStream objects = new ObjectOutputStream(bytes)) {
+            objects.writeObject(new Object[] { symbols, iterSymbols, iterStarSymbols, optionalSymbols });
+        }
+
+        output.writeInt(bytes.size());
+        bytes.writeTo(output);
+    }
+
+    private static Optional<CompiledGrammar> read(String key, ByteBuffer buffer) throws IOException, ClassNotFoundException {
+        if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION || !key.equals(readString(buffer))) {
+            return Optional.empty();
+        }
+
+        int symbolCount = buffer.getInt();
+        int productionCount = buffer.getInt();
+
+        byte[] kinds = new byte[symbolCount];
+        int[] elements = new int[symbolCount];
+        String[][] characters = new String[symbolCount][];
+        int[][] symbolProductions = new int[symbolCount][];
+
+        for (int symbol = 0; symbol < symbolCount; symbol++) {
+            kinds[symbol] = buffer.get();
+            elements[symbol] = buffer.getInt();
+            characters[symbol] = readStrings(buffer);
+            symbolProductions[symbol] = readInts(buffer);
+        }
+
+        int[] productionLhs = new int[productionCount];
+        int[][] productionRhs = new int[productionCount][];
+        int[][] productionSymbols = new int[productionCount][];
+        String[] productionConstructors = new String[productionCount];
+        boolean[] productionBrackets = new boolean[productionCount];
+
+        for (int production = 0; production < productionCount; production++) {
+            productionLhs[production] = buffer.getInt();
+            productionRhs[production] = readInts(buffer);
+            productionSymbols[production] = readInts(buffer);
+            productionConstructors[production] = readString(buffer);
+            productionBrackets[production] = buffer.get() != 0;
+        }
+
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+
+        Object[] objects;
+
+        try (ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            objects = (Object[]) input.readObject();
+        }
+
+        ISymbol[] symbols = (ISymbol[]) objects[0];
+        Map<ISymbol, Integer> symbolIds = new HashMap<>();
+
+        for (int symbol = 0; symbol < symbolCount; symbol++) {
+            symbolIds.put(symbols[symbol], symbol);
+        }
+
+        return Optional.of(new CompiledGrammar(
+                symbolIds,
+                symbols,
+                kinds,
+                elements,
+                (Symbol[]) objects[1],
+                (Symbol[]) objects[2],
+                (Symbol[]) objects[3],
+                characters,
+                symbolProductions,
+                productionLhs,
+                productionRhs,
+                productionSymbols,
+                productionConstructors,
+                productionBrackets
+        ));
+    }
+
+    private static void writeInts(DataOutputStream output, int[] values) throws IOException {
+        output.writeInt(values.length);
+
+        for (int value : values) {
+            output.writeInt(value);
+        }
+    }
+
+    private static int[] readInts(ByteBuffer buffer) {
+        int[] values = new int[buffer.getInt()];
+
+        for (int i = 0; i < values.length; i++) {
+            values[i] = buffer.getInt();
+        }
+
+        return values;
+    }
+
+    private static void writeStrings(DataOutputStream output, String[] values) throws IOException {
+        if (values == null) {
+            output.writeInt(-1);
+
+            return;
+        }
+
+        output.writeInt(values.length);
+
+        for (String value : values) {
+            writeString(output, value);
+        }
+    }
+
+    private static String[] readStrings(ByteBuffer buffer) {
+        int length = buffer.getInt();
+
+        if (length == -1) {
+            return null;
+        }
+
+        String[] values = new String[length];
+
+        for (int i = 0; i < length; i++) {
+            values[i] = readString(buffer);
+        }
+
+        return values;
+    }
+
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        if (value == null) {
+            output.writeInt(-1);
+
+            return;
+        }
+
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+
+        if (length == -1) {
+            return null;
+        }
+
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
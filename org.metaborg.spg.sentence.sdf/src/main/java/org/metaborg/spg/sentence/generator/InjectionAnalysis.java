@@ -0,0 +1,79 @@
+package org.metaborg.spg.sentence.generator;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import static org.metaborg.spg.sentence.generator.CompiledGrammar.*;
+
+/**
+ * Injection analysis of a compiled grammar.
+ *
+ * An injection is a production without a constructor. Its term is the term of its first child, and any other children
+ * are dropped (see {@link Generator#makeProduction}), so it does not create a node. For every symbol, the analysis
+ * computes the closure of the symbols that the symbol reaches through injections, including the symbol itself. A term
+ * that is reachable through several injection paths, or through a cycle of injections, is then derived once, by the
+ * symbol in the closure that creates its root node. Bracket productions are not followed, because they only add
+ * parentheses to the text of a term.
+ */
+public class InjectionAnalysis {
+    private final CompiledGrammar grammar;
+    private final int[][] closures;
+
+    public InjectionAnalysis(CompiledGrammar grammar) {
+        this.grammar = grammar;
+        this.closures = new int[grammar.getSymbolCount()][];
+
+        analyze();
+    }
+
+    /**
+     * @return The symbols that are reachable from the symbol through injections, starting with the symbol itself.
+     */
+    public int[] getClosure(int symbol) {
+        return closures[symbol];
+    }
+
+    /**
+     * @return True if the production is an injection, i.e. it has no constructor and at least one child.
+     */
+    public boolean isInjection(int production) {
+        return grammar.getConstructor(production) == null && grammar.getRhs(production).length > 0;
+    }
+
+    /**
+     * @return True if the production derives a term of its own: it is neither an injection nor a bracket production.
+     */
+    public boolean isDerivation(int production) {
+        return !isInjection(production) && !grammar.isBracket(production);
+    }
+
+    private void analyze() {
+        for (int symbol = 0; symbol < closures.length; symbol++) {
+            Set<Integer> closure = new LinkedHashSet<>();
+            collectClosure(symbol, closure);
+
+            closures[symbol] = closure.stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    private void collectClosure(int symbol, Set<Integer> closure) {
+        if (!closure.add(symbol)) {
+            return;
+        }
+
+        switch (grammar.getKind(symbol)) {
+            case KIND_LEXICAL:
+            case KIND_ITER:
+            case KIND_ITER_STAR:
+            case KIND_OPTIONAL:
+            case KIND_CONTEXT_FREE_UNKNOWN:
+                return;
+            default:
+                for (int production : grammar.getProductions(symbol)) {
+                    if (isInjection(production) && !grammar.isBracket(production)) {
+                        collectClosure(grammar.getRhs(production)[0], closure);
+                    }
+                }
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package org.metaborg.spg.sentence.generator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.metaborg.sdf2table.grammar.ISymbol;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.metaborg.spg.sentence.generator.CompiledGrammar.*;
+
+/**
+ * Minimum-size analysis of a compiled grammar.
+ *
+ * Computes, as a least fixpoint, the smallest size budget for which the {@link Generator} can derive a term from each
+ * symbol and production. A symbol that cannot derive any finite term is unproductive and has size {@link #INFINITE}.
+ */
+public class SizeAnalysis {
+    private static final Logger logger = LoggerFactory.getLogger(SizeAnalysis.class);
+
+    public static final int INFINITE = Integer.MAX_VALUE;
+
+    private final CompiledGrammar grammar;
+    private final int[] symbolSizes;
+    private final int[] productionSizes;
+
+    public SizeAnalysis(CompiledGrammar grammar) {
+        this.grammar = grammar;
+        this.symbolSizes = new int[grammar.getSymbolCount()];
+        this.productionSizes = new int[grammar.getProductionCount()];
+
+        analyze();
+    }
+
+    /**
+     * @return The smallest budget for which the symbol derives a term, or {@link #INFINITE}.
+     */
+    public int getMinimumSize(int symbol) {
+        return symbolSizes[symbol];
+    }
+
+    /**
+     * @return The smallest budget for which the production derives a term, or {@link #INFINITE}.
+     */
+    public int getProductionMinimumSize(int production) {
+        return productionSizes[production];
+    }
+
+    public boolean isProductive(int symbol) {
+        return symbolSizes[symbol] != INFINITE;
+    }
+
+    public List<ISymbol> getUnproductiveSymbols() {
+        List<ISymbol> unproductiveSymbols = new ArrayList<>();
+
+        for (int symbol = 0; symbol < symbolSizes.length; symbol++) {
+            if (!isProductive(symbol) && grammar.getProductions(symbol).length != 0) {
+                unproductiveSymbols.add(grammar.getSymbol(symbol));
+            }
+        }
+
+        return unproductiveSymbols;
+    }
+
+    private void analyze() {
+        Arrays.fill(symbolSizes, INFINITE);
+        Arrays.fill(productionSizes, INFINITE);
+
+        boolean changed = true;
+
+        while (changed) {
+            changed = false;
+
+            for (int production = 0; production < productionSizes.length; production++) {
+                productionSizes[production] = computeProductionSize(production);
+            }
+
+            for (int symbol = 0; symbol < symbolSizes.length; symbol++) {
+                int size = computeSymbolSize(symbol);
+
+                if (size < symbolSizes[symbol]) {
+                    symbolSizes[symbol] = size;
+                    changed = true;
+                }
+            }
+        }
+
+        for (ISymbol symbol : getUnproductiveSymbols()) {
+            logger.debug("Unproductive symbol {}", symbol);
+        }
+    }
+
+    private int computeSymbolSize(int symbol) {
+        switch (grammar.getKind(symbol)) {
+            case KIND_CHARACTER_CLASS:
+            case KIND_ITER_STAR:
+            case KIND_OPTIONAL:
+                return 1;
+            case KIND_ITER:
+                return multiply(2, symbolSizes[grammar.getElement(symbol)]);
+            case KIND_CONTEXT_FREE_UNKNOWN:
+                return INFINITE;
+            default:
+                int size = INFINITE;
+
+                for (int production : grammar.getProductions(symbol)) {
+                    size = Math.min(size, productionSizes[production]);
+                }
+
+                return size;
+        }
+    }
+
+    private int computeProductionSize(int production) {
+        byte lhsKind = grammar.getKind(grammar.getLhs(production));
+
+        // Lexical productions generate a string in one go, which does not consume any budget
+        if (lhsKind == KIND_LEXICAL || lhsKind == KIND_SORT) {
+            for (int symbol : grammar.getSymbols(production)) {
+                if (symbolSizes[symbol] == INFINITE) {
+                    return INFINITE;
+                }
+            }
+
+            return 1;
+        }
+
+        int[] rhs = grammar.getRhs(production);
+
+        if (rhs.length == 0) {
+            return grammar.getConstructor(production) != null ? 1 : INFINITE;
+        }
+
+        int maximumChildSize = 0;
+
+        for (int symbol : rhs) {
+            maximumChildSize = Math.max(maximumChildSize, symbolSizes[symbol]);
+        }
+
+        // Every child receives (size - 1) / n, see Generator.generateProduction
+        return add(1, multiply(rhs.length, maximumChildSize));
+    }
+
+    private static int add(int a, int b) {
+        if (a == INFINITE || b == INFINITE) {
+            return INFINITE;
+        }
+
+        return (int) Math.min(INFINITE, (long) a + b);
+    }
+
+    private static int multiply(int a, int b) {
+        if (a == INFINITE || b == INFINITE) {
+            return INFINITE;
+        }
+
+        return (int) Math.min(INFINITE, (long) a * b);
+    }
+}
@@ -0,0 +1,190 @@
+package org.metaborg.spg.sentence.generator;
+
+import java.util.Arrays;
+
+import static org.metaborg.spg.sentence.generator.CompiledGrammar.*;
+import static org.metaborg.spg.sentence.generator.SizeAnalysis.INFINITE;
+
+/**
+ * Smallest-witness analysis of a compiled grammar.
+ *
+ * Computes, as a least fixpoint, the smallest term that each symbol derives and the production that derives it. Terms
+ * are measured in nodes: a string, an empty list, and None are one node, and an application is one node plus its
+ * children. Lexical symbols are measured in characters instead, which gives the shortest string of every lexical
+ * symbol. Unlike {@link SizeAnalysis}, which computes the budget that the random generator needs, this analysis
+ * measures the terms themselves, so that the {@link Generator} can build the witnesses deterministically.
+ */
+public class WitnessAnalysis {
+    private final CompiledGrammar grammar;
+    private final int[] symbolSizes;
+    private final int[] symbolWitnesses;
+    private final int[] symbolLengths;
+    private final int[] lexicalWitnesses;
+
+    public WitnessAnalysis(CompiledGrammar grammar) {
+        this.grammar = grammar;
+        this.symbolSizes = new int[grammar.getSymbolCount()];
+        this.symbolWitnesses = new int[grammar.getSymbolCount()];
+        this.symbolLengths = new int[grammar.getSymbolCount()];
+        this.lexicalWitnesses = new int[grammar.getSymbolCount()];
+
+        analyze();
+    }
+
+    /**
+     * @return The number of nodes in the smallest term of the symbol, or {@link SizeAnalysis#INFINITE}.
+     */
+    public int getMinimumSize(int symbol) {
+        return symbolSizes[symbol];
+    }
+
+    /**
+     * @return The production that derives the smallest term of a context-free symbol, or {@link CompiledGrammar#NONE}.
+     */
+    public int getWitness(int symbol) {
+        return symbolWitnesses[symbol];
+    }
+
+    /**
+     * @return The length of the shortest string of a lexical symbol, or {@link SizeAnalysis#INFINITE}.
+     */
+    public int getMinimumLength(int symbol) {
+        return symbolLengths[symbol];
+    }
+
+    /**
+     * @return The production that derives the shortest string of a lexical symbol, or {@link CompiledGrammar#NONE}.
+     */
+    public int getLexicalWitness(int symbol) {
+        return lexicalWitnesses[symbol];
+    }
+
+    private void analyze() {
+        Arrays.fill(symbolSizes, INFINITE);
+        Arrays.fill(symbolWitnesses, NONE);
+        Arrays.fill(symbolLengths, INFINITE);
+        Arrays.fill(lexicalWitnesses, NONE);
+
+        boolean changed = true;
+
+        while (changed) {
+            changed = false;
+
+            for (int symbol = 0; symbol < symbolSizes.length; symbol++) {
+                changed |= updateLength(symbol);
+            }
+        }
+
+        changed = true;
+
+        while (changed) {
+            changed = false;
+
+            for (int symbol = 0; symbol < symbolSizes.length; symbol++) {
+                changed |= updateSize(symbol);
+            }
+        }
+    }
+
+    private boolean updateLength(int symbol) {
+        switch (grammar.getKind(symbol)) {
+            case KIND_CHARACTER_CLASS:
+                return improveLength(symbol, grammar.getCharacters(symbol).length != 0 ? 1 : INFINITE, NONE);
+            case KIND_LEXICAL:
+            case KIND_SORT:
+                boolean changed = false;
+
+                for (int production : grammar.getProductions(symbol)) {
+                    int length = 0;
+
+                    for (int rhsSymbol : grammar.getSymbols(production)) {
+                        length = add(length, symbolLengths[rhsSymbol]);
+                    }
+
+                    changed |= improveLength(symbol, length, production);
+                }
+
+                return changed;
+            default:
+                return false;
+        }
+    }
+
+    private boolean updateSize(int symbol) {
+        switch (grammar.getKind(symbol)) {
+            case KIND_LEXICAL:
+                return improveSize(symbol, symbolLengths[symbol] != INFINITE ? 1 : INFINITE, NONE);
+            case KIND_ITER_STAR:
+            case KIND_OPTIONAL:
+                return improveSize(symbol, 1, NONE);
+            case KIND_ITER:
+                return improveSize(symbol, add(1, symbolSizes[grammar.getElement(symbol)]), NONE);
+            case KIND_CHARACTER_CLASS:
+            case KIND_CONTEXT_FREE_UNKNOWN:
+                return false;
+            default:
+                boolean changed = false;
+
+                for (int production : grammar.getProductions(symbol)) {
+                    changed |= improveSize(symbol, computeProductionSize(production), production);
+                }
+
+                return changed;
+        }
+    }
+
+    /**
+     * An application counts as one node plus its children; an injection is its first child, as in
+     * Generator.makeProduction.
+     */
+    private int computeProductionSize(int production) {
+        int[] rhs = grammar.getRhs(production);
+        boolean constructor = grammar.getConstructor(production) != null;
+
+        if (rhs.length == 0) {
+            return constructor ? 1 : INFINITE;
+        }
+
+        int size = constructor ? 1 : 0;
+
+        for (int i = 0; i < rhs.length; i++) {
+            if (constructor || i == 0) {
+                size = add(size, symbolSizes[rhs[i]]);
+            } else if (symbolSizes[rhs[i]] == INFINITE) {
+                return INFINITE;
+            }
+        }
+
+        return size;
+    }
+
+    private boolean improveSize(int symbol, int size, int production) {
+        if (size < symbolSizes[symbol]) {
+            symbolSizes[symbol] = size;
+            symbolWitnesses[symbol] = production;
+
+            return true;
+        }
+
+        return false;
+    }
+
+    private boolean improveLength(int symbol, int length, int production) {
+        if (length < symbolLengths[symbol]) {
+            symbolLengths[symbol] = length;
+            lexicalWitnesses[symbol] = production;
+
+            return true;
+        }
+
+        return false;
+    }
+
+    private static int add(int a, int b) {
+        if (a == INFINITE || b == INFINITE) {
+            return INFINITE;
+        }
+
+        return (int) Math.min(INFINITE, (long) a + b);
+    }
+}
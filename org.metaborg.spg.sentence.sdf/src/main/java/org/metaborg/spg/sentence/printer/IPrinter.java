@@ -0,0 +1,7 @@
+package org.metaborg.spg.sentence.printer;
+
+import org.spoofax.interpreter.terms.IStrategoTerm;
+
+public interface IPrinter {
+    String print(IStrategoTerm term);
+}
@@ -0,0 +1,315 @@
+package org.metaborg.spg.sentence.printer;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.spoofax.interpreter.terms.IStrategoAppl;
+import org.spoofax.interpreter.terms.IStrategoList;
+import org.spoofax.interpreter.terms.IStrategoString;
+import org.spoofax.interpreter.terms.IStrategoTerm;
+
+/**
+ * Printer that prints a term incrementally from the text of a term that it differs from in a few subterms.
+ *
+ * Printed texts are memoized by term identity in a bounded cache. To print a candidate, the printer walks the
+ * candidate and its parent in parallel. Subterms that are shared between both terms keep their text; only subterms
+ * that were replaced are printed, and their text is spliced into the text of the parent. The span of a subterm in the
+ * text of its parent is found by locating the texts of the children in order. A child is only located on token
+ * boundaries, so that e.g. the child {@code e} of {@code let e = e} is not located inside the keyword {@code let}.
+ *
+ * Printing a subterm on its own may not give the same text as printing it in context (e.g. parentheses), so the result
+ * is an approximation. Callers should confirm interesting results with a full print.
+ *
+ * The memo is thread-safe and is only locked to look up or store a single text, never for a whole print. To print on
+ * multiple threads, give every thread its own printer with {@link #withPrinter(IPrinter)}: the printers share the memo
+ * and the statistics, but every thread prints on its own underlying printer.
+ */
+public class IncrementalPrinter implements IPrinter {
+    public static final int DEFAULT_CAPACITY = 10000;
+
+    private final IPrinter printer;
+    private final Map<IdentityKey, Printed> memo;
+    private final AtomicInteger fullPrints;
+    private final AtomicInteger incrementalPrints;
+
+    public IncrementalPrinter(IPrinter printer) {
+        this(printer, DEFAULT_CAPACITY);
+    }
+
+    public IncrementalPrinter(IPrinter printer, int capacity) {
+        this(printer, Collections.synchronizedMap(new LinkedHashMap<IdentityKey, Printed>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<IdentityKey, Printed> eldest) {
+                return size() > capacity;
+            }
+        }), new AtomicInteger(), new AtomicInteger());
+    }
+
+    private IncrementalPrinter(IPrinter printer, Map<IdentityKey, Printed> memo, AtomicInteger fullPrints,
+            AtomicInteger incrementalPrints) {
+        this.printer = printer;
+        this.memo = memo;
+        this.fullPrints = fullPrints;
+        this.incrementalPrints = incrementalPrints;
+    }
+
+    /**
+     * @return A printer that prints on the given printer, and shares the memo and the statistics of this printer.
+     */
+    public IncrementalPrinter withPrinter(IPrinter printer) {
+        return new IncrementalPrinter(printer, memo, fullPrints, incrementalPrints);
+    }
+
+    /**
+     * Print the term in full, or return the memoized text if the same term has been printed before.
+     */
+    @Override
+    public String print(IStrategoTerm term) {
+        return printed(term).text;
+    }
+
+    /**
+     * Print the term by reusing the text of the parent for all subterms that the term shares with the parent.
+     */
+    public String print(IStrategoTerm term, IStrategoTerm parent) {
+        Printed cached = memo.get(new IdentityKey(term));
+
+        if (cached != null) {
+            return cached.text;
+        }
+
+        Optional<String> textOpt = printIncremental(term, parent);
+
+        if (textOpt.isPresent()) {
+            incrementalPrints.incrementAndGet();
+
+            return textOpt.get();
+        }
+
+        return print(term);
+    }
+
+    /**
+     * @return The number of terms that were printed by the underlying printer.
+     */
+    public int getFullPrints() {
+        return fullPrints.get();
+    }
+
+    /**
+     * @return The number of terms that were printed by splicing texts.
+     */
+    public int getIncrementalPrints() {
+        return incrementalPrints.get();
+    }
+
+    private Optional<String> printIncremental(IStrategoTerm term, IStrategoTerm base) {
+        if (term == base) {
+            return Optional.of(printed(base).text);
+        }
+
+        if (term instanceof IStrategoString) {
+            return Optional.of(((IStrategoString) term).stringValue());
+        }
+
+        Printed cached = memo.get(new IdentityKey(term));
+
+        if (cached != null) {
+            return Optional.of(cached.text);
+        }
+
+        if (!isSameShape(term, base)) {
+            return Optional.empty();
+        }
+
+        Printed printedBase = printed(base);
+
+        if (!printedBase.hasSpans(base)) {
+            return Optional.empty();
+        }
+
+        StringBuilder builder = new StringBuilder();
+        int last = 0;
+
+        for (int i = 0; i < term.getSubtermCount(); i++) {
+            IStrategoTerm child = term.getSubterm(i);
+            IStrategoTerm baseChild = base.getSubterm(i);
+
+            if (child == baseChild) {
+                continue;
+            }
+
+            Optional<String> childTextOpt = printIncremental(child, baseChild);
+
+            if (!childTextOpt.isPresent()) {
+                childTextOpt = tryPrint(child);
+            }
+
+            if (!childTextOpt.isPresent()) {
+                return Optional.empty();
+            }
+
+            builder.append(printedBase.text, last, printedBase.starts[i]);
+            builder.append(childTextOpt.get());
+
+            last = printedBase.ends[i];
+        }
+
+        builder.append(printedBase.text, last, printedBase.text.length());
+
+        return Optional.of(builder.toString());
+    }
+
+    private Optional<String> tryPrint(IStrategoTerm term) {
+        try {
+            return Optional.of(printed(term).text);
+        } catch (PrinterRuntimeException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Two threads that miss the memo for the same term both print it, and the last text wins. Both texts are equal, so
+     * this only costs a print, whereas locking the memo during the print would serialize all threads.
+     */
+    private Printed printed(IStrategoTerm term) {
+        IdentityKey key = new IdentityKey(term);
+        Printed printed = memo.get(key);
+
+        if (printed == null) {
+            String text;
+
+            if (term instanceof IStrategoString) {
+                text = ((IStrategoString) term).stringValue();
+            } else {
+                text = printer.print(term);
+                fullPrints.incrementAndGet();
+            }
+
+            printed = new Printed(text);
+            memo.put(key, printed);
+        }
+
+        return printed;
+    }
+
+    private boolean isSameShape(IStrategoTerm term, IStrategoTerm base) {
+        if (term.getSubtermCount() != base.getSubtermCount()) {
+            return false;
+        }
+
+        if (term instanceof IStrategoAppl && base instanceof IStrategoAppl) {
+            return ((IStrategoAppl) term).getConstructor().equals(((IStrategoAppl) base).getConstructor());
+        }
+
+        return term instanceof IStrategoList && base instanceof IStrategoList;
+    }
+
+    private class Printed {
+        private final String text;
+        private boolean located;
+        private int[] starts;
+        private int[] ends;
+
+        private Printed(String text) {
+            this.text = text;
+        }
+
+        /**
+         * Locate the texts of the children of the term in the text of the term. Children are printed on their own,
+         * and every child must occur after the previous one, on token boundaries. Only this text is locked while its
+         * spans are located.
+         */
+        private synchronized boolean hasSpans(IStrategoTerm term) {
+            if (!located) {
+                located = true;
+
+                int count = term.getSubtermCount();
+                int[] childStarts = new int[count];
+                int[] childEnds = new int[count];
+                int offset = 0;
+
+                for (int i = 0; i < count; i++) {
+                    Optional<String> childTextOpt = tryPrint(term.getSubterm(i));
+
+                    if (!childTextOpt.isPresent()) {
+                        return false;
+                    }
+
+                    int start = indexOfToken(childTextOpt.get(), offset);
+
+                    if (start == -1) {
+                        return false;
+                    }
+
+                    childStarts[i] = start;
+                    childEnds[i] = start + childTextOpt.get().length();
+                    offset = childEnds[i];
+                }
+
+                starts = childStarts;
+                ends = childEnds;
+            }
+
+            return starts != null;
+        }
+
+        /**
+         * @return The first occurrence of the child text from the offset that does not split a token of this text, or
+         * -1 if there is no such occurrence.
+         */
+        private int indexOfToken(String childText, int offset) {
+            int start = text.indexOf(childText, offset);
+
+            while (start != -1 && !isTokenBoundary(start, childText)) {
+                start = text.indexOf(childText, start + 1);
+            }
+
+            return start;
+        }
+
+        /**
+         * A child text that starts (ends) with an identifier character cannot be preceded (followed) by another one,
+         * because the parser would read both characters as a single token.
+         */
+        private boolean isTokenBoundary(int start, String childText) {
+            if (childText.isEmpty()) {
+                return true;
+            }
+
+            int end = start + childText.length();
+
+            if (start > 0 && isIdentifierPart(text.charAt(start - 1)) && isIdentifierPart(childText.charAt(0))) {
+                return false;
+            }
+
+            return end == text.length() || !isIdentifierPart(text.charAt(end))
+                    || !isIdentifierPart(childText.charAt(childText.length() - 1));
+        }
+    }
+
+    private static boolean isIdentifierPart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+
+    private static class IdentityKey {
+        private final IStrategoTerm term;
+
+        private IdentityKey(IStrategoTerm term) {
+            this.term = term;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof IdentityKey && ((IdentityKey) other).term == term;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(term);
+        }
+    }
+}
@@ -2,30 +2,59 @@ package org.metaborg.spg.sentence.printer;
 
 import org.metaborg.core.MetaborgException;
 import org.metaborg.spoofax.core.stratego.IStrategoCommon;
+import org.spoofax.interpreter.core.InterpreterException;
+import org.spoofax.interpreter.stratego.SDefT;
 import org.spoofax.interpreter.terms.IStrategoString;
 import org.spoofax.interpreter.terms.IStrategoTerm;
 import org.strategoxt.HybridInterpreter;
 
-public class Printer {
+/**
+ * Printer that invokes the pretty-printer of the language on a Stratego interpreter. The pretty-print strategy is
+ * resolved once, when the printer is created. An interpreter has mutable state, so this printer is not thread-safe;
+ * use a {@link PrinterPool} to print on multiple threads.
+ */
+public class Printer implements IPrinter {
     private static final String PRETTY_PRINT_STRATEGY = "pp-debug";
     private final IStrategoCommon stratego;
     private final HybridInterpreter interpreter;
+    private final SDefT strategy;
 
     public Printer(IStrategoCommon stratego, HybridInterpreter interpreter) {
         this.stratego = stratego;
         this.interpreter = interpreter;
+        this.strategy = interpreter.lookupUncifiedSVar(PRETTY_PRINT_STRATEGY);
     }
 
+    @Override
     public String print(IStrategoTerm term) {
+        IStrategoTerm program = invoke(term);
+
+        if (!(program instanceof IStrategoString)) {
+            throw new PrinterRuntimeException("The pretty-printer returned a non-string.");
+        }
+
+        return ((IStrategoString) program).stringValue();
+    }
+
+    private IStrategoTerm invoke(IStrategoTerm term) {
+        // Without a resolved strategy, let the Stratego service report the missing strategy
+        if (strategy == null) {
+            try {
+                return stratego.invoke(interpreter, term, PRETTY_PRINT_STRATEGY);
+            } catch (MetaborgException e) {
+                throw new PrinterRuntimeException("Failed to pretty-print term: " + term, e);
+            }
+        }
+
         try {
-            IStrategoTerm program = stratego.invoke(interpreter, term, PRETTY_PRINT_STRATEGY);
+            interpreter.setCurrent(term);
 
-            if (!(program instanceof IStrategoString)) {
-                throw new PrinterRuntimeException("The pretty-printer returned a non-string.");
+            if (!strategy.evaluate(interpreter.getContext())) {
+                throw new PrinterRuntimeException("The pretty-printer failed on term: " + term);
             }
 
-            return ((IStrategoString) program).stringValue();
-        } catch (MetaborgException e) {
+            return interpreter.current();
+        } catch (InterpreterException e) {
             throw new PrinterRuntimeException("Failed to pretty-print term: " + term, e);
         }
     }
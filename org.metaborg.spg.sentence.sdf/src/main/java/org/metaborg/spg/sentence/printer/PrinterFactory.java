@@ -8,6 +8,7 @@ import org.metaborg.core.context.IContextService;
 import org.metaborg.core.language.ILanguageComponent;
 import org.metaborg.core.language.ILanguageImpl;
 import org.metaborg.core.project.IProject;
+import org.metaborg.spg.sentence.generator.CompiledGrammar;
 import org.metaborg.spoofax.core.stratego.IStrategoCommon;
 import org.metaborg.spoofax.core.stratego.IStrategoRuntimeService;
 import org.strategoxt.HybridInterpreter;
@@ -33,4 +34,29 @@ public class PrinterFactory {
 
         return new Printer(stratego, interpreter);
     }
+
+    /**
+     * Create a printer that prints from the templates of the compiled grammar, and falls back to the given Stratego
+     * printer for terms that the templates cannot print.
+     *
+     * @param validate If true, every text is checked against the Stratego printer.
+     */
+    public TemplatePrinter create(CompiledGrammar grammar, IPrinter fallback, boolean validate) {
+        return new TemplatePrinter(grammar, fallback, validate);
+    }
+
+    /**
+     * Create a pool with a printer for every available processor.
+     */
+    public PrinterPool createPool(ILanguageImpl language, IProject project) throws MetaborgException {
+        return createPool(language, project, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Create a pool of at most the given number of printers. One printer is created immediately, so that a broken
+     * language fails here rather than on the first print.
+     */
+    public PrinterPool createPool(ILanguageImpl language, IProject project, int capacity) throws MetaborgException {
+        return new PrinterPool(() -> create(language, project), capacity, 1);
+    }
 }
@@ -0,0 +1,154 @@
+package org.metaborg.spg.sentence.printer;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.metaborg.core.MetaborgException;
+import org.metaborg.spg.sentence.shared.functional.CheckedSupplier;
+import org.spoofax.interpreter.terms.IStrategoTerm;
+
+/**
+ * Thread-safe printer backed by a bounded pool of printers, each with its own interpreter.
+ *
+ * A thread that prints borrows a printer, uses it, and returns it to the pool. Printers are created up front to warm
+ * the pool, and on demand until the pool reaches its capacity. When all printers are in use, a thread waits for one
+ * to be returned; the time spent waiting is reported by {@link #getWaitTime()}.
+ */
+public class PrinterPool implements IPrinter {
+    private final CheckedSupplier<Printer, MetaborgException> printerSupplier;
+    private final int capacity;
+    private final BlockingQueue<Printer> idle;
+    private final AtomicInteger created = new AtomicInteger();
+    private final AtomicLong borrows = new AtomicLong();
+    private final AtomicLong waits = new AtomicLong();
+    private final AtomicLong waitTime = new AtomicLong();
+
+    /**
+     * @param capacity The maximum number of printers in the pool.
+     * @param warm     The number of printers to create immediately.
+     */
+    public PrinterPool(CheckedSupplier<Printer, MetaborgException> printerSupplier, int capacity, int warm) throws MetaborgException {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("A printer pool needs a capacity of at least one.");
+        }
+
+        this.printerSupplier = printerSupplier;
+        this.capacity = capacity;
+        this.idle = new LinkedBlockingQueue<>(capacity);
+
+        for (int i = 0; i < Math.min(warm, capacity); i++) {
+            idle.add(printerSupplier.get());
+            created.incrementAndGet();
+        }
+    }
+
+    @Override
+    public String print(IStrategoTerm term) {
+        Printer printer = borrow();
+
+        try {
+            return printer.print(term);
+        } finally {
+            release(printer);
+        }
+    }
+
+    /**
+     * Borrow a printer from the pool. The caller has exclusive use of the printer until it is released.
+     */
+    public Printer borrow() {
+        borrows.incrementAndGet();
+
+        Printer printer = idle.poll();
+
+        if (printer != null) {
+            return printer;
+        }
+
+        printer = tryCreate();
+
+        if (printer != null) {
+            return printer;
+        }
+
+        long start = System.nanoTime();
+
+        try {
+            printer = idle.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+
+            throw new PrinterRuntimeException("Interrupted while waiting for a printer.", e);
+        } finally {
+            waits.incrementAndGet();
+            waitTime.addAndGet(System.nanoTime() - start);
+        }
+
+        return printer;
+    }
+
+    /**
+     * Return a borrowed printer to the pool.
+     */
+    public void release(Printer printer) {
+        idle.offer(printer);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return The number of printers that have been created so far.
+     */
+    public int getSize() {
+        return created.get();
+    }
+
+    public long getBorrows() {
+        return borrows.get();
+    }
+
+    /**
+     * @return The number of borrows that had to wait for a printer to be returned.
+     */
+    public long getWaits() {
+        return waits.get();
+    }
+
+    /**
+     * @return The total time in milliseconds that threads waited for a printer.
+     */
+    public long getWaitTime() {
+        return TimeUnit.NANOSECONDS.toMillis(waitTime.get());
+    }
+
+    private Printer tryCreate() {
+        int size;
+
+        do {
+            size = created.get();
+
+            if (size >= capacity) {
+                return null;
+            }
+        } while (!created.compareAndSet(size, size + 1));
+
+        try {
+            return printerSupplier.get();
+        } catch (MetaborgException e) {
+            created.decrementAndGet();
+
+            throw new PrinterRuntimeException("Failed to create a printer.", e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("printer pool: %d/%d printers, %d borrows, %d waits, %d ms waiting", getSize(), capacity,
+                getBorrows(), getWaits(), getWaitTime());
+    }
+}
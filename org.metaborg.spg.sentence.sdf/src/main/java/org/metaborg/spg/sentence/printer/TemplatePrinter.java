@@ -0,0 +1,474 @@
+package org.metaborg.spg.sentence.printer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.metaborg.sdf2table.grammar.*;
+import org.metaborg.spg.sentence.generator.CompiledGrammar;
+import org.metaborg.spg.sentence.generator.GeneratorAttachment;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.spoofax.interpreter.terms.IStrategoAppl;
+import org.spoofax.interpreter.terms.IStrategoList;
+import org.spoofax.interpreter.terms.IStrategoString;
+import org.spoofax.interpreter.terms.IStrategoTerm;
+
+import static org.metaborg.spg.sentence.generator.CompiledGrammar.*;
+
+/**
+ * Printer that renders terms directly from the productions of a compiled grammar.
+ *
+ * Every production with a constructor is turned into a template of literals and holes. A term is printed by filling
+ * in the template of its production, separating all tokens by a single space. Lists are printed with the separator of
+ * their symbol: the symbol of the hole they fill, or, for a list that is reached through an injection, the list symbol
+ * of its elements. Terms without a matching production, and lists whose separator cannot be determined, are printed by
+ * the fallback printer, which can also be used to validate every printed text up to whitespace.
+ *
+ * The Stratego printer parenthesizes a subterm if the priorities of the grammar require it, but the compiled grammar
+ * has no priorities. Terms are therefore only printed from the templates if no subterm may need brackets: a subterm
+ * may need brackets if its production is open, i.e. it starts or ends with a context-free child (e.g. Add in Mul), and
+ * its symbol or the symbol of its hole has a bracket production. Other terms are printed by the fallback printer.
+ *
+ * The templates are immutable and every thread prints into its own buffer, so this printer is thread-safe if the
+ * fallback printer is, e.g. a {@link PrinterPool}.
+ */
+public class TemplatePrinter implements IPrinter {
+    private static final Logger logger = LoggerFactory.getLogger(TemplatePrinter.class);
+    private static final String LAYOUT = "LAYOUT?-CF";
+
+    private final CompiledGrammar grammar;
+    private final IPrinter fallback;
+    private final boolean validate;
+    private final Map<String, int[]> productions;
+    private final Template[] templates;
+    private final String[] separators;
+    private final Map<ISymbol, Integer> listElements;
+    private final String[] elementSeparators;
+    private final boolean[] conflictingSeparators;
+    private final boolean[] bracketed;
+    private final boolean[] open;
+    private final ThreadLocal<StringBuilder> builders = ThreadLocal.withInitial(StringBuilder::new);
+    private final AtomicInteger fallbacks = new AtomicInteger();
+    private final AtomicInteger mismatches = new AtomicInteger();
+
+    public TemplatePrinter(CompiledGrammar grammar, IPrinter fallback) {
+        this(grammar, fallback, false);
+    }
+
+    /**
+     * @param validate If true, every text is compared to the text of the fallback printer. On a mismatch, the text of
+     *                 the fallback printer is used.
+     */
+    public TemplatePrinter(CompiledGrammar grammar, IPrinter fallback, boolean validate) {
+        this.grammar = grammar;
+        this.fallback = fallback;
+        this.validate = validate;
+        this.productions = createProductionIndex(grammar);
+        this.templates = createTemplates(grammar);
+        this.separators = createSeparators(grammar);
+        this.listElements = createListElements(grammar);
+        this.elementSeparators = new String[grammar.getSymbolCount()];
+        this.conflictingSeparators = new boolean[grammar.getSymbolCount()];
+        this.bracketed = createBracketed(grammar);
+        this.open = createOpen(grammar);
+
+        createElementSeparators();
+    }
+
+    @Override
+    public String print(IStrategoTerm term) {
+        StringBuilder builder = builders.get();
+        builder.setLength(0);
+
+        String text;
+
+        try {
+            printTerm(term, NONE, builder);
+            text = builder.toString();
+        } catch (PrinterRuntimeException e) {
+            logger.debug("Falling back to the Stratego printer", e);
+            fallbacks.incrementAndGet();
+
+            return fallback.print(term);
+        }
+
+        if (validate) {
+            String expected = fallback.print(term);
+
+            if (!stripWhitespace(expected).equals(stripWhitespace(text))) {
+                logger.warn("Template printer disagrees with the Stratego printer on {}", term);
+                mismatches.incrementAndGet();
+
+                return expected;
+            }
+        }
+
+        return text;
+    }
+
+    /**
+     * @return The number of terms that could not be printed from the templates.
+     */
+    public int getFallbacks() {
+        return fallbacks.get();
+    }
+
+    /**
+     * @return The number of texts that differed from the text of the fallback printer.
+     */
+    public int getMismatches() {
+        return mismatches.get();
+    }
+
+    private void printTerm(IStrategoTerm term, int context, StringBuilder builder) {
+        if (term instanceof IStrategoString) {
+            appendToken(builder, ((IStrategoString) term).stringValue());
+        } else if (term instanceof IStrategoList) {
+            printList((IStrategoList) term, context, builder);
+        } else if (term instanceof IStrategoAppl) {
+            printAppl((IStrategoAppl) term, context, builder);
+        } else {
+            throw new PrinterRuntimeException("Cannot print term: " + term);
+        }
+    }
+
+    private void printList(IStrategoList list, int context, StringBuilder builder) {
+        String separator = null;
+        int element;
+
+        if (context != NONE && isList(context)) {
+            separator = separators[context];
+            element = grammar.getElement(context);
+        } else {
+            Integer listElement = listElements.get(getSymbol(list));
+            element = listElement != null ? listElement : NONE;
+
+            // Without a list symbol in context, the separator follows from the list symbols of the elements
+            if (list.size() > 1) {
+                if (listElement == null || conflictingSeparators[listElement]) {
+                    throw new PrinterRuntimeException("Cannot determine the separator of list " + list);
+                }
+
+                separator = elementSeparators[listElement];
+            }
+        }
+
+        for (int i = 0; i < list.size(); i++) {
+            if (i > 0 && separator != null) {
+                appendToken(builder, separator);
+            }
+
+            printTerm(list.getSubterm(i), element, builder);
+        }
+    }
+
+    private void printAppl(IStrategoAppl appl, int context, StringBuilder builder) {
+        String name = appl.getConstructor().getName();
+        int arity = appl.getSubtermCount();
+
+        if ("amb".equals(name) && arity == 1) {
+            printTerm(appl.getSubterm(0).getSubterm(0), context, builder);
+
+            return;
+        }
+
+        if (isOptional(appl, context)) {
+            if (arity == 1) {
+                printTerm(appl.getSubterm(0), context != NONE ? grammar.getElement(context) : NONE, builder);
+            }
+
+            return;
+        }
+
+        int production = findProduction(appl, name, arity);
+
+        if (context != NONE && open[production] && (bracketed[context] || bracketed[grammar.getLhs(production)])) {
+            throw new PrinterRuntimeException("Subterm " + name + "/" + arity + " may need brackets");
+        }
+
+        Template template = templates[production];
+
+        for (int i = 0; i < template.children.length; i++) {
+            appendToken(builder, template.literals[i]);
+            printTerm(appl.getSubterm(i), template.children[i], builder);
+        }
+
+        appendToken(builder, template.literals[template.children.length]);
+    }
+
+    private boolean isList(int symbol) {
+        return grammar.getKind(symbol) == KIND_ITER || grammar.getKind(symbol) == KIND_ITER_STAR;
+    }
+
+    private boolean isOptional(IStrategoAppl appl, int context) {
+        String name = appl.getConstructor().getName();
+
+        if (!("Some".equals(name) && appl.getSubtermCount() == 1) && !("None".equals(name) && appl.getSubtermCount() == 0)) {
+            return false;
+        }
+
+        if (context != NONE) {
+            return grammar.getKind(context) == KIND_OPTIONAL;
+        }
+
+        return getSymbol(appl) instanceof OptionalSymbol;
+    }
+
+    private int findProduction(IStrategoAppl appl, String name, int arity) {
+        int[] candidates = productions.get(name + "/" + arity);
+
+        if (candidates == null) {
+            throw new PrinterRuntimeException("No production for constructor " + name + "/" + arity);
+        }
+
+        if (candidates.length == 1) {
+            return candidates[0];
+        }
+
+        ISymbol symbol = getSymbol(appl);
+
+        for (int production : candidates) {
+            if (grammar.getSymbol(grammar.getLhs(production)).equals(symbol)) {
+                return production;
+            }
+        }
+
+        throw new PrinterRuntimeException("Ambiguous constructor " + name + "/" + arity);
+    }
+
+    private ISymbol getSymbol(IStrategoTerm term) {
+        GeneratorAttachment attachment = term.getAttachment(GeneratorAttachment.TYPE);
+
+        return attachment != null ? attachment.getSymbol() : null;
+    }
+
+    private void appendToken(StringBuilder builder, String token) {
+        if (token.isEmpty()) {
+            return;
+        }
+
+        if (builder.length() != 0) {
+            builder.append(' ');
+        }
+
+        builder.append(token);
+    }
+
+    private static Map<String, int[]> createProductionIndex(CompiledGrammar grammar) {
+        Map<String, List<Integer>> index = new HashMap<>();
+
+        for (int production = 0; production < grammar.getProductionCount(); production++) {
+            String constructor = grammar.getConstructor(production);
+
+            if (constructor != null) {
+                String key = constructor + "/" + grammar.getRhs(production).length;
+
+                index.computeIfAbsent(key, k -> new ArrayList<>()).add(production);
+            }
+        }
+
+        Map<String, int[]> productions = new HashMap<>();
+
+        for (Map.Entry<String, List<Integer>> entry : index.entrySet()) {
+            productions.put(entry.getKey(), entry.getValue().stream().mapToInt(Integer::intValue).toArray());
+        }
+
+        return productions;
+    }
+
+    /**
+     * Create a template for every production. The cleaned right-hand side is a subsequence of the complete right-hand
+     * side, so every symbol of the complete right-hand side is either the next hole or part of a literal.
+     */
+    private static Template[] createTemplates(CompiledGrammar grammar) {
+        Template[] templates = new Template[grammar.getProductionCount()];
+
+        for (int production = 0; production < templates.length; production++) {
+            int[] symbols = grammar.getSymbols(production);
+            int[] rhs = grammar.getRhs(production);
+            String[] literals = new String[rhs.length + 1];
+            StringBuilder literal = new StringBuilder();
+            int child = 0;
+
+            for (int symbol : symbols) {
+                if (child < rhs.length && symbol == rhs[child]) {
+                    literals[child++] = literal.toString();
+                    literal.setLength(0);
+                } else {
+                    String text = getLiteral(grammar.getSymbol(symbol));
+
+                    if (!text.isEmpty()) {
+                        if (literal.length() != 0) {
+                            literal.append(' ');
+                        }
+
+                        literal.append(text);
+                    }
+                }
+            }
+
+            literals[child] = literal.toString();
+            templates[production] = new Template(literals, rhs);
+        }
+
+        return templates;
+    }
+
+    private static String[] createSeparators(CompiledGrammar grammar) {
+        String[] separators = new String[grammar.getSymbolCount()];
+
+        for (int symbol = 0; symbol < separators.length; symbol++) {
+            Symbol innerSymbol = unwrap(grammar.getSymbol(symbol));
+
+            if (innerSymbol instanceof IterSepSymbol) {
+                separators[symbol] = getLiteral(((IterSepSymbol) innerSymbol).getSep());
+            } else if (innerSymbol instanceof IterStarSepSymbol) {
+                separators[symbol] = getLiteral(((IterStarSepSymbol) innerSymbol).getSep());
+            }
+        }
+
+        return separators;
+    }
+
+    /**
+     * @return For the symbols that the generator attaches to lists, the element symbol of the list.
+     */
+    private static Map<ISymbol, Integer> createListElements(CompiledGrammar grammar) {
+        Map<ISymbol, Integer> listElements = new HashMap<>();
+
+        for (int symbol = 0; symbol < grammar.getSymbolCount(); symbol++) {
+            if (grammar.getIterSymbol(symbol) != null) {
+                listElements.put(grammar.getIterSymbol(symbol), symbol);
+            }
+
+            if (grammar.getIterStarSymbol(symbol) != null) {
+                listElements.put(grammar.getIterStarSymbol(symbol), symbol);
+            }
+        }
+
+        return listElements;
+    }
+
+    /**
+     * @return For every symbol, whether the symbol has a bracket production.
+     */
+    private static boolean[] createBracketed(CompiledGrammar grammar) {
+        boolean[] bracketed = new boolean[grammar.getSymbolCount()];
+
+        for (int production = 0; production < grammar.getProductionCount(); production++) {
+            if (grammar.isBracket(production)) {
+                bracketed[grammar.getLhs(production)] = true;
+            }
+        }
+
+        return bracketed;
+    }
+
+    /**
+     * @return For every production, whether its first or last symbol, ignoring layout, is a context-free child. Only
+     * such a production can conflict with the production of its parent.
+     */
+    private static boolean[] createOpen(CompiledGrammar grammar) {
+        boolean[] open = new boolean[grammar.getProductionCount()];
+
+        for (int production = 0; production < open.length; production++) {
+            int[] symbols = Arrays.stream(grammar.getSymbols(production))
+                    .filter(symbol -> !LAYOUT.equals(grammar.getSymbol(symbol).name()))
+                    .toArray();
+
+            open[production] = symbols.length != 0
+                    && (isContextFree(grammar, symbols[0]) || isContextFree(grammar, symbols[symbols.length - 1]));
+        }
+
+        return open;
+    }
+
+    private static boolean isContextFree(CompiledGrammar grammar, int symbol) {
+        switch (grammar.getKind(symbol)) {
+            case KIND_CONTEXT_FREE:
+            case KIND_CONTEXT_FREE_UNKNOWN:
+            case KIND_ITER:
+            case KIND_ITER_STAR:
+            case KIND_OPTIONAL:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * For every element symbol, find the separator of the list symbols of the element. The separator of an element is
+     * conflicting if its list symbols have different separators, e.g. {Exp ","}* and {Exp ";"}*.
+     */
+    private void createElementSeparators() {
+        boolean[] seen = new boolean[grammar.getSymbolCount()];
+
+        for (int symbol = 0; symbol < grammar.getSymbolCount(); symbol++) {
+            if (!isList(symbol)) {
+                continue;
+            }
+
+            int element = grammar.getElement(symbol);
+
+            if (!seen[element]) {
+                seen[element] = true;
+                elementSeparators[element] = separators[symbol];
+            } else if (!Objects.equals(elementSeparators[element], separators[symbol])) {
+                conflictingSeparators[element] = true;
+            }
+        }
+    }
+
+    private static String getLiteral(ISymbol symbol) {
+        if (symbol == null || LAYOUT.equals(symbol.name())) {
+            return "";
+        }
+
+        Symbol innerSymbol = unwrap(symbol);
+
+        if (innerSymbol instanceof Literal || innerSymbol instanceof CiLiteral) {
+            return unquote(innerSymbol.name());
+        }
+
+        return "";
+    }
+
+    private static Symbol unwrap(ISymbol symbol) {
+        if (symbol instanceof ContextFreeSymbol) {
+            return ((ContextFreeSymbol) symbol).getSymbol();
+        } else if (symbol instanceof LexicalSymbol) {
+            return ((LexicalSymbol) symbol).getSymbol();
+        } else if (symbol instanceof Symbol) {
+            return (Symbol) symbol;
+        }
+
+        return null;
+    }
+
+    private static String unquote(String name) {
+        if (name.length() >= 2 && (name.startsWith("\"") || name.startsWith("'")) && name.charAt(0) == name.charAt(name.length() - 1)) {
+            name = name.substring(1, name.length() - 1);
+        }
+
+        return name.replace("\\\"", "\"").replace("\\'", "'").replace("\\\\", "\\");
+    }
+
+    private static String stripWhitespace(String text) {
+        return text.replaceAll("\\s+", "");
+    }
+
+    private static class Template {
+        private final String[] literals;
+        private final int[] children;
+
+        private Template(String[] literals, int[] children) {
+            this.literals = literals;
+            this.children = children;
+        }
+    }
+}
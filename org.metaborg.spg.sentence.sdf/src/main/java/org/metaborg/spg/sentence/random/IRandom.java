@@ -9,5 +9,12 @@ public interface IRandom {
 
     boolean flip();
 
+    double uniform();
+
+    /**
+     * @return A new random number generator with an independent stream, for use by another thread.
+     */
+    IRandom split();
+
     <T> List<T> shuffle(List<T> list);
 }
@@ -29,6 +29,16 @@ public class Random implements IRandom {
         return random.nextInt(2) == 0;
     }
 
+    @Override
+    public double uniform() {
+        return random.nextDouble();
+    }
+
+    @Override
+    public IRandom split() {
+        return new Random(random.nextLong());
+    }
+
     @Override
     public <T> List<T> shuffle(List<T> list) {
         Collections.shuffle(list, random);
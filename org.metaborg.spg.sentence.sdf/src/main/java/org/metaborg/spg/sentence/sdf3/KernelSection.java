@@ -1,11 +0,0 @@
-package org.metaborg.spg.sentence.sdf3;
-
-import java.util.Collection;
-import java.util.Collections;
-
-public class KernelSection extends Section {
-    @Override
-    public Collection<Production> getProductions() {
-        return Collections.emptyList();
-    }
-}
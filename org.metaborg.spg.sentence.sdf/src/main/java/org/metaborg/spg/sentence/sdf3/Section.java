@@ -1,7 +0,0 @@
-package org.metaborg.spg.sentence.sdf3;
-
-import java.util.Collection;
-
-public abstract class Section {
-    public abstract Collection<Production> getProductions();
-}
@@ -1,11 +0,0 @@
-package org.metaborg.spg.sentence.sdf3.symbol;
-
-public class Alternative {
-    private final Symbol s1;
-    private final Symbol s2;
-
-    public Alternative(Symbol s1, Symbol s2) {
-        this.s1 = s1;
-        this.s2 = s2;
-    }
-}
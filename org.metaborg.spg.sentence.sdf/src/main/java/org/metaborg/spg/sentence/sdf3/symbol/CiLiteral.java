@@ -1,9 +0,0 @@
-package org.metaborg.spg.sentence.sdf3.symbol;
-
-public class CiLiteral {
-    private final String text;
-
-    public CiLiteral(String text) {
-        this.text = text;
-    }
-}
@@ -1,4 +0,0 @@
-package org.metaborg.spg.sentence.sdf3.symbol;
-
-public class Layout extends Symbol {
-}
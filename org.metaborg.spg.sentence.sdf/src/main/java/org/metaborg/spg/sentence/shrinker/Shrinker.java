@@ -6,12 +6,17 @@ import static java.util.stream.Stream.of;
 import static org.metaborg.spg.sentence.shared.stream.FlatMappingSpliterator.flatMap;
 import static org.metaborg.spg.sentence.shared.utils.StreamUtils.cons;
 import static org.metaborg.spg.sentence.shared.utils.StreamUtils.o2s;
-import static org.metaborg.spg.sentence.shared.utils.StreamUtils.zipWith;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
@@ -26,6 +31,8 @@ import org.metaborg.sdf2table.grammar.OptionalSymbol;
 import org.metaborg.spg.sentence.generator.Generator;
 import org.metaborg.spg.sentence.generator.GeneratorAttachment;
 import org.metaborg.spg.sentence.random.IRandom;
+import org.metaborg.spg.sentence.shared.shrink.CandidateScheduler;
+import org.metaborg.spg.sentence.shared.shrink.DeltaDebugging;
 import org.metaborg.spg.sentence.signature.Signature;
 import org.metaborg.spg.sentence.signature.Sort;
 import org.metaborg.spg.sentence.terms.GeneratorTermFactory;
@@ -43,6 +50,7 @@ public class Shrinker {
     private final GeneratorTermFactory termFactory;
     private final Generator generator;
     private final Signature signature;
+    private final Map<ISymbol, Integer> sortIds = new ConcurrentHashMap<>();
 
     public Shrinker(IRandom random, GeneratorTermFactory termFactory, Generator generator, Signature signature) {
         this.random = random;
@@ -52,48 +60,195 @@ public class Shrinker {
     }
 
     public Stream<IStrategoTerm> shrink(IStrategoTerm term) {
-        List<IStrategoTerm> subTerms = subTerms(term).collect(Collectors.toList());
+        return shrink(term, new ShrinkerConfig());
+    }
+
+    public Stream<IStrategoTerm> shrink(IStrategoTerm term, ShrinkerConfig config) {
+        List<TermPath> paths = new ArrayList<>();
+        Map<IStrategoTerm, Integer> sizes = new IdentityHashMap<>();
+        index(new TermPath(term, null, -1), paths, sizes);
+
+        List<TermPath> subTerms = random.shuffle(paths);
+
+        if (config.isSizeOrdering()) {
+            subTerms = CandidateScheduler.schedule(subTerms, TermPath::getSize);
+        }
 
-        return random.shuffle(subTerms).stream().flatMap(subTerm ->
-                shrink(term, subTerm)
+        Stream<IStrategoTerm> shrunkTerms = subTerms.stream().flatMap(path ->
+                shrink(path, config)
         );
+
+        if (config.isHierarchical()) {
+            return concat(shrinkHierarchical(term, sizes), shrunkTerms);
+        }
+
+        return shrunkTerms;
+    }
+
+    /**
+     * Collect the paths of all subterms in pre-order, and compute the size of every subterm once.
+     */
+    private int index(TermPath path, List<TermPath> paths, Map<IStrategoTerm, Integer> sizes) {
+        IStrategoTerm term = path.getTerm();
+        int size = 1;
+
+        paths.add(path);
+
+        if (!(term instanceof IStrategoString)) {
+            for (int i = 0; i < term.getSubtermCount(); i++) {
+                size += index(new TermPath(term.getSubterm(i), path, i), paths, sizes);
+            }
+        }
+
+        path.setSize(size);
+        sizes.put(term, size);
+
+        return size;
+    }
+
+    /**
+     * Hierarchical delta debugging: for every level of the term, from the root down, simplify chunks of halving size
+     * of the nodes on that level at once. A list element is simplified by removing it, and any other node by replacing
+     * it with a minimal term of its symbol.
+     */
+    private Stream<IStrategoTerm> shrinkHierarchical(IStrategoTerm term, Map<IStrategoTerm, Integer> sizes) {
+        List<List<IStrategoTerm>> levels = DeltaDebugging.levels(term, t -> Arrays.asList(t.getAllSubterms()));
+
+        return flatMap(levels.stream(), level -> {
+            Set<IStrategoTerm> elements = identitySet();
+            Map<IStrategoTerm, IStrategoTerm> replacements = new IdentityHashMap<>();
+
+            for (IStrategoTerm node : level) {
+                if (node instanceof IStrategoList) {
+                    Arrays.stream(node.getAllSubterms()).forEach(elements::add);
+                }
+            }
+
+            List<IStrategoTerm> nodes = level.stream().filter(node -> {
+                if (elements.contains(node)) {
+                    return true;
+                }
+
+                Optional<IStrategoTerm> minimalOpt = minimal(node, sizes.get(node));
+                minimalOpt.ifPresent(minimal -> replacements.put(node, minimal));
+
+                return minimalOpt.isPresent();
+            }).collect(Collectors.toList());
+
+            return DeltaDebugging.chunks(nodes)
+                    .map(chunk -> simplify(term, identitySet(chunk), elements, replacements))
+                    .filter(simplified -> simplified != term);
+        });
+    }
+
+    private Optional<IStrategoTerm> minimal(IStrategoTerm term, int size) {
+        if (term instanceof IStrategoString) {
+            return Optional.empty();
+        }
+
+        return generator
+                .generateWitness(getSymbol(term))
+                .filter(minimal -> size(minimal) < size);
+    }
+
+    /**
+     * Simplify the given nodes of the term at once. Removed elements are kept if a list would otherwise become empty
+     * while its symbol does not allow that.
+     */
+    private IStrategoTerm simplify(IStrategoTerm term, Set<IStrategoTerm> simplified, Set<IStrategoTerm> elements,
+            Map<IStrategoTerm, IStrategoTerm> replacements) {
+        if (simplified.contains(term) && replacements.containsKey(term)) {
+            return replacements.get(term);
+        }
+
+        if (term instanceof IStrategoString) {
+            return term;
+        }
+
+        List<IStrategoTerm> children = new ArrayList<>();
+
+        for (IStrategoTerm child : term.getAllSubterms()) {
+            if (term instanceof IStrategoList && simplified.contains(child) && elements.contains(child)) {
+                continue;
+            }
+
+            children.add(simplify(child, simplified, elements, replacements));
+        }
+
+        if (term instanceof IStrategoList && children.isEmpty() && term.getSubtermCount() > 0 && !isEmptyAllowed((IStrategoList) term)) {
+            children.add(term.getSubterm(0));
+        }
+
+        return rebuild(term, children.toArray(new IStrategoTerm[0]));
     }
 
-    private Stream<IStrategoTerm> shrink(IStrategoTerm haystack, IStrategoTerm needle) {
+    private Set<IStrategoTerm> identitySet() {
+        return Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+
+    private Set<IStrategoTerm> identitySet(Collection<IStrategoTerm> terms) {
+        Set<IStrategoTerm> set = identitySet();
+        set.addAll(terms);
+
+        return set;
+    }
+
+    private Stream<IStrategoTerm> shrink(TermPath path, ShrinkerConfig config) {
+        IStrategoTerm needle = path.getTerm();
+
         logger.trace("Shrink term: " + needle);
 
         if (needle instanceof IStrategoList) {
-            return shrinkList(haystack, (IStrategoList) needle);
+            return shrinkList(path, (IStrategoList) needle, config);
         } else if (needle instanceof IStrategoAppl) {
-            return concat(shrinkGenerate(haystack, needle), shrinkRecursive(haystack, (IStrategoAppl) needle));
+            return concat(shrinkGenerate(path), shrinkRecursive(path, (IStrategoAppl) needle));
         } else {
-            return shrinkGenerate(haystack, needle);
+            return shrinkGenerate(path);
         }
     }
 
-    private Stream<IStrategoTerm> shrinkGenerate(IStrategoTerm haystack, IStrategoTerm needle) {
+    private Stream<IStrategoTerm> shrinkGenerate(TermPath path) {
+        IStrategoTerm needle = path.getTerm();
+
         logger.trace("Shrink generate: " + needle);
 
         ISymbol symbol = getSymbol(needle);
 
-        Optional<IStrategoTerm> generatedTermOpt = generator
-                .generateSymbol(symbol, size(needle) - 1);
+        // The smallest term of the symbol makes the most progress, so try it before a random smaller term
+        Optional<IStrategoTerm> witnessOpt = generator
+                .generateWitness(symbol)
+                .filter(witness -> isSmaller(witness, needle, path.getSize()));
 
-        Optional<IStrategoTerm> replacedTermOpt = generatedTermOpt
-                .map(term -> replaceTerm(haystack, needle, term));
+        Stream<IStrategoTerm> generatedTerms = of(symbol).flatMap(s -> o2s(generator
+                .generateSymbol(s, path.getSize() - 1)));
 
-        return o2s(replacedTermOpt);
+        return concat(o2s(witnessOpt), generatedTerms).map(term -> replaceAt(path, term));
     }
 
-    private Stream<IStrategoTerm> shrinkList(IStrategoTerm haystack, IStrategoList list) {
+    /**
+     * @return True if the replacement has fewer nodes than the needle, or is a shorter string.
+     */
+    private boolean isSmaller(IStrategoTerm replacement, IStrategoTerm needle, int needleSize) {
+        if (replacement instanceof IStrategoString && needle instanceof IStrategoString) {
+            return ((IStrategoString) replacement).stringValue().length() < ((IStrategoString) needle).stringValue().length();
+        }
+
+        return size(replacement) < needleSize;
+    }
+
+    private Stream<IStrategoTerm> shrinkList(TermPath path, IStrategoList list, ShrinkerConfig config) {
         logger.trace("Shrink list: " + list);
 
         if (!isEmptyAllowed(list) && list.size() < 2) {
             return empty();
         }
 
-        return combinations(list).map(shrunkList ->
-                replaceTerm(haystack, list, shrunkList)
+        Stream<IStrategoTerm> shrunkLists = config.isDeltaDebugging()
+                ? concat(chunkCombinations(list), combinations(list))
+                : combinations(list);
+
+        return shrunkLists.map(shrunkList ->
+                replaceAt(path, shrunkList)
         );
     }
 
@@ -115,6 +270,26 @@ public class Shrinker {
         );
     }
 
+    /**
+     * Remove chunks of halving size, as in delta debugging: first each half, then each quarter, and so on, until the
+     * chunks would contain a single element. A chunk is never the whole list, so the result is never empty.
+     */
+    private Stream<IStrategoTerm> chunkCombinations(IStrategoList list) {
+        return DeltaDebugging.chunks(list.size(), 2).map(range ->
+                without(list, range[0], range[1])
+        );
+    }
+
+    private IStrategoTerm without(IStrategoList list, int from, int to) {
+        IStrategoTerm[] oldChildren = list.getAllSubterms();
+        IStrategoTerm[] newChildren = new IStrategoTerm[oldChildren.length - (to - from)];
+
+        System.arraycopy(oldChildren, 0, newChildren, 0, from);
+        System.arraycopy(oldChildren, to, newChildren, from, oldChildren.length - to);
+
+        return termFactory.replaceList(newChildren, list);
+    }
+
     private IStrategoTerm without(IStrategoList list, int exclude) {
         IStrategoTerm[] oldChildren = list.getAllSubterms();
         IStrategoTerm[] newChildren = ArrayUtils.remove(oldChildren, exclude);
@@ -122,20 +297,23 @@ public class Shrinker {
         return termFactory.replaceList(newChildren, list);
     }
 
-    private Stream<IStrategoTerm> shrinkRecursive(IStrategoTerm haystack, IStrategoAppl appl) {
+    private Stream<IStrategoTerm> shrinkRecursive(TermPath path, IStrategoAppl appl) {
         logger.trace("Shrink recursive: " + appl);
 
-        org.metaborg.spg.sentence.signature.Sort sort = getSort(appl);
-        Set<org.metaborg.spg.sentence.signature.Sort> injections = signature.getInjections(sort);
+        int sort = getSortId(appl);
         Stream<IStrategoTerm> descendants = descendants(appl);
 
-        return zipWith(descendants, this::getSort)
-                .filter(pair -> injections.contains(pair.getValue()))
-                .map(pair -> replaceTerm(haystack, appl, pair.getKey()));
+        return descendants
+                .filter(descendant -> signature.isInjection(sort, getSortId(descendant)))
+                .map(descendant -> replaceAt(path, descendant));
     }
 
-    private Sort getSort(IStrategoTerm term) {
-        return getSort(getSymbol(term));
+    /**
+     * @return The id of the sort of the term in the signature, or -1 if the signature does not have the sort. The id
+     * is cached per symbol.
+     */
+    private int getSortId(IStrategoTerm term) {
+        return sortIds.computeIfAbsent(getSymbol(term), symbol -> signature.getSortId(getSort(symbol)));
     }
 
     private Sort getSort(ISymbol symbol) {
@@ -172,15 +350,28 @@ public class Shrinker {
         return generatorAttachment.getSymbol();
     }
 
-    private IStrategoTerm replaceTerm(IStrategoTerm haystack, IStrategoTerm needle, IStrategoTerm replacement) {
-        if (haystack == needle) {
+    /**
+     * Replace the subterm at the path, rebuilding only the terms on the path from the root to the subterm.
+     */
+    private IStrategoTerm replaceAt(TermPath path, IStrategoTerm replacement) {
+        TermPath parentPath = path.getParent();
+
+        if (parentPath == null) {
             return replacement;
         }
 
-        IStrategoTerm[] children = Arrays
-                .stream(haystack.getAllSubterms())
-                .map(visitee -> replaceTerm(visitee, needle, replacement))
-                .toArray(IStrategoTerm[]::new);
+        IStrategoTerm parent = parentPath.getTerm();
+        IStrategoTerm[] children = parent.getAllSubterms().clone();
+        children[path.getIndex()] = replacement;
+
+        return replaceAt(parentPath, rebuild(parent, children));
+    }
+
+    private IStrategoTerm rebuild(IStrategoTerm haystack, IStrategoTerm[] children) {
+        // Share unchanged subterms with the haystack, so that their printed text can be reused
+        if (isSameChildren(children, haystack)) {
+            return haystack;
+        }
 
         if (haystack instanceof IStrategoAppl) {
             IStrategoAppl appl = (IStrategoAppl) haystack;
@@ -197,6 +388,20 @@ public class Shrinker {
         throw new IllegalArgumentException("Unable to replace in haystack: " + haystack);
     }
 
+    private boolean isSameChildren(IStrategoTerm[] children, IStrategoTerm term) {
+        if (children.length != term.getSubtermCount()) {
+            return false;
+        }
+
+        for (int i = 0; i < children.length; i++) {
+            if (children[i] != term.getSubterm(i)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
     private int size(IStrategoTerm term) {
         if (term instanceof IStrategoString) {
             return 1;
@@ -0,0 +1,108 @@
+package org.metaborg.spg.sentence.shrinker;
+
+public class ShrinkerConfig {
+    private final boolean deltaDebugging;
+    private final boolean hierarchical;
+    private final boolean sizeOrdering;
+    private final boolean localized;
+    private final boolean textShrinking;
+
+    public ShrinkerConfig() {
+        this(false);
+    }
+
+    public ShrinkerConfig(boolean deltaDebugging) {
+        this(deltaDebugging, false);
+    }
+
+    public ShrinkerConfig(boolean deltaDebugging, boolean hierarchical) {
+        this(deltaDebugging, hierarchical, false);
+    }
+
+    public ShrinkerConfig(boolean deltaDebugging, boolean hierarchical, boolean sizeOrdering) {
+        this(deltaDebugging, hierarchical, sizeOrdering, false);
+    }
+
+    public ShrinkerConfig(boolean deltaDebugging, boolean hierarchical, boolean sizeOrdering, boolean localized) {
+        this(deltaDebugging, hierarchical, sizeOrdering, localized, false);
+    }
+
+    public ShrinkerConfig(boolean deltaDebugging, boolean hierarchical, boolean sizeOrdering, boolean localized,
+            boolean textShrinking) {
+        this.deltaDebugging = deltaDebugging;
+        this.hierarchical = hierarchical;
+        this.sizeOrdering = sizeOrdering;
+        this.localized = localized;
+        this.textShrinking = textShrinking;
+    }
+
+    /**
+     * @return A copy of this configuration with delta-debugging list reduction enabled or disabled.
+     */
+    public ShrinkerConfig withDeltaDebugging(boolean deltaDebugging) {
+        return new ShrinkerConfig(deltaDebugging, hierarchical, sizeOrdering, localized, textShrinking);
+    }
+
+    /**
+     * @return A copy of this configuration with hierarchical delta debugging enabled or disabled.
+     */
+    public ShrinkerConfig withHierarchical(boolean hierarchical) {
+        return new ShrinkerConfig(deltaDebugging, hierarchical, sizeOrdering, localized, textShrinking);
+    }
+
+    /**
+     * @return A copy of this configuration with size-ordered shrinking enabled or disabled.
+     */
+    public ShrinkerConfig withSizeOrdering(boolean sizeOrdering) {
+        return new ShrinkerConfig(deltaDebugging, hierarchical, sizeOrdering, localized, textShrinking);
+    }
+
+    /**
+     * @return A copy of this configuration with shrinking to the location of the ambiguity enabled or disabled.
+     */
+    public ShrinkerConfig withLocalized(boolean localized) {
+        return new ShrinkerConfig(deltaDebugging, hierarchical, sizeOrdering, localized, textShrinking);
+    }
+
+    /**
+     * @return A copy of this configuration with the token-level text shrinking pass enabled or disabled.
+     */
+    public ShrinkerConfig withTextShrinking(boolean textShrinking) {
+        return new ShrinkerConfig(deltaDebugging, hierarchical, sizeOrdering, localized, textShrinking);
+    }
+
+    /**
+     * @return True if lists are shrunk by removing chunks of halving size before removing single elements.
+     */
+    public boolean isDeltaDebugging() {
+        return deltaDebugging;
+    }
+
+    /**
+     * @return True if the term is first reduced level by level from the root down, before single subterms are shrunk.
+     */
+    public boolean isHierarchical() {
+        return hierarchical;
+    }
+
+    /**
+     * @return True if subterms are shrunk in order of decreasing size instead of in random order.
+     */
+    public boolean isSizeOrdering() {
+        return sizeOrdering;
+    }
+
+    /**
+     * @return True if shrinking first tries the smallest subterm that covers the ambiguity, in a minimal context.
+     */
+    public boolean isLocalized() {
+        return localized;
+    }
+
+    /**
+     * @return True if the text of the shrunk term is shrunk further at the level of tokens.
+     */
+    public boolean isTextShrinking() {
+        return textShrinking;
+    }
+}
@@ -0,0 +1,46 @@
+package org.metaborg.spg.sentence.shrinker;
+
+import org.spoofax.interpreter.terms.IStrategoTerm;
+
+/**
+ * The position of a subterm in a term, as the path of child indices from the root. A path also records the size of
+ * its subterm, so that sizes are computed once per term instead of once per shrink candidate.
+ */
+class TermPath {
+    private final IStrategoTerm term;
+    private final TermPath parent;
+    private final int index;
+    private int size;
+
+    TermPath(IStrategoTerm term, TermPath parent, int index) {
+        this.term = term;
+        this.parent = parent;
+        this.index = index;
+    }
+
+    IStrategoTerm getTerm() {
+        return term;
+    }
+
+    /**
+     * @return The path of the parent, or null if this is the path of the root.
+     */
+    TermPath getParent() {
+        return parent;
+    }
+
+    /**
+     * @return The index of the subterm in its parent.
+     */
+    int getIndex() {
+        return index;
+    }
+
+    int getSize() {
+        return size;
+    }
+
+    void setSize(int size) {
+        this.size = size;
+    }
+}
@@ -1,17 +1,21 @@
 package org.metaborg.spg.sentence.signature;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.function.Function;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-import org.metaborg.spg.sentence.shared.utils.StreamUtils;
-import org.metaborg.util.collection.MultiSetMap;
 import org.metaborg.util.iterators.Iterables2;
 import org.metaborg.util.tuple.Tuple2;
 import org.slf4j.Logger;
@@ -24,19 +28,30 @@ import org.spoofax.interpreter.terms.IStrategoTerm;
 import static java.util.Optional.empty;
 import static java.util.Optional.of;
 
+/**
+ * The signature of a language, compiled for constant-time lookups.
+ *
+ * Every sort in the signature is interned and gets an int id, constructors are indexed by name and arity, and the
+ * transitive injection closure of every sort is computed once and stored as a bitset. The closure is computed on the
+ * condensation of the injection graph (its strongly connected components, found with Tarjan's algorithm), so that
+ * cyclic and diamond-shaped injections are visited once.
+ */
 public class Signature {
     private static final Logger logger = LoggerFactory.getLogger(Signature.class);
 
     private final Collection<Operation> operations;
-    private final MultiSetMap.Immutable<String, Constructor> constructorCache;
-    private final Map<Sort, Set<Sort>> injectionCache;
+    private final Map<Sort, Integer> sortIds = new HashMap<>();
+    private final List<Sort> sorts = new ArrayList<>();
+    private final Map<String, Constructor[]> constructors = new HashMap<>();
+    private final BitSet[] injections;
 
     public Signature(Collection<Operation> operations) {
         this.operations = operations;
-        final MultiSetMap.Transient<String, Constructor> constructorCache = MultiSetMap.Transient.of();
-        getConstructors().forEach(constructor -> constructorCache.put(constructor.getName(), constructor));
-        this.constructorCache = constructorCache.freeze();
-        this.injectionCache = getSorts().collect(Collectors.toMap(Function.identity(), this::injectionsTransitive));
+
+        operations.forEach(operation -> operation.getSorts().forEach(this::intern));
+        getConstructors().forEach(this::index);
+
+        this.injections = computeInjections();
     }
 
     public Collection<Operation> getOperations() {
@@ -44,7 +59,23 @@ public class Signature {
     }
 
     public Stream<Sort> getSorts() {
-        return operations.stream().flatMap(o -> o.getSorts().stream());
+        return sorts.stream();
+    }
+
+    /**
+     * @return The id of the sort, or -1 if the sort does not occur in this signature.
+     */
+    public int getSortId(Sort sort) {
+        Integer id = sortIds.get(sort);
+
+        return id != null ? id : -1;
+    }
+
+    /**
+     * @return The interned sort with the given id.
+     */
+    public Sort getSort(int id) {
+        return sorts.get(id);
     }
 
     public Sort getSort(IStrategoTerm haystack, IStrategoTerm needle) {
@@ -116,19 +147,26 @@ public class Signature {
             .collect(Collectors.toSet());
     }
 
-    private Collection<Constructor> getConstructors(String name) {
-        return constructorCache.get(name).toCollection();
+    /**
+     * @return The constructor with the given name and arity, or null if the signature has no such constructor.
+     */
+    public Constructor getConstructor(String name, int arity) {
+        Constructor[] byArity = constructors.get(name);
+
+        if (byArity == null || arity >= byArity.length) {
+            return null;
+        }
+
+        return byArity[arity];
     }
 
     private Constructor getConstructor(IStrategoTerm term) {
         if (term instanceof IStrategoAppl) {
             IStrategoAppl appl = (IStrategoAppl) term;
+            Constructor constructor = getConstructor(appl.getConstructor().getName(), appl.getConstructor().getArity());
 
-            // TODO: Cache constructors by name *and* arity so this becomes O(1)? In that case, getSymbol also becomes easier?
-            for (Constructor constructor : getConstructors(appl.getConstructor().getName())) {
-                if (constructor.getArity() == appl.getConstructor().getArity()) {
-                    return constructor;
-                }
+            if (constructor != null) {
+                return constructor;
             }
         }
 
@@ -139,8 +177,31 @@ public class Signature {
         return operations.stream().filter(o -> o instanceof Injection).map(o -> (Injection) o);
     }
 
+    /**
+     * @return The sorts that can be injected into the sort, transitively, including the sort itself.
+     */
     public Set<Sort> getInjections(Sort sort) {
-        return injectionCache.get(sort);
+        int id = getSortId(sort);
+
+        if (id == -1) {
+            return Collections.emptySet();
+        }
+
+        return injections[id].stream().mapToObj(sorts::get).collect(Collectors.toSet());
+    }
+
+    /**
+     * @return True if the subsort can be injected into the sort, transitively. Every sort is an injection of itself.
+     */
+    public boolean isInjection(Sort sort, Sort subsort) {
+        return isInjection(getSortId(sort), getSortId(subsort));
+    }
+
+    /**
+     * @return True if the sort with id subsort can be injected into the sort with id sort. Ids of -1 never match.
+     */
+    public boolean isInjection(int sort, int subsort) {
+        return sort != -1 && subsort != -1 && injections[sort].get(subsort);
     }
 
     protected Stream<Sort> injections(Sort sort) {
@@ -149,16 +210,147 @@ public class Signature {
                 .map(Injection::getArgument);
     }
 
-    private Set<Sort> injectionsTransitive(Sort sort) {
-        return injectionsTransitiveStream(sort).collect(Collectors.toSet());
+    private Sort intern(Sort sort) {
+        Integer id = sortIds.get(sort);
+
+        if (id != null) {
+            return sorts.get(id);
+        }
+
+        if (sort.getParameter() != null) {
+            intern(sort.getParameter());
+        }
+
+        sortIds.put(sort, sorts.size());
+        sorts.add(sort);
+
+        return sort;
     }
 
-    private Stream<Sort> injectionsTransitiveStream(Sort sort) {
-        logger.trace("Compute transitive injections for sort {}", sort);
+    private void index(Constructor constructor) {
+        Constructor[] byArity = constructors.get(constructor.getName());
+
+        if (byArity == null || constructor.getArity() >= byArity.length) {
+            byArity = byArity == null
+                    ? new Constructor[constructor.getArity() + 1]
+                    : Arrays.copyOf(byArity, constructor.getArity() + 1);
 
-        Stream<Sort> sorts =
-            injections(sort).flatMap(this::injectionsTransitiveStream);
+            constructors.put(constructor.getName(), byArity);
+        }
 
-        return StreamUtils.cons(sort, sorts);
+        // As before, the first constructor with a given name and arity wins
+        if (byArity[constructor.getArity()] == null) {
+            byArity[constructor.getArity()] = constructor;
+        }
+    }
+
+    /**
+     * Compute the transitive injections of all sorts. Tarjan's algorithm emits the strongly connected components of
+     * the injection graph in reverse topological order, so the closures of all successors of a component are known
+     * by the time the component is emitted. All sorts in a component share the closure of the component.
+     */
+    private BitSet[] computeInjections() {
+        int[][] successors = getInjectionGraph();
+        BitSet[] closures = new BitSet[sorts.size()];
+        Tarjan tarjan = new Tarjan(successors);
+
+        for (int sort = 0; sort < sorts.size(); sort++) {
+            if (tarjan.index[sort] == -1) {
+                tarjan.visit(sort, component -> {
+                    BitSet closure = new BitSet(sorts.size());
+
+                    for (int member : component) {
+                        closure.set(member);
+                    }
+
+                    for (int member : component) {
+                        for (int successor : successors[member]) {
+                            if (closures[successor] != null) {
+                                closure.or(closures[successor]);
+                            }
+                        }
+                    }
+
+                    for (int member : component) {
+                        closures[member] = closure;
+                    }
+                });
+            }
+        }
+
+        logger.trace("Computed transitive injections for {} sorts", sorts.size());
+
+        return closures;
+    }
+
+    /**
+     * @return For every sort, the ids of the sorts that can be injected into it directly.
+     */
+    private int[][] getInjectionGraph() {
+        List<List<Integer>> successors = new ArrayList<>(sorts.size());
+
+        for (int i = 0; i < sorts.size(); i++) {
+            successors.add(new ArrayList<>());
+        }
+
+        getInjections().forEach(injection ->
+                successors.get(sortIds.get(injection.getResult())).add(sortIds.get(injection.getArgument()))
+        );
+
+        return successors.stream()
+                .map(list -> list.stream().mapToInt(Integer::intValue).toArray())
+                .toArray(int[][]::new);
+    }
+
+    /**
+     * Tarjan's strongly connected components algorithm. Components are emitted in reverse topological order.
+     */
+    private static class Tarjan {
+        private final int[][] successors;
+        private final int[] index;
+        private final int[] lowlink;
+        private final boolean[] onStack;
+        private final Deque<Integer> stack = new ArrayDeque<>();
+        private int counter = 0;
+
+        private Tarjan(int[][] successors) {
+            this.successors = successors;
+            this.index = new int[successors.length];
+            this.lowlink = new int[successors.length];
+            this.onStack = new boolean[successors.length];
+
+            Arrays.fill(index, -1);
+        }
+
+        private void visit(int node, Consumer<List<Integer>> emit) {
+            index[node] = counter;
+            lowlink[node] = counter;
+            counter++;
+
+            stack.push(node);
+            onStack[node] = true;
+
+            for (int successor : successors[node]) {
+                if (index[successor] == -1) {
+                    visit(successor, emit);
+                    lowlink[node] = Math.min(lowlink[node], lowlink[successor]);
+                } else if (onStack[successor]) {
+                    lowlink[node] = Math.min(lowlink[node], index[successor]);
+                }
+            }
+
+            if (lowlink[node] == index[node]) {
+                List<Integer> component = new ArrayList<>();
+                int member;
+
+                do {
+                    member = stack.pop();
+                    onStack[member] = false;
+                    component.add(member);
+                } while (member != node);
+
+                emit.accept(component);
+            }
+        }
     }
 }
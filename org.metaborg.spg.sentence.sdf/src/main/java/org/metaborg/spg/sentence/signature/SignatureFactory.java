@@ -1,81 +1,103 @@
 package org.metaborg.spg.sentence.signature;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
-
-import org.metaborg.spg.sentence.sdf3.Grammar;
-import org.metaborg.spg.sentence.sdf3.Production;
-import org.metaborg.spg.sentence.sdf3.symbol.Iter;
-import org.metaborg.spg.sentence.sdf3.symbol.IterSep;
-import org.metaborg.spg.sentence.sdf3.symbol.IterStar;
-import org.metaborg.spg.sentence.sdf3.symbol.IterStarSep;
-import org.metaborg.spg.sentence.sdf3.symbol.Nonterminal;
-import org.metaborg.spg.sentence.sdf3.symbol.Opt;
-import org.metaborg.spg.sentence.sdf3.symbol.Symbol;
 
-public class SignatureFactory {
-    public Signature create(Grammar grammar) {
-        Collection<Operation> operations = grammar.getProductions()
-                .filter(Production::isNotBracket)
-                .filter(Production::isNotReject)
-                .map(this::createOperation)
-                .collect(Collectors.toList());
+import org.metaborg.sdf2table.grammar.ContextFreeSymbol;
+import org.metaborg.sdf2table.grammar.ISymbol;
+import org.metaborg.sdf2table.grammar.IterSepSymbol;
+import org.metaborg.sdf2table.grammar.IterStarSepSymbol;
+import org.metaborg.sdf2table.grammar.IterStarSymbol;
+import org.metaborg.sdf2table.grammar.IterSymbol;
+import org.metaborg.sdf2table.grammar.LexicalSymbol;
+import org.metaborg.sdf2table.grammar.OptionalSymbol;
+import org.metaborg.spg.sentence.generator.CompiledGrammar;
 
-        return new Signature(operations);
-    }
+public class SignatureFactory {
+    /**
+     * Create the signature from the normalized grammar that the generator already loaded. Only context-free
+     * productions contribute: a production with a constructor becomes a constructor, and a production without one
+     * becomes an injection of its first symbol. Bracket productions and injections of lexical symbols into their
+     * context-free counterparts are skipped, as they have no counterpart in the SDF3 signature.
+     */
+    public Signature create(CompiledGrammar grammar) {
+        Collection<Operation> operations = new ArrayList<>();
 
-    private Operation createOperation(Production production) {
-        Optional<String> constructorOpt = production.getConstructor();
+        for (int production = 0; production < grammar.getProductionCount(); production++) {
+            int lhs = grammar.getLhs(production);
 
-        if (constructorOpt.isPresent()) {
-            String name = constructorOpt.get();
-            Sort sort = createSort(production.getLhs());
-            List<Sort> arguments = createSorts(production.getRhs());
+            if (grammar.isBracket(production) || grammar.getKind(lhs) != CompiledGrammar.KIND_CONTEXT_FREE) {
+                continue;
+            }
 
-            return new Constructor(name, arguments, sort);
-        } else {
-            Sort argument = createSort(production.getRhs().iterator().next());
-            Sort result = createSort(production.getLhs());
+            Optional<Operation> operationOpt = createOperation(grammar, production);
 
-            return new Injection(argument, result);
+            operationOpt.ifPresent(operations::add);
         }
-    }
 
-    private List<Sort> createSorts(Stream<Symbol> symbols) {
-        return symbols.map(this::createSort)
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList());
+        return new Signature(operations);
     }
 
-    private Sort createSort(Symbol symbol) {
-        if (symbol instanceof Nonterminal) {
-            return new Sort(((Nonterminal) symbol).getName());
-        } else if (symbol instanceof Iter) {
-            Sort parameter = createSort(((Iter) symbol).getSymbol());
+    private Optional<Operation> createOperation(CompiledGrammar grammar, int production) {
+        String name = grammar.getConstructor(production);
+        Sort result = createSort(grammar.getSymbol(grammar.getLhs(production)));
+        int[] rhs = grammar.getRhs(production);
 
-            return new Sort("Iter", parameter);
-        } else if (symbol instanceof IterSep) {
-            Sort parameter = createSort(((IterSep) symbol).getSymbol());
+        if (name != null) {
+            List<Sort> arguments = Arrays.stream(rhs)
+                    .mapToObj(symbol -> createSort(grammar.getSymbol(symbol)))
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
 
-            return new Sort("Iter", parameter);
-        } else if (symbol instanceof IterStar) {
-            Sort parameter = createSort(((IterStar) symbol).getSymbol());
+            return Optional.of(new Constructor(name, arguments, result));
+        }
 
-            return new Sort("IterStar", parameter);
-        } else if (symbol instanceof IterStarSep) {
-            Sort parameter = createSort(((IterStarSep) symbol).getSymbol());
+        if (rhs.length == 0 || grammar.getKind(rhs[0]) == CompiledGrammar.KIND_LEXICAL) {
+            return Optional.empty();
+        }
 
-            return new Sort("IterStar", parameter);
-        } else if (symbol instanceof Opt) {
-            Sort parameter = createSort(((Opt) symbol).getSymbol());
+        Sort argument = createSort(grammar.getSymbol(rhs[0]));
 
-            return new Sort("Option", parameter);
+        if (argument == null || result == null) {
+            return Optional.empty();
+        }
+
+        return Optional.of(new Injection(argument, result));
+    }
+
+    /**
+     * Convert a normalized symbol to a sort, in the same way as the shrinker converts the symbols of generated terms.
+     */
+    private Sort createSort(ISymbol symbol) {
+        if (symbol instanceof org.metaborg.sdf2table.grammar.Sort) {
+            return new Sort(((org.metaborg.sdf2table.grammar.Sort) symbol).name());
+        } else if (symbol instanceof IterSymbol) {
+            return createListSort("Iter", ((IterSymbol) symbol).getSymbol());
+        } else if (symbol instanceof IterSepSymbol) {
+            return createListSort("Iter", ((IterSepSymbol) symbol).getSymbol());
+        } else if (symbol instanceof IterStarSymbol) {
+            return createListSort("IterStar", ((IterStarSymbol) symbol).getSymbol());
+        } else if (symbol instanceof IterStarSepSymbol) {
+            return createListSort("IterStar", ((IterStarSepSymbol) symbol).getSymbol());
+        } else if (symbol instanceof OptionalSymbol) {
+            return createListSort("Option", ((OptionalSymbol) symbol).getSymbol());
+        } else if (symbol instanceof ContextFreeSymbol) {
+            return createSort(((ContextFreeSymbol) symbol).getSymbol());
+        } else if (symbol instanceof LexicalSymbol) {
+            return new Sort("String");
         }
 
         return null;
     }
+
+    private Sort createListSort(String name, ISymbol element) {
+        Sort parameter = createSort(element);
+
+        return parameter != null ? new Sort(name, parameter) : null;
+    }
 }
@@ -0,0 +1,211 @@
+package org.metaborg.spg.sentence.ambiguity;
+
+import org.junit.jupiter.api.Test;
+import org.metaborg.sdf2table.grammar.Symbol;
+import org.metaborg.spg.sentence.generator.CompiledGrammar;
+import org.metaborg.spg.sentence.generator.Generator;
+import org.metaborg.spg.sentence.generator.GrammarBuilder;
+import org.metaborg.spg.sentence.printer.PrinterRuntimeException;
+import org.metaborg.spg.sentence.random.Random;
+import org.metaborg.spg.sentence.terms.GeneratorTermFactory;
+import org.spoofax.interpreter.terms.IStrategoAppl;
+import org.spoofax.interpreter.terms.IStrategoString;
+import org.spoofax.interpreter.terms.IStrategoTerm;
+import org.spoofax.terms.TermFactory;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class AmbiguityLocatorTest {
+    private final GeneratorTermFactory termFactory = new GeneratorTermFactory(new TermFactory());
+    private final GrammarBuilder builder = new GrammarBuilder();
+    private final int stmt = builder.sort("Stmt");
+    private final int exp = builder.sort("Exp");
+    private final int num = builder.lexical("NUM");
+    private final int stmts = builder.iterStar(stmt);
+    private final CompiledGrammar grammar = createGrammar();
+    private final Generator generator = new Generator(termFactory, new Random(0), "Stmt", grammar);
+
+    // if 0 { print 1 ; print 1 + 2 + 3 ; }
+    private final IStrategoTerm sum = add(add(num("1"), num("2")), num("3"));
+    private final IStrategoTerm statement = printStatement(sum);
+    private final IStrategoTerm term = ifThen(num("0"), block(printStatement(num("1")), statement));
+    private final String text = print(term);
+
+    @Test
+    public void testNestedExpression() {
+        // The sum is an expression, so it is only proposed in the context of its ancestors
+        List<IStrategoTerm> candidates = localize("1 + 2 + 3");
+
+        assertEquals(Arrays.asList("if { print 1 + 2 + 3 ; }"), print(candidates));
+    }
+
+    @Test
+    public void testNestedStatement() {
+        List<IStrategoTerm> candidates = localize("print 1 + 2 + 3 ;");
+
+        assertEquals(2, candidates.size());
+        assertSame(statement, candidates.get(0));
+        assertEquals("if { print 1 + 2 + 3 ; }", print(candidates.get(1)));
+    }
+
+    @Test
+    public void testNestedAmbiguity() {
+        // Part of the sum is ambiguous, but neither of its children covers the part
+        List<IStrategoTerm> candidates = localize("2 + 3");
+
+        assertEquals(Arrays.asList("if { print 1 + 2 + 3 ; }"), print(candidates));
+    }
+
+    @Test
+    public void testRoot() {
+        assertEquals(Collections.emptyList(), localize(0, text.length()));
+    }
+
+    @Test
+    public void testUnaligned() {
+        // The span starts in one statement and ends in the next, so it is covered by the list of statements
+        List<IStrategoTerm> candidates = localize("1 ; print 1");
+
+        assertEquals(Arrays.asList("if { print 1 ; print 1 + 2 + 3 ; }"), print(candidates));
+
+        // The span starts at a keyword of the root, so no child covers it
+        assertEquals(Collections.emptyList(), localize("if 0 {"));
+    }
+
+    @Test
+    public void testUnlocated() {
+        AmbiguityLocator locator = new AmbiguityLocator(null, null, null, null, termFactory, generator,
+                AmbiguityLocatorTest::print) {
+            @Override
+            Optional<int[]> locate(String text) {
+                return Optional.empty();
+            }
+        };
+
+        assertEquals(Collections.emptyList(), locator.localize(term, text));
+    }
+
+    @Test
+    public void testInnermostAmbiguity() {
+        IStrategoTerm inner = amb(num("2"), num("3"));
+        IStrategoTerm outer = amb(add(num("1"), inner), num("4"));
+        IStrategoTerm single = amb(num("1"), num("4"));
+
+        assertSame(inner, AmbiguityLocator.findAmbiguity(outer));
+        assertSame(inner, AmbiguityLocator.findAmbiguity(printStatement(outer)));
+        assertSame(single, AmbiguityLocator.findAmbiguity(printStatement(single)));
+        assertNull(AmbiguityLocator.findAmbiguity(term));
+    }
+
+    private List<IStrategoTerm> localize(String ambiguous) {
+        int start = text.indexOf(ambiguous);
+
+        return localize(start, start + ambiguous.length());
+    }
+
+    /**
+     * Localize the ambiguity of the term as if the parser found an ambiguity between the given offsets.
+     */
+    private List<IStrategoTerm> localize(int start, int end) {
+        AmbiguityLocator locator = new AmbiguityLocator(null, null, null, null, termFactory, generator,
+                AmbiguityLocatorTest::print) {
+            @Override
+            Optional<int[]> locate(String text) {
+                return Optional.of(new int[] { start, end });
+            }
+        };
+
+        return locator.localize(term, text);
+    }
+
+    private IStrategoTerm num(String text) {
+        return termFactory.makeAppl("Num", new IStrategoTerm[] { termFactory.makeString(grammar.getSymbol(num), text) },
+                grammar.getSymbol(exp));
+    }
+
+    private IStrategoTerm add(IStrategoTerm left, IStrategoTerm right) {
+        return termFactory.makeAppl("Add", new IStrategoTerm[] { left, right }, grammar.getSymbol(exp));
+    }
+
+    private IStrategoTerm printStatement(IStrategoTerm exp) {
+        return termFactory.makeAppl("Print", new IStrategoTerm[] { exp }, grammar.getSymbol(stmt));
+    }
+
+    private IStrategoTerm block(IStrategoTerm... statements) {
+        IStrategoTerm list = termFactory.makeList((Symbol) grammar.getSymbol(stmts), statements);
+
+        return termFactory.makeAppl("Block", new IStrategoTerm[] { list }, grammar.getSymbol(stmt));
+    }
+
+    private IStrategoTerm ifThen(IStrategoTerm condition, IStrategoTerm body) {
+        return termFactory.makeAppl("If", new IStrategoTerm[] { condition, body }, grammar.getSymbol(stmt));
+    }
+
+    private IStrategoTerm amb(IStrategoTerm... alternatives) {
+        return termFactory.makeAppl(termFactory.makeConstructor("amb", 1), termFactory.makeList(alternatives));
+    }
+
+    private CompiledGrammar createGrammar() {
+        builder.template(stmt, "Print", builder.literal("print"), exp, builder.literal(";"));
+        builder.template(stmt, "Block", builder.literal("{"), stmts, builder.literal("}"));
+        builder.template(stmt, "If", builder.literal("if"), exp, stmt);
+        builder.template(exp, "Num", num);
+        builder.template(exp, "Add", exp, builder.literal("+"), exp);
+
+        return builder.build();
+    }
+
+    private static List<String> print(List<IStrategoTerm> terms) {
+        return terms.stream().map(AmbiguityLocatorTest::print).collect(Collectors.toList());
+    }
+
+    /**
+     * Print a term with a space between its tokens. The minimal number is the empty string, and it is left out.
+     */
+    private static String print(IStrategoTerm term) {
+        if (term instanceof IStrategoString) {
+            return ((IStrategoString) term).stringValue();
+        }
+
+        List<String> children = Arrays.stream(term.getAllSubterms())
+                .map(AmbiguityLocatorTest::print)
+                .collect(Collectors.toList());
+
+        if (!(term instanceof IStrategoAppl)) {
+            return join(children);
+        }
+
+        switch (((IStrategoAppl) term).getConstructor().getName()) {
+            case "Num":
+                return children.get(0);
+            case "Add":
+                return join(children.get(0), "+", children.get(1));
+            case "Print":
+                return join("print", children.get(0), ";");
+            case "Block":
+                return join("{", children.get(0), "}");
+            case "If":
+                return join("if", children.get(0), children.get(1));
+            default:
+                throw new PrinterRuntimeException("Unable to print " + term);
+        }
+    }
+
+    private static String join(String... tokens) {
+        return join(Arrays.asList(tokens));
+    }
+
+    private static String join(List<String> tokens) {
+        return tokens.stream().filter(Objects::nonNull).filter(token -> !token.isEmpty())
+                .collect(Collectors.joining(" "));
+    }
+}
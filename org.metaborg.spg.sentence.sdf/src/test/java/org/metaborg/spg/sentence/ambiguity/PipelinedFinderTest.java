@@ -0,0 +1,169 @@
+package org.metaborg.spg.sentence.ambiguity;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.metaborg.spg.sentence.ambiguity.result.FindResult;
+import org.metaborg.spg.sentence.generator.Generator;
+import org.metaborg.spg.sentence.generator.GrammarBuilder;
+import org.metaborg.spg.sentence.printer.IPrinter;
+import org.metaborg.spg.sentence.printer.PrinterRuntimeException;
+import org.metaborg.spg.sentence.random.Random;
+import org.metaborg.spg.sentence.terms.GeneratorTermFactory;
+import org.spoofax.interpreter.terms.IStrategoString;
+import org.spoofax.interpreter.terms.IStrategoTerm;
+import org.spoofax.terms.TermFactory;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PipelinedFinderTest {
+    private static final long TIMEOUT = 10;
+
+    private final GeneratorTermFactory termFactory = new GeneratorTermFactory(new TermFactory());
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final AtomicInteger generated = new AtomicInteger();
+    private final AtomicInteger printed = new AtomicInteger();
+    private final AtomicInteger parsed = new AtomicInteger();
+    private final TesterProgress progress = new TesterProgress() {
+        @Override
+        public void sentenceGenerated(String text) {
+        }
+
+        @Override
+        public void sentenceShrinked(String text) {
+        }
+    };
+
+    @AfterEach
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testNotFound() throws Exception {
+        FindResult result = find(PipelinedFinderTest::text, text -> false, 100);
+
+        assertFalse(result.found());
+        assertEquals(100, result.terms());
+        assertEquals(100, printed.get());
+        assertEquals(100, parsed.get());
+    }
+
+    @Test
+    public void testFound() throws Exception {
+        FindResult result = find(PipelinedFinderTest::text, text -> text.equals("42"), Integer.MAX_VALUE);
+
+        assertTrue(result.found());
+        assertEquals("42", result.text());
+        assertEquals("42", text(result.term()));
+    }
+
+    @Test
+    public void testStopDrainsStages() throws Exception {
+        FindResult result = find(PipelinedFinderTest::text, text -> text.equals("42"), Integer.MAX_VALUE);
+
+        int generatedAfterStop = generated.get();
+        int printedAfterStop = printed.get();
+        int parsedAfterStop = parsed.get();
+
+        Thread.sleep(500);
+
+        // Every stage has returned, so none of them takes or produces another item after the search
+        assertTrue(result.found());
+        assertEquals(generatedAfterStop, generated.get());
+        assertEquals(printedAfterStop, printed.get());
+        assertEquals(parsedAfterStop, parsed.get());
+    }
+
+    @Test
+    public void testPrinterRuntimeExceptionSkipsTerm() throws Exception {
+        FindResult result = find(term -> {
+            if (text(term).equals("5")) {
+                throw new PrinterRuntimeException("Unable to print 5");
+            }
+
+            return text(term);
+        }, text -> false, 10);
+
+        assertFalse(result.found());
+        assertEquals(9, parsed.get());
+    }
+
+    @Test
+    public void testPrinterExceptionEndsSearch() {
+        // The queues hold a single item, so the other stages block on them as soon as the printer stops taking terms
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> find(term -> {
+            if (text(term).equals("5")) {
+                throw new IllegalStateException("Printer failed");
+            }
+
+            return text(term);
+        }, text -> false, Integer.MAX_VALUE));
+
+        assertTrue(exception.getCause() instanceof RuntimeException);
+        assertTrue(exception.getCause().getCause().getCause() instanceof IllegalStateException);
+    }
+
+    /**
+     * Find an ambiguity with two generators, two printers, and two parsers that are connected by queues of capacity one.
+     * Fails the test if the search does not end.
+     */
+    private FindResult find(IPrinter printer, Predicate<String> ambiguous, int maxNumberOfTerms)
+            throws ExecutionException, InterruptedException {
+        Generator generator = generator();
+        Tester tester = new Tester(termFactory, null, null, null, printer, generator, null) {
+            @Override
+            protected Optional<IStrategoTerm> generate(Generator generator, TesterConfig config) {
+                return Optional.of(termFactory.makeString(String.valueOf(generated.getAndIncrement())));
+            }
+
+            @Override
+            boolean isAmbiguous(String text) {
+                parsed.incrementAndGet();
+
+                return ambiguous.test(text);
+            }
+        };
+
+        IPrinter countingPrinter = term -> {
+            printed.incrementAndGet();
+
+            return printer.print(term);
+        };
+
+        PipelineConfig pipelineConfig = new PipelineConfig(2, 2, 2, 1);
+        TesterConfig config = new TesterConfig(maxNumberOfTerms, 10, GenerationMode.RANDOM, 1, pipelineConfig);
+        PipelinedFinder finder = new PipelinedFinder(tester, generator, () -> countingPrinter, pipelineConfig);
+        Future<FindResult> future = executor.submit(() -> finder.find(config, progress));
+
+        try {
+            return future.get(TIMEOUT, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            throw new AssertionError("Pipelined search did not end within " + TIMEOUT + " seconds", e);
+        }
+    }
+
+    private Generator generator() {
+        GrammarBuilder builder = new GrammarBuilder();
+        int exp = builder.sort("Exp");
+        builder.production(exp, "Num", builder.lexical("NUM"));
+
+        return new Generator(termFactory, new Random(0), "Exp", builder.build());
+    }
+
+    private static String text(IStrategoTerm term) {
+        return ((IStrategoString) term).stringValue();
+    }
+}
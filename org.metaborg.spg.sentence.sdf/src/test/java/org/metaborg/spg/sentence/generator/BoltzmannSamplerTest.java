@@ -0,0 +1,103 @@
+package org.metaborg.spg.sentence.generator;
+
+import org.junit.jupiter.api.Test;
+import org.metaborg.spg.sentence.random.Random;
+import org.metaborg.spg.sentence.terms.GeneratorTermFactory;
+import org.spoofax.interpreter.terms.IStrategoTerm;
+import org.spoofax.terms.TermFactory;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BoltzmannSamplerTest {
+    private final GeneratorTermFactory termFactory = new GeneratorTermFactory(new TermFactory());
+
+    @Test
+    public void testSizeWindow() {
+        GrammarBuilder builder = new GrammarBuilder();
+        int exp = builder.sort("Exp");
+        int num = builder.lexical("NUM");
+        int exps = builder.iterStar(exp);
+        builder.production(exp, "Num", num);
+        builder.production(exp, "Add", exp, exp);
+        builder.production(exp, "Call", exps);
+
+        Generator generator = new Generator(termFactory, new Random(0), "Exp", builder.build());
+
+        assertSizes(generator, exp, 10, 50, 200);
+    }
+
+    @Test
+    public void testBracket() {
+        GrammarBuilder builder = new GrammarBuilder();
+        int exp = builder.sort("Exp");
+        int num = builder.lexical("NUM");
+        builder.production(exp, "Num", num);
+        builder.production(exp, "Add", exp, exp);
+        builder.bracket(builder.production(exp, null, exp));
+
+        Generator generator = new Generator(termFactory, new Random(0), "Exp", builder.build());
+
+        assertSizes(generator, exp, 10, 50);
+    }
+
+    @Test
+    public void testInjectionCycle() {
+        // A and B inject into each other, and each derives its own constructor
+        GrammarBuilder builder = new GrammarBuilder();
+        int a = builder.sort("A");
+        int b = builder.sort("B");
+        int num = builder.lexical("NUM");
+        builder.production(a, null, b);
+        builder.production(b, null, a);
+        builder.production(a, "Num", num);
+        builder.production(b, "Add", a, a);
+
+        Generator generator = new Generator(termFactory, new Random(0), "A", builder.build());
+
+        assertSizes(generator, a, 10, 50);
+        assertSizes(generator, b, 10, 50);
+    }
+
+    @Test
+    public void testUnproductive() {
+        GrammarBuilder builder = new GrammarBuilder();
+        int loop = builder.sort("Loop");
+        builder.production(loop, "Wrap", loop);
+
+        Generator generator = new Generator(termFactory, new Random(0), "Loop", builder.build());
+        BoltzmannSampler sampler = new BoltzmannSampler(generator, termFactory, new Random(0), loop, 10);
+
+        assertFalse(sampler.sample().isPresent());
+    }
+
+    private void assertSizes(Generator generator, int symbol, int... targetSizes) {
+        for (int targetSize : targetSizes) {
+            BoltzmannSampler sampler = new BoltzmannSampler(generator, termFactory, new Random(targetSize), symbol,
+                    targetSize, 0.1);
+
+            for (int i = 0; i < 10; i++) {
+                Optional<IStrategoTerm> termOpt = sampler.sample();
+
+                assertTrue(termOpt.isPresent(), "no term for target size " + targetSize);
+
+                int size = size(termOpt.get());
+
+                assertTrue(size >= Math.floor(targetSize * 0.9) && size <= Math.ceil(targetSize * 1.1),
+                        "size " + size + " for target size " + targetSize);
+            }
+        }
+    }
+
+    private static int size(IStrategoTerm term) {
+        int size = 1;
+
+        for (IStrategoTerm subterm : term.getAllSubterms()) {
+            size += size(subterm);
+        }
+
+        return size;
+    }
+}
@@ -0,0 +1,186 @@
+package org.metaborg.spg.sentence.generator;
+
+import org.junit.jupiter.api.Test;
+import org.metaborg.spg.sentence.random.Random;
+import org.metaborg.spg.sentence.terms.GeneratorTermFactory;
+import org.spoofax.interpreter.terms.IStrategoTerm;
+import org.spoofax.terms.TermFactory;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class EnumeratorTest {
+    private final GeneratorTermFactory termFactory = new GeneratorTermFactory(new TermFactory());
+
+    @Test
+    public void testCount() {
+        GrammarBuilder builder = new GrammarBuilder();
+        int exp = builder.sort("Exp");
+        int num = builder.lexical("NUM");
+        builder.production(exp, "Num", num);
+        builder.production(exp, "Add", exp, exp);
+
+        Enumerator enumerator = enumerator(builder.build(), "Exp");
+
+        // Binary trees of n leaves have 3n - 1 nodes, and there are Catalan(n - 1) of them
+        long[] expected = { 0, 0, 1, 0, 0, 1, 0, 0, 2, 0, 0, 5, 0, 0, 14 };
+
+        for (int size = 1; size < expected.length; size++) {
+            assertEquals(BigInteger.valueOf(expected[size]), enumerator.count(exp, size), "size " + size);
+        }
+    }
+
+    @Test
+    public void testCountList() {
+        GrammarBuilder builder = new GrammarBuilder();
+        int exp = builder.sort("Exp");
+        int num = builder.lexical("NUM");
+        int exps = builder.iterStar(exp);
+        builder.production(exp, "Num", num);
+
+        Enumerator enumerator = enumerator(builder.build(), "Exp");
+
+        long[] expected = { 0, 1, 0, 1, 0, 1, 0, 1 };
+
+        for (int size = 1; size < expected.length; size++) {
+            assertEquals(BigInteger.valueOf(expected[size]), enumerator.count(exps, size), "size " + size);
+        }
+    }
+
+    @Test
+    public void testCountInjectionDiamond() {
+        // Top injects Exp through both A and B, which must not count the terms of Exp twice
+        GrammarBuilder builder = new GrammarBuilder();
+        int top = builder.sort("Top");
+        int a = builder.sort("A");
+        int b = builder.sort("B");
+        int exp = builder.sort("Exp");
+        int num = builder.lexical("NUM");
+        builder.production(top, null, a);
+        builder.production(top, null, b);
+        builder.production(a, null, exp);
+        builder.production(b, null, exp);
+        builder.production(exp, "Num", num);
+
+        Enumerator enumerator = enumerator(builder.build(), "Top");
+
+        assertEquals(BigInteger.ONE, enumerator.count(top, 2));
+    }
+
+    @Test
+    public void testCountDroppedChildren() {
+        // Top has no constructor, so its term is the term of its first child and the second child is dropped
+        GrammarBuilder builder = new GrammarBuilder();
+        int top = builder.sort("Top");
+        int exp = builder.sort("Exp");
+        int num = builder.lexical("NUM");
+        builder.production(top, null, exp, exp);
+        builder.production(exp, "Num", num);
+        builder.production(exp, "Add", exp, exp);
+
+        Enumerator enumerator = enumerator(builder.build(), "Top");
+
+        for (int size = 1; size <= 11; size++) {
+            int count = enumerator.count(top, size).intValueExact();
+            Set<String> terms = new HashSet<>();
+
+            assertEquals(enumerator.count(exp, size).intValueExact(), count, "size " + size);
+
+            for (int rank = 0; rank < count; rank++) {
+                terms.add(enumerator.unrank(top, size, BigInteger.valueOf(rank)).toString());
+            }
+
+            assertEquals(count, terms.size(), "distinct terms of size " + size);
+        }
+    }
+
+    @Test
+    public void testUnrank() {
+        GrammarBuilder builder = new GrammarBuilder();
+        int exp = builder.sort("Exp");
+        int num = builder.lexical("NUM");
+        builder.production(exp, "Num", num);
+        builder.production(exp, "Add", exp, exp);
+        builder.production(exp, "Neg", exp);
+
+        Enumerator enumerator = enumerator(builder.build(), "Exp");
+
+        for (int size = 1; size <= 12; size++) {
+            int count = enumerator.count(exp, size).intValueExact();
+            Set<String> terms = new HashSet<>();
+
+            for (int rank = 0; rank < count; rank++) {
+                IStrategoTerm term = enumerator.unrank(exp, size, BigInteger.valueOf(rank));
+
+                assertEquals(size, size(term), term.toString());
+
+                terms.add(term.toString());
+            }
+
+            assertEquals(count, terms.size(), "distinct terms of size " + size);
+        }
+    }
+
+    @Test
+    public void testUnrankOutOfBounds() {
+        GrammarBuilder builder = new GrammarBuilder();
+        int exp = builder.sort("Exp");
+        int num = builder.lexical("NUM");
+        builder.production(exp, "Num", num);
+
+        Enumerator enumerator = enumerator(builder.build(), "Exp");
+
+        assertThrows(IllegalArgumentException.class, () -> enumerator.unrank(exp, 2, BigInteger.ONE));
+        assertThrows(IllegalArgumentException.class, () -> enumerator.unrank(exp, 2, BigInteger.valueOf(-1)));
+    }
+
+    @Test
+    public void testEnumerate() {
+        GrammarBuilder builder = new GrammarBuilder();
+        int exp = builder.sort("Exp");
+        int num = builder.lexical("NUM");
+        builder.production(exp, "Num", num);
+        builder.production(exp, "Add", exp, exp);
+
+        Enumerator enumerator = enumerator(builder.build(), "Exp");
+        List<String> expected = new ArrayList<>();
+
+        for (int size = 1; size <= 11; size++) {
+            int count = enumerator.count(exp, size).intValueExact();
+
+            for (int rank = 0; rank < count; rank++) {
+                expected.add(enumerator.unrank(exp, size, BigInteger.valueOf(rank)).toString());
+            }
+        }
+
+        List<String> enumerated = enumerator.enumerate(exp, 11)
+                .map(IStrategoTerm::toString)
+                .collect(Collectors.toList());
+
+        assertEquals(9, enumerated.size());
+        assertEquals(expected, enumerated);
+    }
+
+    private Enumerator enumerator(CompiledGrammar grammar, String startSymbol) {
+        Generator generator = new Generator(termFactory, new Random(0), startSymbol, grammar);
+
+        return new Enumerator(generator, termFactory);
+    }
+
+    private static int size(IStrategoTerm term) {
+        int size = 1;
+
+        for (IStrategoTerm subterm : term.getAllSubterms()) {
+            size += size(subterm);
+        }
+
+        return size;
+    }
+}
@@ -0,0 +1,206 @@
+package org.metaborg.spg.sentence.generator;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import org.metaborg.sdf2table.grammar.GrammarFactory;
+import org.metaborg.sdf2table.grammar.ISymbol;
+import org.metaborg.sdf2table.grammar.Sort;
+import org.metaborg.sdf2table.grammar.Symbol;
+
+import static org.metaborg.spg.sentence.generator.CompiledGrammar.*;
+
+/**
+ * Builds small compiled grammars by hand, so that the analyses can be tested without reading a normalized grammar.
+ */
+public class GrammarBuilder {
+    private final GrammarFactory gf = new GrammarFactory();
+    private final List<ISymbol> symbols = new ArrayList<>();
+    private final List<Byte> kinds = new ArrayList<>();
+    private final List<Integer> elements = new ArrayList<>();
+    private final Map<Integer, Sort> sorts = new HashMap<>();
+    private final Map<Integer, Symbol> iterSymbols = new HashMap<>();
+    private final Map<Integer, Symbol> iterStarSymbols = new HashMap<>();
+    private final Map<Integer, Symbol> optionalSymbols = new HashMap<>();
+    private final List<Integer> productionLhs = new ArrayList<>();
+    private final List<int[]> productionRhs = new ArrayList<>();
+    private final List<int[]> productionSymbols = new ArrayList<>();
+    private final List<String> productionConstructors = new ArrayList<>();
+    private final Map<Integer, String[]> characters = new HashMap<>();
+    private final Map<Integer, Boolean> brackets = new HashMap<>();
+    private final Set<Integer> literals = new HashSet<>();
+
+    /**
+     * @return The id of a new context-free sort.
+     */
+    public int sort(String name) {
+        Sort sort = gf.createSort(name);
+        int symbol = symbol(gf.createContextFreeSymbol(sort), KIND_CONTEXT_FREE, NONE);
+        sorts.put(symbol, sort);
+
+        return symbol;
+    }
+
+    /**
+     * @return The id of a new lexical sort with a single production that produces the empty string.
+     */
+    public int lexical(String name) {
+        int symbol = symbol(gf.createLexicalSymbol(gf.createSort(name)), KIND_LEXICAL, NONE);
+        production(symbol, null);
+
+        return symbol;
+    }
+
+    /**
+     * @return The id of a new literal, which can only occur in the symbols of a {@link #template} production.
+     */
+    public int literal(String text) {
+        int symbol = symbol(gf.createLiteral(text), KIND_OTHER, NONE);
+        literals.add(symbol);
+
+        return symbol;
+    }
+
+    public int iter(int element) {
+        return list(element, KIND_ITER);
+    }
+
+    public int iterStar(int element) {
+        return list(element, KIND_ITER_STAR);
+    }
+
+    public int optional(int element) {
+        return list(element, KIND_OPTIONAL);
+    }
+
+    /**
+     * @return The id of a new production. The production is an injection if the constructor is null.
+     */
+    public int production(int lhs, String constructor, int... rhs) {
+        productionLhs.add(lhs);
+        productionRhs.add(rhs);
+        productionSymbols.add(rhs);
+        productionConstructors.add(constructor);
+
+        return productionLhs.size() - 1;
+    }
+
+    /**
+     * @return The id of a new production with literals among its symbols. The other symbols are its children.
+     */
+    public int template(int lhs, String constructor, int... symbols) {
+        int production = production(lhs, constructor, IntStream.of(symbols)
+                .filter(symbol -> !literals.contains(symbol))
+                .toArray());
+
+        productionSymbols.set(production, symbols);
+
+        return production;
+    }
+
+    /**
+     * Set the printable characters of a symbol. The analyses only read them for character class symbols.
+     */
+    public void characters(int symbol, String... symbolCharacters) {
+        characters.put(symbol, symbolCharacters);
+    }
+
+    public void bracket(int production) {
+        brackets.put(production, true);
+    }
+
+    public CompiledGrammar build() {
+        int symbolCount = symbols.size();
+        int productionCount = productionLhs.size();
+
+        Map<ISymbol, Integer> symbolIds = new HashMap<>();
+        byte[] kindArray = new byte[symbolCount];
+        int[] elementArray = new int[symbolCount];
+        String[][] characterArray = new String[symbolCount][];
+        int[][] symbolProductions = new int[symbolCount][];
+
+        for (int symbol = 0; symbol < symbolCount; symbol++) {
+            int id = symbol;
+
+            symbolIds.put(symbols.get(symbol), symbol);
+            kindArray[symbol] = kinds.get(symbol);
+            elementArray[symbol] = elements.get(symbol);
+            characterArray[symbol] = characters.get(symbol);
+            symbolProductions[symbol] = IntStream.range(0, productionCount)
+                    .filter(production -> productionLhs.get(production) == id)
+                    .toArray();
+        }
+
+        int[] lhsArray = productionLhs.stream().mapToInt(Integer::intValue).toArray();
+        int[][] rhsArray = productionRhs.toArray(new int[productionCount][]);
+        int[][] symbolsArray = productionSymbols.toArray(new int[productionCount][]);
+        boolean[] bracketArray = new boolean[productionCount];
+
+        for (int production = 0; production < productionCount; production++) {
+            bracketArray[production] = brackets.getOrDefault(production, false);
+        }
+
+        return new CompiledGrammar(
+                symbolIds,
+                symbols.toArray(new ISymbol[symbolCount]),
+                kindArray,
+                elementArray,
+                toSymbolArray(iterSymbols, symbolCount),
+                toSymbolArray(iterStarSymbols, symbolCount),
+                toSymbolArray(optionalSymbols, symbolCount),
+                characterArray,
+                symbolProductions,
+                lhsArray,
+                rhsArray,
+                symbolsArray,
+                productionConstructors.toArray(new String[productionCount]),
+                bracketArray
+        );
+    }
+
+    /**
+     * Add a list or optional symbol of a sort, and attach the list symbols to the sort like the {@link GrammarCompiler}.
+     */
+    private int list(int element, byte kind) {
+        Symbol elementSymbol = (Symbol) symbols.get(element);
+        Sort sort = sorts.get(element);
+        Symbol listSymbol;
+
+        if (kind == KIND_ITER) {
+            listSymbol = gf.createIterSymbol(sort);
+        } else if (kind == KIND_ITER_STAR) {
+            listSymbol = gf.createIterStarSymbol(sort);
+        } else {
+            listSymbol = gf.createOptionalSymbol(sort);
+        }
+
+        iterSymbols.computeIfAbsent(element, e -> gf.createIterSymbol(elementSymbol));
+        iterStarSymbols.computeIfAbsent(element, e -> gf.createIterStarSymbol(elementSymbol));
+        optionalSymbols.computeIfAbsent(element, e -> gf.createOptionalSymbol(elementSymbol));
+
+        return symbol(gf.createContextFreeSymbol(listSymbol), kind, element);
+    }
+
+    private int symbol(ISymbol symbol, byte kind, int element) {
+        symbols.add(symbol);
+        kinds.add(kind);
+        elements.add(element);
+
+        return symbols.size() - 1;
+    }
+
+    private static Symbol[] toSymbolArray(Map<Integer, Symbol> map, int size) {
+        Symbol[] array = new Symbol[size];
+
+        for (Map.Entry<Integer, Symbol> entry : map.entrySet()) {
+            array[entry.getKey()] = entry.getValue();
+        }
+
+        return array;
+    }
+}
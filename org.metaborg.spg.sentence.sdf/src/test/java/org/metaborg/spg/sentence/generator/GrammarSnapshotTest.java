@@ -0,0 +1,115 @@
+package org.metaborg.spg.sentence.generator;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class GrammarSnapshotTest {
+    private Path directory;
+
+    @BeforeEach
+    public void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("snapshot");
+    }
+
+    @AfterEach
+    public void deleteDirectory() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        CompiledGrammar grammar = createGrammar();
+        Path file = directory.resolve("generator").resolve("Test.snapshot");
+
+        GrammarSnapshot.write(grammar, "key", file);
+
+        Optional<CompiledGrammar> snapshotOpt = GrammarSnapshot.read("key", file);
+
+        assertTrue(snapshotOpt.isPresent());
+
+        CompiledGrammar snapshot = snapshotOpt.get();
+
+        assertEquals(grammar.getSymbolCount(), snapshot.getSymbolCount());
+        assertEquals(grammar.getProductionCount(), snapshot.getProductionCount());
+
+        for (int symbol = 0; symbol < grammar.getSymbolCount(); symbol++) {
+            assertEquals(grammar.getSymbol(symbol), snapshot.getSymbol(symbol));
+            assertEquals(symbol, snapshot.getSymbolId(grammar.getSymbol(symbol)));
+            assertEquals(grammar.getKind(symbol), snapshot.getKind(symbol));
+            assertEquals(grammar.getElement(symbol), snapshot.getElement(symbol));
+            assertEquals(grammar.getIterSymbol(symbol), snapshot.getIterSymbol(symbol));
+            assertEquals(grammar.getIterStarSymbol(symbol), snapshot.getIterStarSymbol(symbol));
+            assertEquals(grammar.getOptionalSymbol(symbol), snapshot.getOptionalSymbol(symbol));
+            assertArrayEquals(grammar.getCharacters(symbol), snapshot.getCharacters(symbol));
+            assertArrayEquals(grammar.getProductions(symbol), snapshot.getProductions(symbol));
+            assertEquals(grammar.getSizeAnalysis().getMinimumSize(symbol),
+                    snapshot.getSizeAnalysis().getMinimumSize(symbol));
+        }
+
+        for (int production = 0; production < grammar.getProductionCount(); production++) {
+            assertEquals(grammar.getLhs(production), snapshot.getLhs(production));
+            assertArrayEquals(grammar.getRhs(production), snapshot.getRhs(production));
+            assertArrayEquals(grammar.getSymbols(production), snapshot.getSymbols(production));
+            assertEquals(grammar.getConstructor(production), snapshot.getConstructor(production));
+            assertEquals(grammar.isBracket(production), snapshot.isBracket(production));
+        }
+    }
+
+    @Test
+    public void testOtherKey() throws IOException {
+        Path file = directory.resolve("Test.snapshot");
+
+        GrammarSnapshot.write(createGrammar(), "key", file);
+
+        assertFalse(GrammarSnapshot.read("other key", file).isPresent());
+    }
+
+    @Test
+    public void testMissing() {
+        assertFalse(GrammarSnapshot.read("key", directory.resolve("Missing.snapshot")).isPresent());
+    }
+
+    @Test
+    public void testTruncated() throws IOException {
+        Path file = directory.resolve("Test.snapshot");
+
+        GrammarSnapshot.write(createGrammar(), "key", file);
+
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length / 2));
+
+        assertFalse(GrammarSnapshot.read("key", file).isPresent());
+    }
+
+    private static CompiledGrammar createGrammar() {
+        GrammarBuilder builder = new GrammarBuilder();
+        int exp = builder.sort("Exp");
+        int num = builder.lexical("NUM");
+        int exps = builder.iterStar(exp);
+        builder.iter(exp);
+        builder.optional(exp);
+        builder.characters(num, "0", "1", "\u00e9");
+        builder.production(exp, "Num", num);
+        builder.production(exp, "Add", exp, exp);
+        builder.production(exp, "Call", exps);
+        builder.bracket(builder.production(exp, null, exp));
+
+        return builder.build();
+    }
+}
@@ -0,0 +1,80 @@
+package org.metaborg.spg.sentence.generator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.metaborg.spg.sentence.generator.SizeAnalysis.INFINITE;
+
+public class SizeAnalysisTest {
+    @Test
+    public void testMinimumSizes() {
+        GrammarBuilder builder = new GrammarBuilder();
+        int exp = builder.sort("Exp");
+        int num = builder.lexical("NUM");
+        int numProduction = builder.production(exp, "Num", num);
+        int addProduction = builder.production(exp, "Add", exp, exp);
+
+        SizeAnalysis sizes = builder.build().getSizeAnalysis();
+
+        assertEquals(1, sizes.getMinimumSize(num));
+        assertEquals(2, sizes.getProductionMinimumSize(numProduction));
+        assertEquals(5, sizes.getProductionMinimumSize(addProduction));
+        assertEquals(2, sizes.getMinimumSize(exp));
+    }
+
+    @Test
+    public void testLists() {
+        GrammarBuilder builder = new GrammarBuilder();
+        int exp = builder.sort("Exp");
+        int num = builder.lexical("NUM");
+        int iter = builder.iter(exp);
+        int iterStar = builder.iterStar(exp);
+        int optional = builder.optional(exp);
+        builder.production(exp, "Num", num);
+
+        SizeAnalysis sizes = builder.build().getSizeAnalysis();
+
+        assertEquals(4, sizes.getMinimumSize(iter));
+        assertEquals(1, sizes.getMinimumSize(iterStar));
+        assertEquals(1, sizes.getMinimumSize(optional));
+    }
+
+    @Test
+    public void testForwardReference() {
+        // Stmt is analyzed before Exp, so its size is only known after a second iteration
+        GrammarBuilder builder = new GrammarBuilder();
+        int stmt = builder.sort("Stmt");
+        int exp = builder.sort("Exp");
+        int num = builder.lexical("NUM");
+        builder.production(stmt, "Print", exp);
+        builder.production(exp, "Num", num);
+
+        SizeAnalysis sizes = builder.build().getSizeAnalysis();
+
+        assertEquals(3, sizes.getMinimumSize(stmt));
+    }
+
+    @Test
+    public void testUnproductive() {
+        GrammarBuilder builder = new GrammarBuilder();
+        int exp = builder.sort("Exp");
+        int loop = builder.sort("Loop");
+        int num = builder.lexical("NUM");
+        builder.production(exp, "Num", num);
+        int wrapProduction = builder.production(loop, "Wrap", loop);
+        int useProduction = builder.production(exp, "Use", loop);
+
+        CompiledGrammar grammar = builder.build();
+        SizeAnalysis sizes = grammar.getSizeAnalysis();
+
+        assertTrue(sizes.isProductive(exp));
+        assertFalse(sizes.isProductive(loop));
+        assertEquals(INFINITE, sizes.getProductionMinimumSize(wrapProduction));
+        assertEquals(INFINITE, sizes.getProductionMinimumSize(useProduction));
+        assertEquals(Collections.singletonList(grammar.getSymbol(loop)), sizes.getUnproductiveSymbols());
+    }
+}
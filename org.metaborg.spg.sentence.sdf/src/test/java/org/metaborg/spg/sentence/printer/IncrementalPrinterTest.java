@@ -0,0 +1,162 @@
+package org.metaborg.spg.sentence.printer;
+
+import org.junit.jupiter.api.Test;
+import org.spoofax.interpreter.terms.IStrategoAppl;
+import org.spoofax.interpreter.terms.IStrategoString;
+import org.spoofax.interpreter.terms.IStrategoTerm;
+import org.spoofax.interpreter.terms.ITermFactory;
+import org.spoofax.terms.TermFactory;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class IncrementalPrinterTest {
+    private final ITermFactory termFactory = new TermFactory();
+
+    @Test
+    public void testMemo() {
+        IncrementalPrinter printer = new IncrementalPrinter(IncrementalPrinterTest::print);
+        IStrategoTerm term = add(var("a"), var("b"));
+
+        assertEquals("a + b", printer.print(term));
+        assertEquals("a + b", printer.print(term));
+        assertEquals(1, printer.getFullPrints());
+    }
+
+    @Test
+    public void testIncremental() {
+        IncrementalPrinter printer = new IncrementalPrinter(IncrementalPrinterTest::print);
+        IStrategoTerm a = var("a");
+        IStrategoTerm parent = add(a, var("b"));
+        IStrategoTerm term = add(a, var("c"));
+
+        printer.print(parent);
+
+        int fullPrints = printer.getFullPrints();
+
+        assertEquals(print(term), printer.print(term, parent));
+        assertEquals(1, printer.getIncrementalPrints());
+
+        // Only the children of the parent are printed to locate them, the candidate itself is not printed
+        assertEquals(fullPrints + 2, printer.getFullPrints());
+    }
+
+    @Test
+    public void testKeyword() {
+        // The text of the variable also occurs in the keyword, but only as part of a longer token
+        IncrementalPrinter printer = new IncrementalPrinter(IncrementalPrinterTest::print);
+        IStrategoTerm body = var("e");
+        IStrategoTerm parent = let(termFactory.makeString("e"), var("e"), body);
+        IStrategoTerm term = let(termFactory.makeString("x"), var("e"), body);
+
+        assertEquals("let e = e in e", printer.print(parent));
+        assertEquals("let x = e in e", printer.print(term, parent));
+        assertEquals(1, printer.getIncrementalPrints());
+    }
+
+    @Test
+    public void testAdjacentTokens() {
+        IncrementalPrinter printer = new IncrementalPrinter(IncrementalPrinterTest::print);
+        IStrategoTerm parent = neg(var("a"));
+        IStrategoTerm term = neg(var("b"));
+
+        assertEquals("-a", printer.print(parent));
+        assertEquals("-b", printer.print(term, parent));
+        assertEquals(1, printer.getIncrementalPrints());
+    }
+
+    @Test
+    public void testUnlocated() {
+        // The text of the child does not occur in the text of the parent, so the candidate is printed in full
+        IncrementalPrinter printer = new IncrementalPrinter(IncrementalPrinterTest::print);
+        IStrategoTerm parent = upper(termFactory.makeString("a"));
+        IStrategoTerm term = upper(termFactory.makeString("b"));
+
+        assertEquals("A", printer.print(parent));
+        assertEquals("B", printer.print(term, parent));
+        assertEquals(0, printer.getIncrementalPrints());
+        assertEquals(2, printer.getFullPrints());
+    }
+
+    @Test
+    public void testOtherConstructor() {
+        IncrementalPrinter printer = new IncrementalPrinter(IncrementalPrinterTest::print);
+        IStrategoTerm a = var("a");
+        IStrategoTerm parent = add(a, var("b"));
+        IStrategoTerm term = add(a, neg(var("b")));
+
+        printer.print(parent);
+
+        assertEquals("a + -b", printer.print(term, parent));
+        assertEquals(1, printer.getIncrementalPrints());
+    }
+
+    @Test
+    public void testWithPrinter() {
+        IncrementalPrinter printer = new IncrementalPrinter(IncrementalPrinterTest::print);
+        IncrementalPrinter other = printer.withPrinter(term -> {
+            throw new IllegalStateException("The memoized text should be used");
+        });
+        IStrategoTerm term = add(var("a"), var("b"));
+
+        printer.print(term);
+
+        assertEquals("a + b", other.print(term));
+        assertEquals(1, other.getFullPrints());
+    }
+
+    private IStrategoTerm var(String name) {
+        return appl("Var", termFactory.makeString(name));
+    }
+
+    private IStrategoTerm add(IStrategoTerm left, IStrategoTerm right) {
+        return appl("Add", left, right);
+    }
+
+    private IStrategoTerm neg(IStrategoTerm term) {
+        return appl("Neg", term);
+    }
+
+    private IStrategoTerm let(IStrategoTerm name, IStrategoTerm value, IStrategoTerm body) {
+        return appl("Let", name, value, body);
+    }
+
+    private IStrategoTerm upper(IStrategoTerm name) {
+        return appl("Upper", name);
+    }
+
+    private IStrategoTerm appl(String constructor, IStrategoTerm... children) {
+        return termFactory.makeAppl(termFactory.makeConstructor(constructor, children.length), children);
+    }
+
+    private static String print(IStrategoTerm term) {
+        if (term instanceof IStrategoString) {
+            return ((IStrategoString) term).stringValue();
+        }
+
+        String[] children = Arrays.stream(term.getAllSubterms())
+                .map(IncrementalPrinterTest::print)
+                .toArray(String[]::new);
+
+        if (!(term instanceof IStrategoAppl)) {
+            return Arrays.stream(children).collect(Collectors.joining(", "));
+        }
+
+        switch (((IStrategoAppl) term).getConstructor().getName()) {
+            case "Var":
+                return children[0];
+            case "Add":
+                return children[0] + " + " + children[1];
+            case "Neg":
+                return "-" + children[0];
+            case "Let":
+                return "let " + children[0] + " = " + children[1] + " in " + children[2];
+            case "Upper":
+                return children[0].toUpperCase();
+            default:
+                throw new PrinterRuntimeException("Unable to print " + term);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package org.metaborg.spg.sentence.printer;
+
+import org.junit.jupiter.api.Test;
+import org.metaborg.spg.sentence.generator.CompiledGrammar;
+import org.metaborg.spg.sentence.generator.GrammarBuilder;
+import org.spoofax.interpreter.terms.IStrategoTerm;
+import org.spoofax.interpreter.terms.ITermFactory;
+import org.spoofax.terms.TermFactory;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TemplatePrinterTest {
+    private final ITermFactory termFactory = new TermFactory();
+    private final CompiledGrammar grammar = createGrammar();
+    private final AtomicInteger fallbackPrints = new AtomicInteger();
+
+    @Test
+    public void testTemplate() {
+        TemplatePrinter printer = new TemplatePrinter(grammar, this::fallback);
+
+        assertEquals("print 1 ;", printer.print(print(num("1"))));
+        assertEquals(0, printer.getFallbacks());
+    }
+
+    @Test
+    public void testList() {
+        TemplatePrinter printer = new TemplatePrinter(grammar, this::fallback);
+        IStrategoTerm block = appl("Block", termFactory.makeList(print(num("1")), print(num("2"))));
+
+        assertEquals("{ print 1 ; print 2 ; }", printer.print(block));
+        assertEquals("{ }", printer.print(appl("Block", termFactory.makeList())));
+        assertEquals(0, printer.getFallbacks());
+    }
+
+    @Test
+    public void testOpenRoot() {
+        // The root is never parenthesized, and its children are closed
+        TemplatePrinter printer = new TemplatePrinter(grammar, this::fallback);
+
+        assertEquals("1 + 2", printer.print(add(num("1"), num("2"))));
+        assertEquals("- 1", printer.print(neg(num("1"))));
+        assertEquals(0, printer.getFallbacks());
+    }
+
+    @Test
+    public void testClosedChild() {
+        TemplatePrinter printer = new TemplatePrinter(grammar, this::fallback);
+
+        assertEquals("( 1 ) * 2", printer.print(mul(paren(num("1")), num("2"))));
+        assertEquals(0, printer.getFallbacks());
+    }
+
+    @Test
+    public void testOpenChild() {
+        // Without priorities, only the Stratego printer knows whether Add needs brackets in Mul
+        TemplatePrinter printer = new TemplatePrinter(grammar, this::fallback);
+        IStrategoTerm term = mul(add(num("1"), num("2")), num("3"));
+
+        assertEquals(fallback(term), printer.print(term));
+        assertEquals(1, printer.getFallbacks());
+        assertEquals(2, fallbackPrints.get());
+    }
+
+    @Test
+    public void testOpenChildInStatement() {
+        TemplatePrinter printer = new TemplatePrinter(grammar, this::fallback);
+        IStrategoTerm term = print(neg(num("1")));
+
+        assertEquals(fallback(term), printer.print(term));
+        assertEquals(1, printer.getFallbacks());
+    }
+
+    @Test
+    public void testUnknownConstructor() {
+        TemplatePrinter printer = new TemplatePrinter(grammar, this::fallback);
+        IStrategoTerm term = print(appl("Var", termFactory.makeString("x")));
+
+        assertEquals(fallback(term), printer.print(term));
+        assertEquals(1, printer.getFallbacks());
+    }
+
+    @Test
+    public void testValidate() {
+        TemplatePrinter printer = new TemplatePrinter(grammar, term -> "print 1;", true);
+
+        assertEquals("print 1 ;", printer.print(print(num("1"))));
+        assertEquals(0, printer.getMismatches());
+
+        TemplatePrinter mismatchingPrinter = new TemplatePrinter(grammar, term -> "print(1);", true);
+
+        assertEquals("print(1);", mismatchingPrinter.print(print(num("1"))));
+        assertEquals(1, mismatchingPrinter.getMismatches());
+    }
+
+    private String fallback(IStrategoTerm term) {
+        fallbackPrints.incrementAndGet();
+
+        return "fallback " + term;
+    }
+
+    private IStrategoTerm num(String text) {
+        return appl("Num", termFactory.makeString(text));
+    }
+
+    private IStrategoTerm add(IStrategoTerm left, IStrategoTerm right) {
+        return appl("Add", left, right);
+    }
+
+    private IStrategoTerm mul(IStrategoTerm left, IStrategoTerm right) {
+        return appl("Mul", left, right);
+    }
+
+    private IStrategoTerm neg(IStrategoTerm term) {
+        return appl("Neg", term);
+    }
+
+    private IStrategoTerm paren(IStrategoTerm term) {
+        return appl("Paren", term);
+    }
+
+    private IStrategoTerm print(IStrategoTerm term) {
+        return appl("Print", term);
+    }
+
+    private IStrategoTerm appl(String constructor, IStrategoTerm... children) {
+        return termFactory.makeAppl(termFactory.makeConstructor(constructor, children.length), children);
+    }
+
+    /**
+     * Statements and expressions with a bracket production for expressions. The explicit Paren constructor is closed,
+     * so it never needs brackets itself.
+     */
+    private static CompiledGrammar createGrammar() {
+        GrammarBuilder builder = new GrammarBuilder();
+        int stmt = builder.sort("Stmt");
+        int exp = builder.sort("Exp");
+        int num = builder.lexical("NUM");
+        int stmts = builder.iterStar(stmt);
+        int plus = builder.literal("+");
+        int times = builder.literal("*");
+        int minus = builder.literal("-");
+        int open = builder.literal("(");
+        int close = builder.literal(")");
+        builder.template(stmt, "Print", builder.literal("print"), exp, builder.literal(";"));
+        builder.template(stmt, "Block", builder.literal("{"), stmts, builder.literal("}"));
+        builder.template(exp, "Num", num);
+        builder.template(exp, "Add", exp, plus, exp);
+        builder.template(exp, "Mul", exp, times, exp);
+        builder.template(exp, "Neg", minus, exp);
+        builder.template(exp, "Paren", open, exp, close);
+        builder.bracket(builder.template(exp, null, open, exp, close));
+
+        return builder.build();
+    }
+}
@@ -0,0 +1,134 @@
+package org.metaborg.spg.sentence.signature;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SignatureTest {
+    @Test
+    public void testSorts() {
+        Signature signature = new Signature(Arrays.asList(
+                inj(sort("Foo"), sort("Bar")),
+                inj(sort("Baz"), sort("Bar"))
+        ));
+
+        Set<Sort> sorts = signature.getSorts().collect(Collectors.toSet());
+
+        assertEquals(new HashSet<>(Arrays.asList(sort("Foo"), sort("Bar"), sort("Baz"))), sorts);
+    }
+
+    @Test
+    public void testInjection() {
+        Signature signature = new Signature(Arrays.asList(
+                inj(sort("Foo"), sort("Bar")),
+                inj(sort("Baz"), sort("Bar"))
+        ));
+
+        Set<Sort> subsorts = signature.injections(sort("Bar")).collect(Collectors.toSet());
+
+        assertEquals(new HashSet<>(Arrays.asList(sort("Foo"), sort("Baz"))), subsorts);
+    }
+
+    @Test
+    public void testTransitiveInjection() {
+        Signature signature = new Signature(Arrays.asList(
+                inj(sort("Foo"), sort("Bar")),
+                inj(sort("Baz"), sort("Bar"))
+        ));
+
+        Set<Sort> subsorts = signature.getInjections(sort("Bar"));
+
+        assertEquals(new HashSet<>(Arrays.asList(sort("Foo"), sort("Bar"), sort("Baz"))), subsorts);
+    }
+
+    @Test
+    public void testChainInjection() {
+        Signature signature = new Signature(Arrays.asList(
+                inj(sort("A"), sort("B")),
+                inj(sort("B"), sort("C")),
+                inj(sort("C"), sort("D"))
+        ));
+
+        assertEquals(sorts("A", "B", "C", "D"), signature.getInjections(sort("D")));
+        assertEquals(sorts("A", "B"), signature.getInjections(sort("B")));
+        assertEquals(sorts("A"), signature.getInjections(sort("A")));
+        assertTrue(signature.isInjection(sort("D"), sort("A")));
+        assertFalse(signature.isInjection(sort("A"), sort("D")));
+    }
+
+    @Test
+    public void testCyclicInjection() {
+        // A, B and C inject into each other, and D injects into the cycle
+        Signature signature = new Signature(Arrays.asList(
+                inj(sort("A"), sort("B")),
+                inj(sort("B"), sort("C")),
+                inj(sort("C"), sort("A")),
+                inj(sort("D"), sort("C")),
+                inj(sort("A"), sort("E"))
+        ));
+
+        Set<Sort> cycle = sorts("A", "B", "C", "D");
+
+        assertEquals(cycle, signature.getInjections(sort("A")));
+        assertEquals(cycle, signature.getInjections(sort("B")));
+        assertEquals(cycle, signature.getInjections(sort("C")));
+        assertEquals(sorts("D"), signature.getInjections(sort("D")));
+        assertEquals(sorts("A", "B", "C", "D", "E"), signature.getInjections(sort("E")));
+        assertFalse(signature.isInjection(sort("A"), sort("E")));
+    }
+
+    @Test
+    public void testSelfInjection() {
+        Signature signature = new Signature(Collections.singletonList(
+                inj(sort("A"), sort("A"))
+        ));
+
+        assertEquals(sorts("A"), signature.getInjections(sort("A")));
+    }
+
+    @Test
+    public void testDiamondInjection() {
+        // D injects into A through both B and C
+        Signature signature = new Signature(Arrays.asList(
+                inj(sort("B"), sort("A")),
+                inj(sort("C"), sort("A")),
+                inj(sort("D"), sort("B")),
+                inj(sort("D"), sort("C"))
+        ));
+
+        assertEquals(sorts("A", "B", "C", "D"), signature.getInjections(sort("A")));
+        assertEquals(sorts("B", "D"), signature.getInjections(sort("B")));
+        assertEquals(sorts("C", "D"), signature.getInjections(sort("C")));
+        assertFalse(signature.isInjection(sort("B"), sort("C")));
+    }
+
+    @Test
+    public void testUnknownSort() {
+        Signature signature = new Signature(Collections.singletonList(
+                inj(sort("A"), sort("B"))
+        ));
+
+        assertEquals(Collections.emptySet(), signature.getInjections(sort("C")));
+        assertFalse(signature.isInjection(sort("C"), sort("C")));
+    }
+
+    private Set<Sort> sorts(String... names) {
+        return Arrays.stream(names).map(this::sort).collect(Collectors.toSet());
+    }
+
+    private Operation inj(Sort s1, Sort s2) {
+        return new Injection(s1, s2);
+    }
+
+    private Sort sort(String name) {
+        return new Sort(name);
+    }
+}
@@ -0,0 +1,72 @@
+package org.metaborg.spg.sentence.shared.concurrent;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Predicate;
+
+/**
+ * Finds the first element of a sequence that satisfies a predicate, testing a window of elements concurrently.
+ *
+ * The result is the element that a sequential search would find: elements are decided in sequence order, and a later
+ * element that succeeds early only wins once all earlier elements have failed. As soon as the result is known, the
+ * tests of the remaining elements in the window are cancelled.
+ */
+public class OrderedSearch {
+    public static <T> Optional<T> findFirst(Iterator<T> elements, Predicate<T> predicate, ExecutorService executor,
+            int window) {
+        if (window < 1) {
+            throw new IllegalArgumentException("The window must contain at least one element.");
+        }
+
+        Deque<Candidate<T>> pending = new ArrayDeque<>(window);
+
+        try {
+            while (true) {
+                while (pending.size() < window && elements.hasNext()) {
+                    T element = elements.next();
+
+                    pending.add(new Candidate<>(element, executor.submit(() -> predicate.test(element))));
+                }
+
+                Candidate<T> head = pending.poll();
+
+                if (head == null) {
+                    return Optional.empty();
+                }
+
+                if (head.future.get()) {
+                    return Optional.of(head.element);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+
+            return Optional.empty();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            } else {
+                throw new RuntimeException(e.getCause());
+            }
+        } finally {
+            for (Candidate<T> candidate : pending) {
+                candidate.future.cancel(true);
+            }
+        }
+    }
+
+    private static class Candidate<T> {
+        private final T element;
+        private final Future<Boolean> future;
+
+        private Candidate(T element, Future<Boolean> future) {
+            this.element = element;
+            this.future = future;
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package org.metaborg.spg.sentence.shared.functional;
+
+@FunctionalInterface
+public interface CheckedSupplier<T, E extends Exception> {
+    T get() throws E;
+}
@@ -0,0 +1,104 @@
+package org.metaborg.spg.sentence.shared.parse;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.metaborg.spg.sentence.shared.functional.CheckedFunction;
+import org.metaborg.spg.sentence.shared.utils.HashUtils;
+
+/**
+ * Answers whether a text parses, and caches the answers.
+ *
+ * Verdicts are cached in a bounded LRU cache that is keyed by a 64-bit hash of the text. The text is kept next to its
+ * verdict, so a hash collision is a miss instead of a wrong answer. The cache is shared by all threads; the parser
+ * itself is called outside of the lock, so it must be thread-safe if the oracle is used on multiple threads.
+ */
+public class ParseOracle {
+    public static final int DEFAULT_CAPACITY = 10000;
+
+    private final CheckedFunction<String, Verdict, ? extends Exception> parser;
+    private final Map<Long, Entry> cache;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public ParseOracle(CheckedFunction<String, Verdict, ? extends Exception> parser) {
+        this(parser, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param parser Computes the verdict for a text. An exception is treated as a parse error.
+     */
+    public ParseOracle(CheckedFunction<String, Verdict, ? extends Exception> parser, int capacity) {
+        this.parser = parser;
+        this.cache = new LinkedHashMap<Long, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    public Verdict parse(String text) {
+        long key = HashUtils.hash(text);
+
+        synchronized (cache) {
+            Entry entry = cache.get(key);
+
+            if (entry != null && entry.text.equals(text)) {
+                hits.incrementAndGet();
+
+                return entry.verdict;
+            }
+        }
+
+        misses.incrementAndGet();
+
+        Verdict verdict = compute(text);
+
+        synchronized (cache) {
+            cache.put(key, new Entry(text, verdict));
+        }
+
+        return verdict;
+    }
+
+    public boolean canParse(String text) {
+        return parse(text).isSuccess();
+    }
+
+    public boolean isAmbiguous(String text) {
+        return parse(text) == Verdict.AMBIGUOUS;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    private Verdict compute(String text) {
+        try {
+            return parser.apply(text);
+        } catch (Exception e) {
+            return Verdict.ERROR;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("parse oracle: %d hits, %d misses", getHits(), getMisses());
+    }
+
+    private static class Entry {
+        private final String text;
+        private final Verdict verdict;
+
+        private Entry(String text, Verdict verdict) {
+            this.text = text;
+            this.verdict = verdict;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package org.metaborg.spg.sentence.shared.parse;
+
+import org.metaborg.core.language.ILanguageImpl;
+import org.metaborg.core.syntax.ParseException;
+import org.metaborg.spoofax.core.syntax.ISpoofaxSyntaxService;
+import org.metaborg.spoofax.core.syntax.JSGLRParserConfiguration;
+import org.metaborg.spoofax.core.unit.ISpoofaxInputUnit;
+import org.metaborg.spoofax.core.unit.ISpoofaxParseUnit;
+import org.metaborg.spoofax.core.unit.ISpoofaxUnitService;
+import org.spoofax.interpreter.terms.IStrategoAppl;
+import org.spoofax.interpreter.terms.IStrategoTerm;
+
+/**
+ * Parse oracle for a Spoofax language. A text is ambiguous if its AST contains an amb node. A failed parse that took
+ * at least the timeout of the parser configuration is reported as a timeout.
+ */
+public class SpoofaxParseOracle extends ParseOracle {
+    public SpoofaxParseOracle(ISpoofaxUnitService unitService, ISpoofaxSyntaxService syntaxService,
+            ILanguageImpl languageImpl, JSGLRParserConfiguration config) {
+        this(unitService, syntaxService, languageImpl, config, DEFAULT_CAPACITY);
+    }
+
+    public SpoofaxParseOracle(ISpoofaxUnitService unitService, ISpoofaxSyntaxService syntaxService,
+            ILanguageImpl languageImpl, JSGLRParserConfiguration config, int capacity) {
+        super(text -> verdict(unitService, syntaxService, languageImpl, config, text), capacity);
+    }
+
+    private static Verdict verdict(ISpoofaxUnitService unitService, ISpoofaxSyntaxService syntaxService,
+            ILanguageImpl languageImpl, JSGLRParserConfiguration config, String text) throws ParseException {
+        ISpoofaxInputUnit inputUnit = unitService.inputUnit(text, languageImpl, null, config);
+
+        long start = System.currentTimeMillis();
+        ISpoofaxParseUnit parseUnit = syntaxService.parse(inputUnit);
+        long duration = System.currentTimeMillis() - start;
+
+        if (!parseUnit.success()) {
+            return duration >= config.timeout ? Verdict.TIMEOUT : Verdict.ERROR;
+        }
+
+        if (parseUnit.ast() != null && isAmbiguous(parseUnit.ast())) {
+            return Verdict.AMBIGUOUS;
+        }
+
+        return Verdict.OK;
+    }
+
+    private static boolean isAmbiguous(IStrategoTerm term) {
+        if (term instanceof IStrategoAppl && "amb".equals(((IStrategoAppl) term).getConstructor().getName())) {
+            return true;
+        }
+
+        for (IStrategoTerm subterm : term.getAllSubterms()) {
+            if (isAmbiguous(subterm)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
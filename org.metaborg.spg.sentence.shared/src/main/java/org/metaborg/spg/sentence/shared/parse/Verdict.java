@@ -0,0 +1,30 @@
+package org.metaborg.spg.sentence.shared.parse;
+
+public enum Verdict {
+    /**
+     * The text parses to a single tree.
+     */
+    OK,
+
+    /**
+     * The text parses to more than one tree.
+     */
+    AMBIGUOUS,
+
+    /**
+     * The text does not parse.
+     */
+    ERROR,
+
+    /**
+     * The parser gave up on the text before reaching a verdict.
+     */
+    TIMEOUT;
+
+    /**
+     * @return True if the text is in the language, whether or not it is ambiguous.
+     */
+    public boolean isSuccess() {
+        return this == OK || this == AMBIGUOUS;
+    }
+}
@@ -0,0 +1,74 @@
+package org.metaborg.spg.sentence.shared.shrink;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Orders the subterms that a shrinker tries to reduce by their estimated size reduction, so that big cuts are tried
+ * before small ones. The estimate is the weight of the subterm: its node count, or the length of its printed text.
+ */
+public class CandidateScheduler<T> {
+    private final Function<T, T[]> children;
+    private final ToIntFunction<T> leafWeight;
+    private final int nodeWeight;
+
+    /**
+     * @param children   The children of a node.
+     * @param leafWeight The weight of a node without children.
+     * @param nodeWeight The weight that a node with children adds to the weight of its children.
+     */
+    public CandidateScheduler(Function<T, T[]> children, ToIntFunction<T> leafWeight, int nodeWeight) {
+        this.children = children;
+        this.leafWeight = leafWeight;
+        this.nodeWeight = nodeWeight;
+    }
+
+    /**
+     * A scheduler that estimates the reduction of a subterm by its node count.
+     */
+    public static <T> CandidateScheduler<T> byNodeCount(Function<T, T[]> children) {
+        return new CandidateScheduler<>(children, node -> 1, 1);
+    }
+
+    /**
+     * Order the subterms of the root by decreasing weight. The sort is stable, so subterms of equal weight keep their
+     * relative order (e.g. a random one).
+     */
+    public List<T> schedule(T root, List<T> subterms) {
+        Map<T, Integer> weights = new IdentityHashMap<>();
+        weigh(root, weights);
+
+        return schedule(subterms, subterm -> weights.getOrDefault(subterm, 0));
+    }
+
+    /**
+     * Order the candidates by decreasing weight, for candidates that already know their weight. The sort is stable.
+     */
+    public static <T> List<T> schedule(List<T> candidates, ToIntFunction<T> weight) {
+        List<T> scheduled = new ArrayList<>(candidates);
+        scheduled.sort(Comparator.comparingInt(weight).reversed());
+
+        return scheduled;
+    }
+
+    private int weigh(T node, Map<T, Integer> weights) {
+        T[] nodeChildren = children.apply(node);
+        int weight;
+
+        if (nodeChildren.length == 0) {
+            weight = leafWeight.applyAsInt(node);
+        } else {
+            weight = nodeWeight + Arrays.stream(nodeChildren).mapToInt(child -> weigh(child, weights)).sum();
+        }
+
+        weights.put(node, weight);
+
+        return weight;
+    }
+}
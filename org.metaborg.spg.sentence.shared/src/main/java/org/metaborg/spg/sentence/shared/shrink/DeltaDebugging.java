@@ -0,0 +1,121 @@
+package org.metaborg.spg.sentence.shared.shrink;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Building blocks for delta debugging (ddmin) over sequences and hierarchical delta debugging (HDD) over trees.
+ */
+public class DeltaDebugging {
+    /**
+     * Partition a sequence of the given size into chunks of halving size: first two halves, then four quarters, and
+     * so on, until the chunks are smaller than the minimum chunk size or contain a single element.
+     *
+     * @return The chunks as half-open ranges {@code [from, to)}, from large to small.
+     */
+    public static Stream<int[]> chunks(int size, int minChunk) {
+        List<Integer> chunkSizes = new ArrayList<>();
+
+        for (int granularity = 2; size > 0; granularity *= 2) {
+            int chunk = (size + granularity - 1) / granularity;
+
+            if (chunk < minChunk) {
+                break;
+            }
+
+            chunkSizes.add(chunk);
+
+            if (chunk == 1) {
+                break;
+            }
+        }
+
+        return chunkSizes.stream().flatMap(chunk ->
+                IntStream.iterate(0, from -> from + chunk).limit((size + chunk - 1) / chunk).mapToObj(from ->
+                        new int[] { from, Math.min(from + chunk, size) }
+                )
+        );
+    }
+
+    /**
+     * Partition the elements into chunks of halving size, down to single elements.
+     */
+    public static <T> Stream<List<T>> chunks(List<T> elements) {
+        return chunks(elements.size(), 1).map(range -> elements.subList(range[0], range[1]));
+    }
+
+    /**
+     * Reduce the elements to a 1-minimal subsequence that passes the test (ddmin). The elements are split into a
+     * growing number of chunks; the search continues with the first chunk or complement of a chunk that passes the
+     * test, until no single element can be removed.
+     *
+     * @param elements Elements that pass the test.
+     * @return The smallest subsequence that was found to pass the test.
+     */
+    public static <T> List<T> ddmin(List<T> elements, Predicate<List<T>> test) {
+        List<T> current = elements;
+        int granularity = 2;
+
+        while (current.size() >= 2) {
+            int size = current.size();
+            int chunk = (size + granularity - 1) / granularity;
+            List<T> reduced = null;
+
+            for (int from = 0; from < size && reduced == null; from += chunk) {
+                List<T> subset = current.subList(from, Math.min(from + chunk, size));
+
+                if (test.test(subset)) {
+                    reduced = subset;
+                    granularity = 2;
+                }
+            }
+
+            for (int from = 0; from < size && reduced == null && granularity > 2; from += chunk) {
+                List<T> complement = new ArrayList<>(current.subList(0, from));
+                complement.addAll(current.subList(Math.min(from + chunk, size), size));
+
+                if (test.test(complement)) {
+                    reduced = complement;
+                    granularity = granularity - 1;
+                }
+            }
+
+            if (reduced != null) {
+                current = new ArrayList<>(reduced);
+            } else if (granularity >= size) {
+                break;
+            } else {
+                granularity = Math.min(size, granularity * 2);
+            }
+        }
+
+        return current;
+    }
+
+    /**
+     * @return The nodes of the tree grouped by depth, starting with a level that contains only the root.
+     */
+    public static <T> List<List<T>> levels(T root, Function<T, List<T>> children) {
+        List<List<T>> levels = new ArrayList<>();
+        List<T> level = Collections.singletonList(root);
+
+        while (!level.isEmpty()) {
+            levels.add(level);
+
+            List<T> next = new ArrayList<>();
+
+            for (T node : level) {
+                next.addAll(children.apply(node));
+            }
+
+            level = next;
+        }
+
+        return levels;
+    }
+}
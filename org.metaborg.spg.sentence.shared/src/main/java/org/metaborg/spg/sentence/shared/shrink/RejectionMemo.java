@@ -0,0 +1,115 @@
+package org.metaborg.spg.sentence.shared.shrink;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+import org.metaborg.spg.sentence.shared.utils.HashUtils;
+import org.spoofax.interpreter.terms.IStrategoTerm;
+
+/**
+ * Remembers the shrink candidates that were rejected, so that later shrink rounds do not test them again.
+ *
+ * After every successful reduction a shrinker starts over on the smaller term, and most of its candidates are the same
+ * as in the previous round. A memo records the 64-bit hash of every rejected candidate in a bounded LRU set, and a
+ * candidate with a recorded hash is rejected without printing or parsing it. Only the hashes are kept, so a hash
+ * collision rejects a candidate that was never tested; with 64-bit hashes this is rare enough to accept during
+ * shrinking. A memo is only valid for a single property, e.g. one shrink run. It is safe to share between threads.
+ */
+public class RejectionMemo<T> {
+    public static final int DEFAULT_CAPACITY = 100000;
+
+    private final ToLongFunction<T> hasher;
+    private final Map<Long, Boolean> rejected;
+    private final AtomicLong skips = new AtomicLong();
+    private final AtomicLong tests = new AtomicLong();
+
+    public RejectionMemo(ToLongFunction<T> hasher) {
+        this(hasher, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param hasher   Computes the hash of a candidate.
+     * @param capacity The maximum number of rejections to remember.
+     */
+    public RejectionMemo(ToLongFunction<T> hasher, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("A rejection memo needs a capacity of at least one.");
+        }
+
+        this.hasher = hasher;
+        this.rejected = new LinkedHashMap<Long, Boolean>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Boolean> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * A memo for terms, keyed by the structure of the term.
+     */
+    public static RejectionMemo<IStrategoTerm> ofTerms() {
+        return new RejectionMemo<>(HashUtils::hash);
+    }
+
+    /**
+     * A memo for candidates that are keyed by their text, e.g. candidates that are cheap to print.
+     */
+    public static <T> RejectionMemo<T> ofTexts(Function<T, String> text) {
+        return new RejectionMemo<>(candidate -> HashUtils.hash(text.apply(candidate)));
+    }
+
+    /**
+     * Test the candidate, unless it was rejected before. A candidate that fails the test is remembered.
+     */
+    public boolean test(T candidate, Predicate<T> predicate) {
+        long key = hasher.applyAsLong(candidate);
+
+        synchronized (rejected) {
+            if (rejected.get(key) != null) {
+                skips.incrementAndGet();
+
+                return false;
+            }
+        }
+
+        tests.incrementAndGet();
+
+        if (predicate.test(candidate)) {
+            return true;
+        }
+
+        synchronized (rejected) {
+            rejected.put(key, Boolean.TRUE);
+        }
+
+        return false;
+    }
+
+    /**
+     * @return The predicate, restricted to candidates that were not rejected before.
+     */
+    public Predicate<T> filter(Predicate<T> predicate) {
+        return candidate -> test(candidate, predicate);
+    }
+
+    /**
+     * @return The number of candidates that were rejected without testing them.
+     */
+    public long getSkips() {
+        return skips.get();
+    }
+
+    public long getTests() {
+        return tests.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("rejection memo: %d skips, %d tests", getSkips(), getTests());
+    }
+}
@@ -0,0 +1,131 @@
+package org.metaborg.spg.sentence.shared.shrink;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Limits the wall-clock time and the number of candidate tests that a shrinker may spend.
+ *
+ * A budget is an immutable configuration; every shrink run starts its own {@link Meter}. When the meter runs out, the
+ * shrinker stops and returns the best result so far, which is then not necessarily a local minimum.
+ */
+public class ShrinkBudget {
+    public static final ShrinkBudget UNLIMITED = new ShrinkBudget(0, 0);
+
+    private final long timeLimit;
+    private final long maxTests;
+
+    /**
+     * @param timeLimit The wall-clock budget in milliseconds, or 0 for no limit.
+     * @param maxTests  The maximum number of candidates to test, or 0 for no limit.
+     */
+    public ShrinkBudget(long timeLimit, long maxTests) {
+        if (timeLimit < 0 || maxTests < 0) {
+            throw new IllegalArgumentException("A shrink budget cannot be negative.");
+        }
+
+        this.timeLimit = timeLimit;
+        this.maxTests = maxTests;
+    }
+
+    public long getTimeLimit() {
+        return timeLimit;
+    }
+
+    public long getMaxTests() {
+        return maxTests;
+    }
+
+    public boolean isUnlimited() {
+        return timeLimit == 0 && maxTests == 0;
+    }
+
+    /**
+     * Start metering a shrink run. The clock starts now.
+     */
+    public Meter start() {
+        return new Meter();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("shrink budget: %d ms, %d tests", timeLimit, maxTests);
+    }
+
+    /**
+     * Tracks the time and tests that a shrink run has spent. A meter is safe to share between threads.
+     */
+    public class Meter {
+        private final long start = System.currentTimeMillis();
+        private final AtomicLong tests = new AtomicLong();
+
+        private Meter() {
+        }
+
+        public boolean isExhausted() {
+            if (maxTests != 0 && tests.get() >= maxTests) {
+                return true;
+            }
+
+            return timeLimit != 0 && System.currentTimeMillis() - start >= timeLimit;
+        }
+
+        /**
+         * @return The predicate, counting every test against this meter.
+         */
+        public <T> Predicate<T> count(Predicate<T> predicate) {
+            return candidate -> {
+                tests.incrementAndGet();
+
+                return predicate.test(candidate);
+            };
+        }
+
+        /**
+         * @return The elements of the iterator until this meter is exhausted.
+         */
+        public <T> Iterator<T> limit(Iterator<T> elements) {
+            return new Iterator<T>() {
+                @Override
+                public boolean hasNext() {
+                    return !isExhausted() && elements.hasNext();
+                }
+
+                @Override
+                public T next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+
+                    return elements.next();
+                }
+            };
+        }
+
+        /**
+         * @return The elements of the stream until this meter is exhausted.
+         */
+        public <T> Stream<T> limit(Stream<T> elements) {
+            Spliterator<T> spliterator = Spliterators.spliteratorUnknownSize(limit(elements.iterator()), Spliterator.ORDERED);
+
+            return StreamSupport.stream(spliterator, false).onClose(elements::close);
+        }
+
+        public long getTests() {
+            return tests.get();
+        }
+
+        /**
+         * @return The time in milliseconds since the meter was started.
+         */
+        public long getTime() {
+            return System.currentTimeMillis() - start;
+        }
+    }
+}
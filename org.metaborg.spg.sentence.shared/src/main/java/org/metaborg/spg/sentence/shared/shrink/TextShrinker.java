@@ -0,0 +1,105 @@
+package org.metaborg.spg.sentence.shared.shrink;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Shrinks a sentence at the level of tokens, after the tree-based shrinkers have reached the minimum that the grammar
+ * allows.
+ *
+ * The sentence is split into tokens: runs of letters and digits, and single other characters. The tokens are reduced
+ * with ddmin, where a candidate is the text of the remaining tokens. Tokens that were adjacent in the sentence stay
+ * adjacent, so multi-character operators survive; all other tokens are separated by a single space, which also
+ * removes redundant layout. The property is typically answered by a parse oracle (e.g. still ambiguous), so the
+ * shrinker never prints a term.
+ */
+public class TextShrinker {
+    private final Predicate<String> property;
+
+    /**
+     * @param property The property that the shrunk sentence must keep.
+     */
+    public TextShrinker(Predicate<String> property) {
+        this.property = property;
+    }
+
+    /**
+     * @return The smallest sentence that was found to keep the property, or the sentence itself if it cannot be
+     * shrunk.
+     */
+    public String shrink(String sentence) {
+        List<Token> tokens = tokenize(sentence);
+
+        if (!property.test(join(tokens))) {
+            return sentence;
+        }
+
+        String shrunk = join(DeltaDebugging.ddmin(tokens, candidate -> property.test(join(candidate))));
+
+        return shrunk.length() < sentence.length() ? shrunk : sentence;
+    }
+
+    private static List<Token> tokenize(String sentence) {
+        List<Token> tokens = new ArrayList<>();
+        boolean spaced = false;
+        int i = 0;
+
+        while (i < sentence.length()) {
+            char c = sentence.charAt(i);
+            int start = i;
+
+            if (Character.isWhitespace(c)) {
+                spaced = true;
+                i++;
+
+                continue;
+            }
+
+            if (isWordCharacter(c)) {
+                while (i < sentence.length() && isWordCharacter(sentence.charAt(i))) {
+                    i++;
+                }
+            } else {
+                i++;
+            }
+
+            tokens.add(new Token(sentence.substring(start, i), tokens.size(), spaced));
+            spaced = false;
+        }
+
+        return tokens;
+    }
+
+    private static boolean isWordCharacter(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+
+    private static String join(List<Token> tokens) {
+        StringBuilder builder = new StringBuilder();
+        Token previous = null;
+
+        for (Token token : tokens) {
+            if (previous != null && (token.spaced || token.index != previous.index + 1)) {
+                builder.append(' ');
+            }
+
+            builder.append(token.text);
+            previous = token;
+        }
+
+        return builder.toString();
+    }
+
+    private static class Token {
+        private final String text;
+        private final int index;
+        private final boolean spaced;
+
+        private Token(String text, int index, boolean spaced) {
+            this.text = text;
+            this.index = index;
+            this.spaced = spaced;
+        }
+    }
+}
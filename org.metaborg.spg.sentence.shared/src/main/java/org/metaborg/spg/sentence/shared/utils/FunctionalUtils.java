@@ -4,10 +4,12 @@ import java.util.Iterator;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 import org.metaborg.spg.sentence.shared.functional.CheckedConsumer;
 import org.metaborg.spg.sentence.shared.functional.CheckedFunction;
 import org.metaborg.spg.sentence.shared.functional.CheckedPredicate;
+import org.metaborg.spg.sentence.shared.functional.CheckedSupplier;
 import org.metaborg.util.tuple.Tuple2;
 
 public class FunctionalUtils {
@@ -67,4 +69,18 @@ public class FunctionalUtils {
             }
         };
     }
+
+    public static <T, E extends Exception> Supplier<T> uncheckSupplier(CheckedSupplier<T, E> supplier) {
+        return () -> {
+            try {
+                return supplier.get();
+            } catch (Exception ex) {
+                if (ex instanceof RuntimeException) {
+                    throw (RuntimeException) ex;
+                } else {
+                    throw new RuntimeException(ex);
+                }
+            }
+        };
+    }
 }
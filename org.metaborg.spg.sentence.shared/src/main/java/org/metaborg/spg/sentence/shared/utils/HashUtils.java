@@ -0,0 +1,97 @@
+package org.metaborg.spg.sentence.shared.utils;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import org.spoofax.interpreter.terms.IStrategoAppl;
+import org.spoofax.interpreter.terms.IStrategoList;
+import org.spoofax.interpreter.terms.IStrategoString;
+import org.spoofax.interpreter.terms.IStrategoTerm;
+
+/**
+ * 64-bit FNV-1a hashes of texts and terms. The hashes are not cryptographic; callers that cannot tolerate a collision
+ * must compare the hashed values as well. For keys that must not collide, e.g. of files on disk, use {@link #sha256}.
+ */
+public class HashUtils {
+    private static final long OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long PRIME = 0x100000001b3L;
+
+    /**
+     * @return The hash of the characters of the text.
+     */
+    public static long hash(String text) {
+        return hash(OFFSET_BASIS, text);
+    }
+
+    /**
+     * @return The hash of the structure of the term: constructor names, arities, list lengths, and string values. The
+     * hash does not depend on attachments or annotations, so it does not print the term.
+     */
+    public static long hash(IStrategoTerm term) {
+        return hash(OFFSET_BASIS, term);
+    }
+
+    /**
+     * @return A new SHA-256 digest, for hashing input that is not a single text, e.g. several files.
+     */
+    public static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available.", e);
+        }
+    }
+
+    /**
+     * @return The bytes as a lowercase hexadecimal string.
+     */
+    public static String hex(byte[] bytes) {
+        StringBuilder builder = new StringBuilder(bytes.length * 2);
+
+        for (byte b : bytes) {
+            builder.append(String.format("%02x", b));
+        }
+
+        return builder.toString();
+    }
+
+    private static long hash(long hash, IStrategoTerm term) {
+        if (term instanceof IStrategoString) {
+            hash = mix(hash, 's');
+            hash = hash(hash, ((IStrategoString) term).stringValue());
+        } else if (term instanceof IStrategoAppl) {
+            hash = mix(hash, 'a');
+            hash = hash(hash, ((IStrategoAppl) term).getConstructor().getName());
+        } else if (term instanceof IStrategoList) {
+            hash = mix(hash, 'l');
+        } else {
+            hash = mix(hash, 't');
+            hash = hash(hash, term.toString());
+        }
+
+        hash = mix(hash, term.getSubtermCount());
+
+        if (!(term instanceof IStrategoString)) {
+            for (int i = 0; i < term.getSubtermCount(); i++) {
+                hash = hash(hash, term.getSubterm(i));
+            }
+        }
+
+        return hash;
+    }
+
+    private static long hash(long hash, String text) {
+        for (int i = 0; i < text.length(); i++) {
+            hash = mix(hash, text.charAt(i));
+        }
+
+        return mix(hash, text.length());
+    }
+
+    private static long mix(long hash, int value) {
+        hash ^= value;
+        hash *= PRIME;
+
+        return hash;
+    }
+}
@@ -0,0 +1,107 @@
+package org.metaborg.spg.sentence.shared.concurrent;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class OrderedSearchTest {
+    private static final long TIMEOUT = 10;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testEarlierCandidateWins() throws InterruptedException {
+        CountDownLatch laterPassed = new CountDownLatch(1);
+        CountDownLatch blockedStarted = new CountDownLatch(1);
+        CountDownLatch blockedCancelled = new CountDownLatch(1);
+
+        // 2 passes first, 1 passes after it, and 3 blocks until it is cancelled
+        Optional<Integer> result = OrderedSearch.findFirst(Arrays.asList(0, 1, 2, 3).iterator(), element -> {
+            switch (element) {
+                case 0:
+                    await(laterPassed);
+                    await(blockedStarted);
+
+                    return false;
+                case 1:
+                    await(laterPassed);
+
+                    return true;
+                case 2:
+                    laterPassed.countDown();
+
+                    return true;
+                default:
+                    blockedStarted.countDown();
+
+                    try {
+                        Thread.sleep(TimeUnit.SECONDS.toMillis(TIMEOUT));
+                    } catch (InterruptedException e) {
+                        blockedCancelled.countDown();
+                    }
+
+                    return false;
+            }
+        }, executor, 4);
+
+        assertEquals(Optional.of(1), result);
+        assertTrue(blockedCancelled.await(TIMEOUT, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testWindow() {
+        // A window of one tests the elements one by one, so the search stops at the first element that passes
+        Optional<Integer> result = OrderedSearch.findFirst(Arrays.asList(1, 2, 3, 4).iterator(), element -> {
+            assertTrue(element <= 2);
+
+            return element == 2;
+        }, executor, 1);
+
+        assertEquals(Optional.of(2), result);
+        assertThrows(IllegalArgumentException.class, () ->
+                OrderedSearch.findFirst(Collections.emptyIterator(), element -> true, executor, 0));
+    }
+
+    @Test
+    public void testNotFound() {
+        assertFalse(OrderedSearch.findFirst(Arrays.asList(1, 2, 3).iterator(), element -> false, executor, 2).isPresent());
+        assertFalse(OrderedSearch.findFirst(Collections.emptyIterator(), element -> true, executor, 2).isPresent());
+    }
+
+    @Test
+    public void testException() {
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () ->
+                OrderedSearch.findFirst(Arrays.asList(1, 2).iterator(), element -> {
+                    throw new IllegalStateException("Predicate failed");
+                }, executor, 2));
+
+        assertEquals("Predicate failed", exception.getMessage());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            if (!latch.await(TIMEOUT, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Timed out waiting for another candidate");
+            }
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
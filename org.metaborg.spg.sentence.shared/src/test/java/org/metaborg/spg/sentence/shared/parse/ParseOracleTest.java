@@ -0,0 +1,96 @@
+package org.metaborg.spg.sentence.shared.parse;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ParseOracleTest {
+    private final List<String> parsed = new ArrayList<>();
+
+    @Test
+    public void testCacheHit() {
+        ParseOracle oracle = new ParseOracle(this::parse);
+
+        assertEquals(Verdict.OK, oracle.parse("a"));
+        assertEquals(Verdict.OK, oracle.parse("a"));
+        assertEquals(Arrays.asList("a"), parsed);
+        assertEquals(1, oracle.getHits());
+        assertEquals(1, oracle.getMisses());
+    }
+
+    @Test
+    public void testEviction() {
+        ParseOracle oracle = new ParseOracle(this::parse, 2);
+
+        oracle.parse("a");
+        oracle.parse("b");
+
+        // Using a makes b the least recently used text, so c evicts b
+        oracle.parse("a");
+        oracle.parse("c");
+
+        assertEquals(Arrays.asList("a", "b", "c"), parsed);
+
+        oracle.parse("a");
+        oracle.parse("c");
+
+        assertEquals(Arrays.asList("a", "b", "c"), parsed);
+
+        oracle.parse("b");
+
+        assertEquals(Arrays.asList("a", "b", "c", "b"), parsed);
+        assertEquals(3, oracle.getHits());
+        assertEquals(4, oracle.getMisses());
+    }
+
+    @Test
+    public void testVerdicts() {
+        ParseOracle oracle = new ParseOracle(this::parse);
+
+        assertTrue(oracle.canParse("a"));
+        assertFalse(oracle.isAmbiguous("a"));
+
+        assertTrue(oracle.canParse("amb"));
+        assertTrue(oracle.isAmbiguous("amb"));
+
+        assertFalse(oracle.canParse("error"));
+        assertFalse(oracle.isAmbiguous("error"));
+
+        assertFalse(oracle.canParse("timeout"));
+        assertFalse(oracle.isAmbiguous("timeout"));
+    }
+
+    @Test
+    public void testException() {
+        ParseOracle oracle = new ParseOracle(this::parse);
+
+        assertEquals(Verdict.ERROR, oracle.parse("throw"));
+
+        // The error is cached like any other verdict
+        assertEquals(Verdict.ERROR, oracle.parse("throw"));
+        assertEquals(1, parsed.size());
+    }
+
+    private Verdict parse(String text) throws Exception {
+        parsed.add(text);
+
+        switch (text) {
+            case "amb":
+                return Verdict.AMBIGUOUS;
+            case "error":
+                return Verdict.ERROR;
+            case "timeout":
+                return Verdict.TIMEOUT;
+            case "throw":
+                throw new Exception("Unable to parse " + text);
+            default:
+                return Verdict.OK;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package org.metaborg.spg.sentence.shared.parse;
+
+import org.junit.jupiter.api.Test;
+import org.metaborg.spoofax.core.syntax.ISpoofaxSyntaxService;
+import org.metaborg.spoofax.core.syntax.JSGLRParserConfiguration;
+import org.metaborg.spoofax.core.unit.ISpoofaxInputUnit;
+import org.metaborg.spoofax.core.unit.ISpoofaxParseUnit;
+import org.metaborg.spoofax.core.unit.ISpoofaxUnitService;
+import org.spoofax.interpreter.terms.IStrategoTerm;
+import org.spoofax.interpreter.terms.ITermFactory;
+import org.spoofax.terms.TermFactory;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class SpoofaxParseOracleTest {
+    private static final JSGLRParserConfiguration CONFIG = new JSGLRParserConfiguration(false, false);
+
+    private final ITermFactory termFactory = new TermFactory();
+    private final Map<ISpoofaxInputUnit, String> texts = new HashMap<>();
+    private final AtomicInteger parses = new AtomicInteger();
+
+    @Test
+    public void testOk() {
+        SpoofaxParseOracle oracle = oracle(CONFIG);
+
+        assertEquals(Verdict.OK, oracle.parse("1 + 2"));
+    }
+
+    @Test
+    public void testAmbiguous() {
+        SpoofaxParseOracle oracle = oracle(CONFIG);
+
+        assertEquals(Verdict.AMBIGUOUS, oracle.parse("1 + 2 + 3"));
+        assertEquals(Verdict.AMBIGUOUS, oracle.parse("print 1 + 2 + 3"));
+    }
+
+    @Test
+    public void testError() {
+        SpoofaxParseOracle oracle = oracle(CONFIG);
+
+        assertEquals(Verdict.ERROR, oracle.parse("1 +"));
+        assertEquals(Verdict.ERROR, oracle.parse("throw"));
+    }
+
+    @Test
+    public void testTimeout() {
+        // Every failed parse takes at least a timeout of zero milliseconds
+        SpoofaxParseOracle oracle = oracle(new JSGLRParserConfiguration(false, false, false, 0, Integer.MAX_VALUE));
+
+        assertEquals(Verdict.TIMEOUT, oracle.parse("1 +"));
+        assertEquals(Verdict.OK, oracle.parse("1 + 2"));
+    }
+
+    @Test
+    public void testCacheHit() {
+        SpoofaxParseOracle oracle = oracle(CONFIG);
+
+        oracle.parse("1 + 2 + 3");
+        oracle.parse("1 + 2 + 3");
+
+        assertEquals(1, parses.get());
+        assertEquals(1, oracle.getHits());
+    }
+
+    private SpoofaxParseOracle oracle(JSGLRParserConfiguration config) {
+        ISpoofaxUnitService unitService = proxy(ISpoofaxUnitService.class, (method, args) -> {
+            ISpoofaxInputUnit inputUnit = proxy(ISpoofaxInputUnit.class, (inputMethod, inputArgs) -> null);
+            texts.put(inputUnit, (String) args[0]);
+
+            return inputUnit;
+        });
+
+        ISpoofaxSyntaxService syntaxService = proxy(ISpoofaxSyntaxService.class, (method, args) -> {
+            parses.incrementAndGet();
+
+            return parse(texts.get((ISpoofaxInputUnit) args[0]));
+        });
+
+        return new SpoofaxParseOracle(unitService, syntaxService, null, config);
+    }
+
+    /**
+     * Parse units for a few fixed texts. A sum of three numbers is ambiguous, an incomplete sum does not
+     * parse, and the parser fails on throw.
+     */
+    private ISpoofaxParseUnit parse(String text) {
+        IStrategoTerm one = appl("Num", termFactory.makeString("1"));
+        IStrategoTerm two = appl("Num", termFactory.makeString("2"));
+        IStrategoTerm three = appl("Num", termFactory.makeString("3"));
+        IStrategoTerm amb = appl("amb", termFactory.makeList(
+                appl("Add", appl("Add", one, two), three),
+                appl("Add", one, appl("Add", two, three))
+        ));
+
+        switch (text) {
+            case "1 + 2":
+                return parseUnit(true, appl("Add", one, two));
+            case "1 + 2 + 3":
+                return parseUnit(true, amb);
+            case "print 1 + 2 + 3":
+                return parseUnit(true, appl("Print", amb));
+            case "throw":
+                throw new IllegalStateException("Parser failed");
+            default:
+                return parseUnit(false, null);
+        }
+    }
+
+    private ISpoofaxParseUnit parseUnit(boolean success, IStrategoTerm ast) {
+        return proxy(ISpoofaxParseUnit.class, (method, args) -> {
+            switch (method.getName()) {
+                case "success":
+                    return success;
+                case "ast":
+                    return ast;
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+            }
+        });
+    }
+
+    private IStrategoTerm appl(String constructor, IStrategoTerm... children) {
+        return termFactory.makeAppl(termFactory.makeConstructor(constructor, children.length), children);
+    }
+
+    /**
+     * Implement the methods of an interface that the oracle uses. The identity methods of {@link Object} keep their
+     * default behavior, so proxies can be used as keys.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return type.getSimpleName();
+                default:
+                    return handler.invoke(method, args);
+            }
+        });
+    }
+
+    private interface Handler {
+        Object invoke(Method method, Object[] args) throws Exception;
+    }
+}
@@ -0,0 +1,75 @@
+package org.metaborg.spg.sentence.shared.shrink;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class CandidateSchedulerTest {
+    @Test
+    public void testScheduleByNodeCount() {
+        Node b = node("b");
+        Node c = node("c");
+        Node a = node("a", b, c);
+        Node d = node("d");
+        Node root = node("root", a, d);
+
+        CandidateScheduler<Node> scheduler = CandidateScheduler.byNodeCount(node -> node.children);
+
+        // a weighs 3 and goes first; the others weigh 1 and keep their order
+        assertEquals(Arrays.asList(a, d, b, c), scheduler.schedule(root, Arrays.asList(d, b, a, c)));
+    }
+
+    @Test
+    public void testScheduleByLeafWeight() {
+        Node x = node("x");
+        Node long1 = node("long1");
+        Node pair = node("pair", node("y"), node("zz"));
+        Node root = node("root", x, long1, pair);
+
+        // Leaves weigh their text length, and a node adds one to the weight of its children
+        CandidateScheduler<Node> scheduler = new CandidateScheduler<>(node -> node.children, node -> node.text.length(), 1);
+
+        assertEquals(Arrays.asList(long1, pair, x), scheduler.schedule(root, Arrays.asList(x, pair, long1)));
+    }
+
+    @Test
+    public void testScheduleUnknownSubterm() {
+        Node a = node("a", node("b"));
+        Node root = node("root", a);
+        Node other = node("other");
+
+        CandidateScheduler<Node> scheduler = CandidateScheduler.byNodeCount(node -> node.children);
+
+        assertEquals(Arrays.asList(a, other), scheduler.schedule(root, Arrays.asList(other, a)));
+    }
+
+    @Test
+    public void testScheduleStable() {
+        List<String> candidates = Arrays.asList("bb", "a", "ccc", "d", "ee");
+
+        assertEquals(Arrays.asList("ccc", "bb", "ee", "a", "d"),
+                CandidateScheduler.schedule(candidates, String::length));
+    }
+
+    private static Node node(String text, Node... children) {
+        return new Node(text, children);
+    }
+
+    private static class Node {
+        private final String text;
+        private final Node[] children;
+
+        private Node(String text, Node[] children) {
+            this.text = text;
+            this.children = children;
+        }
+
+        @Override
+        public String toString() {
+            return text;
+        }
+    }
+}
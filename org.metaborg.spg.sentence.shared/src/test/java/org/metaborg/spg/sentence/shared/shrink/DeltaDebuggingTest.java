@@ -0,0 +1,130 @@
+package org.metaborg.spg.sentence.shared.shrink;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DeltaDebuggingTest {
+    @Test
+    public void testChunks() {
+        List<String> chunks = DeltaDebugging.chunks(5, 1)
+                .map(Arrays::toString)
+                .collect(Collectors.toList());
+
+        assertEquals(Arrays.asList(
+                "[0, 3]", "[3, 5]",
+                "[0, 2]", "[2, 4]", "[4, 5]",
+                "[0, 1]", "[1, 2]", "[2, 3]", "[3, 4]", "[4, 5]"
+        ), chunks);
+    }
+
+    @Test
+    public void testChunksMinimumSize() {
+        List<String> chunks = DeltaDebugging.chunks(8, 3)
+                .map(Arrays::toString)
+                .collect(Collectors.toList());
+
+        assertEquals(Arrays.asList("[0, 4]", "[4, 8]"), chunks);
+    }
+
+    @Test
+    public void testChunksEmpty() {
+        assertEquals(0, DeltaDebugging.chunks(0, 1).count());
+        assertEquals(Collections.singletonList(Collections.singletonList("a")),
+                DeltaDebugging.chunks(Collections.singletonList("a")).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testChunksOfList() {
+        List<List<String>> chunks = DeltaDebugging.chunks(Arrays.asList("a", "b", "c", "d"))
+                .collect(Collectors.toList());
+
+        assertEquals(Arrays.asList(
+                Arrays.asList("a", "b"), Arrays.asList("c", "d"),
+                Collections.singletonList("a"), Collections.singletonList("b"),
+                Collections.singletonList("c"), Collections.singletonList("d")
+        ), chunks);
+    }
+
+    @Test
+    public void testDdminSingleElement() {
+        List<Integer> result = DeltaDebugging.ddmin(range(1, 8), elements -> elements.contains(5));
+
+        assertEquals(Collections.singletonList(5), result);
+    }
+
+    @Test
+    public void testDdminScatteredElements() {
+        List<Integer> result = DeltaDebugging.ddmin(range(1, 8), elements ->
+                elements.contains(2) && elements.contains(7)
+        );
+
+        assertEquals(Arrays.asList(2, 7), result);
+    }
+
+    @Test
+    public void testDdminOneMinimal() {
+        Predicate<List<Integer>> test = elements -> elements.stream().mapToInt(Integer::intValue).sum() >= 20;
+        List<Integer> result = DeltaDebugging.ddmin(range(1, 10), test);
+
+        assertTrue(test.test(result));
+
+        // Removing any single element fails the test
+        for (int i = 0; i < result.size(); i++) {
+            List<Integer> smaller = new ArrayList<>(result);
+            smaller.remove(i);
+
+            assertFalse(test.test(smaller), "removable element in " + result);
+        }
+    }
+
+    @Test
+    public void testDdminUnreducible() {
+        List<Integer> elements = range(1, 6);
+        AtomicInteger tests = new AtomicInteger();
+
+        List<Integer> result = DeltaDebugging.ddmin(elements, candidate -> {
+            tests.incrementAndGet();
+
+            return candidate.size() == elements.size();
+        });
+
+        assertEquals(elements, result);
+        assertTrue(tests.get() > 0);
+    }
+
+    @Test
+    public void testLevels() {
+        Map<String, List<String>> tree = new HashMap<>();
+        tree.put("root", Arrays.asList("a", "b"));
+        tree.put("a", Arrays.asList("c", "d"));
+        tree.put("b", Collections.singletonList("e"));
+
+        List<List<String>> levels = DeltaDebugging.levels("root", node ->
+                tree.getOrDefault(node, Collections.emptyList())
+        );
+
+        assertEquals(Arrays.asList(
+                Collections.singletonList("root"),
+                Arrays.asList("a", "b"),
+                Arrays.asList("c", "d", "e")
+        ), levels);
+    }
+
+    private static List<Integer> range(int from, int to) {
+        return IntStream.rangeClosed(from, to).boxed().collect(Collectors.toList());
+    }
+}
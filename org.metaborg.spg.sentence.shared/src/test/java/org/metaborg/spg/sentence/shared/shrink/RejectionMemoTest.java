@@ -0,0 +1,84 @@
+package org.metaborg.spg.sentence.shared.shrink;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RejectionMemoTest {
+    @Test
+    public void testSkipRejected() {
+        RejectionMemo<String> memo = RejectionMemo.ofTexts(Function.identity());
+        AtomicInteger calls = new AtomicInteger();
+        Predicate<String> predicate = candidate -> {
+            calls.incrementAndGet();
+
+            return false;
+        };
+
+        assertFalse(memo.test("a", predicate));
+        assertFalse(memo.test("a", predicate));
+        assertFalse(memo.test("b", predicate));
+
+        assertEquals(2, calls.get());
+        assertEquals(2, memo.getTests());
+        assertEquals(1, memo.getSkips());
+    }
+
+    @Test
+    public void testRetestAccepted() {
+        RejectionMemo<String> memo = RejectionMemo.ofTexts(Function.identity());
+        AtomicInteger calls = new AtomicInteger();
+        Predicate<String> predicate = memo.filter(candidate -> {
+            calls.incrementAndGet();
+
+            return true;
+        });
+
+        assertTrue(predicate.test("a"));
+        assertTrue(predicate.test("a"));
+
+        assertEquals(2, calls.get());
+        assertEquals(0, memo.getSkips());
+    }
+
+    @Test
+    public void testCapacity() {
+        RejectionMemo<String> memo = new RejectionMemo<>(String::hashCode, 2);
+        AtomicInteger calls = new AtomicInteger();
+        Predicate<String> predicate = memo.filter(candidate -> {
+            calls.incrementAndGet();
+
+            return false;
+        });
+
+        predicate.test("a");
+        predicate.test("b");
+
+        // Looking up a makes b the least recently used rejection, so c evicts b
+        predicate.test("a");
+        predicate.test("c");
+
+        assertEquals(3, calls.get());
+
+        predicate.test("a");
+        predicate.test("c");
+
+        assertEquals(3, calls.get());
+
+        predicate.test("b");
+
+        assertEquals(4, calls.get());
+    }
+
+    @Test
+    public void testInvalidCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new RejectionMemo<>(String::hashCode, 0));
+    }
+}
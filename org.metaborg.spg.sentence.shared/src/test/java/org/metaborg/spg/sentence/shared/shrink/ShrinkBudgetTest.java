@@ -0,0 +1,91 @@
+package org.metaborg.spg.sentence.shared.shrink;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ShrinkBudgetTest {
+    @Test
+    public void testNegative() {
+        assertThrows(IllegalArgumentException.class, () -> new ShrinkBudget(-1, 0));
+        assertThrows(IllegalArgumentException.class, () -> new ShrinkBudget(0, -1));
+    }
+
+    @Test
+    public void testUnlimited() {
+        ShrinkBudget.Meter meter = ShrinkBudget.UNLIMITED.start();
+        List<Integer> elements = meter.limit(Stream.of(1, 2, 3))
+                .filter(meter.count(element -> true))
+                .collect(Collectors.toList());
+
+        assertTrue(ShrinkBudget.UNLIMITED.isUnlimited());
+        assertEquals(Arrays.asList(1, 2, 3), elements);
+        assertEquals(3, meter.getTests());
+        assertFalse(meter.isExhausted());
+    }
+
+    @Test
+    public void testMaxTests() {
+        ShrinkBudget.Meter meter = new ShrinkBudget(0, 2).start();
+
+        Optional<Integer> element = meter.limit(Stream.of(1, 2, 3, 4))
+                .filter(meter.count(candidate -> false))
+                .findFirst();
+
+        assertFalse(element.isPresent());
+        assertEquals(2, meter.getTests());
+        assertTrue(meter.isExhausted());
+    }
+
+    @Test
+    public void testLimitIterator() {
+        ShrinkBudget.Meter meter = new ShrinkBudget(0, 1).start();
+        Iterator<Integer> iterator = meter.limit(Arrays.asList(1, 2).iterator());
+
+        assertTrue(iterator.hasNext());
+        assertTrue(meter.count(candidate -> true).test(iterator.next()));
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void testTimeLimit() throws InterruptedException {
+        ShrinkBudget.Meter meter = new ShrinkBudget(1, 0).start();
+
+        Thread.sleep(10);
+
+        assertTrue(meter.isExhausted());
+        assertTrue(meter.getTime() >= 1);
+        assertFalse(meter.limit(Stream.of(1)).findAny().isPresent());
+    }
+
+    @Test
+    public void testMetersAreIndependent() {
+        ShrinkBudget budget = new ShrinkBudget(0, 1);
+        ShrinkBudget.Meter first = budget.start();
+
+        first.count(candidate -> true).test(1);
+
+        assertTrue(first.isExhausted());
+        assertFalse(budget.start().isExhausted());
+    }
+
+    @Test
+    public void testCloseStream() {
+        AtomicBoolean closed = new AtomicBoolean();
+
+        ShrinkBudget.UNLIMITED.start().limit(Stream.of(1).onClose(() -> closed.set(true))).close();
+
+        assertTrue(closed.get());
+    }
+}
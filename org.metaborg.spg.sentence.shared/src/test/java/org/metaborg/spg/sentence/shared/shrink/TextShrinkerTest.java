@@ -0,0 +1,66 @@
+package org.metaborg.spg.sentence.shared.shrink;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TextShrinkerTest {
+    @Test
+    public void testShrinkToToken() {
+        TextShrinker shrinker = new TextShrinker(sentence -> sentence.contains("foo"));
+
+        assertEquals("foo", shrinker.shrink("let x = foo(bar) in baz"));
+    }
+
+    @Test
+    public void testWordsAreTokens() {
+        // A word is never split, so "foo_1" cannot shrink to a part of it
+        TextShrinker shrinker = new TextShrinker(sentence -> sentence.contains("o_1"));
+
+        assertEquals("foo_1", shrinker.shrink("x + foo_1"));
+    }
+
+    @Test
+    public void testAdjacentTokensStayAdjacent() {
+        TextShrinker shrinker = new TextShrinker(sentence -> sentence.contains("=="));
+
+        assertEquals("==", shrinker.shrink("a == b"));
+    }
+
+    @Test
+    public void testAdjacentWordAndPunctuation() {
+        TextShrinker shrinker = new TextShrinker(sentence -> sentence.contains("(x)"));
+
+        assertEquals("(x)", shrinker.shrink("f(x) + g"));
+    }
+
+    @Test
+    public void testRemovedTokensLeaveSpace() {
+        TextShrinker shrinker = new TextShrinker(sentence -> sentence.contains("x") && sentence.contains("z"));
+
+        assertEquals("x z", shrinker.shrink("x+y*z"));
+    }
+
+    @Test
+    public void testLayoutIsNormalized() {
+        TextShrinker shrinker = new TextShrinker(sentence -> sentence.contains("a") && sentence.contains("b"));
+
+        assertEquals("a b", shrinker.shrink("a \n\t  b"));
+    }
+
+    @Test
+    public void testPropertyFailsOnJoinedSentence() {
+        // The joined tokens do not keep the property, so the sentence is returned as is
+        TextShrinker shrinker = new TextShrinker(sentence -> sentence.contains("  "));
+
+        assertEquals("a  b", shrinker.shrink("a  b"));
+    }
+
+    @Test
+    public void testNotLonger() {
+        TextShrinker shrinker = new TextShrinker(sentence -> true);
+
+        assertEquals("ab", shrinker.shrink("ab"));
+        assertEquals("a", shrinker.shrink("a b c"));
+    }
+}